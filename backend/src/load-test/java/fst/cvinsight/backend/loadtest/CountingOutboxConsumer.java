@@ -0,0 +1,37 @@
+package fst.cvinsight.backend.loadtest;
+
+import fst.cvinsight.backend.entity.OutboxEvent;
+import fst.cvinsight.backend.outbox.OutboxConsumer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Outbox consumer of the load test: counts delivered events by type, and redeliveries
+ * by their idempotency key.
+ */
+class CountingOutboxConsumer implements OutboxConsumer {
+
+    private final Set<UUID> seen = ConcurrentHashMap.newKeySet();
+    private final Map<String, Long> delivered = new ConcurrentHashMap<>();
+
+    @Override
+    public String getName() {
+        return "load-test";
+    }
+
+    @Override
+    public void handle(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            delivered.merge(seen.add(event.getEventKey()) ? event.getType().name() : "redelivered", 1L, Long::sum);
+        }
+    }
+
+    Map<String, Long> delivered() {
+        return new TreeMap<>(delivered);
+    }
+}
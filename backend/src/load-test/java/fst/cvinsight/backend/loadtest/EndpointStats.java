@@ -0,0 +1,59 @@
+package fst.cvinsight.backend.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Latencies and outcomes of the requests sent to one endpoint during a scenario.
+ * Latencies are kept exactly (one long per request); runs are short enough.
+ */
+class EndpointStats {
+
+    private final String endpoint;
+    private long[] latencies = new long[1024];
+    private int count;
+    private int errors;
+
+    EndpointStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    synchronized void record(long latencyNanos, boolean error) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+        if (error) {
+            errors++;
+        }
+    }
+
+    synchronized Summary summarize(Duration elapsed) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        return new Summary(
+                endpoint,
+                count,
+                count / (elapsed.toNanos() / 1e9),
+                percentile(sorted, 0.50) / 1e6,
+                percentile(sorted, 0.99) / 1e6,
+                count == 0 ? 0 : (double) errors / count);
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    record Summary(String endpoint, int requests, double throughput, double p50Ms, double p99Ms, double errorRate) {
+
+        @Override
+        public String toString() {
+            return "%-40s %8d %10.2f %10.1f %10.1f %8.2f%%".formatted(
+                    endpoint, requests, throughput, p50Ms, p99Ms, errorRate * 100);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package fst.cvinsight.backend.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.random.RandomGenerator;
+
+/**
+ * Log-normal generation latency given by its median and 99th percentile,
+ * the usual shape of LLM response times (long right tail).
+ */
+record LatencyDistribution(Duration median, Duration p99) {
+
+    private static final double Z_99 = 2.3263;
+
+    /**
+     * Parses {@code "<median>,<p99>"}, e.g. {@code "800ms,3s"}; a single value means a fixed latency.
+     */
+    static LatencyDistribution parse(String value) {
+        String[] parts = value.split(",");
+        Duration median = DurationStyle.detectAndParse(parts[0].trim());
+        Duration p99 = parts.length > 1 ? DurationStyle.detectAndParse(parts[1].trim()) : median;
+        if (p99.compareTo(median) < 0) {
+            throw new IllegalArgumentException("p99 is below the median in " + value);
+        }
+        return new LatencyDistribution(median, p99);
+    }
+
+    Duration sample(RandomGenerator random) {
+        double sigma = Math.log((double) p99.toNanos() / median.toNanos()) / Z_99;
+        return Duration.ofNanos((long) (median.toNanos() * Math.exp(sigma * random.nextGaussian())));
+    }
+}
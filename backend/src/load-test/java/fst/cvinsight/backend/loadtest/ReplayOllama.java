@@ -0,0 +1,224 @@
+package fst.cvinsight.backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import fst.cvinsight.backend.llm.LlmTask;
+import fst.cvinsight.backend.llm.StubOllamaServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fake Ollama for load tests, built on {@link StubOllamaServer}.
+ * <p>
+ * Each chat request is classified into the {@link LlmTask} that sent it by the JSON
+ * schema in its {@code format}, and answered with one of the responses recorded for
+ * that task in {@code loadtest/recordings/<task>.json}, after a latency drawn from the
+ * task's distribution. Section extraction requests get the requested section of a
+ * recorded full extraction, so chunked and single-prompt extraction both work, and
+ * analysis requests get the recorded reviews of the sections they ask for.
+ * <p>
+ * In recording mode every request is forwarded to a real Ollama instead, and the
+ * responses are collected so {@link #saveRecordings(Path)} can write new recording files.
+ */
+class ReplayOllama implements AutoCloseable {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final StubOllamaServer server;
+    private final Map<LlmTask, List<JsonNode>> recordings = new EnumMap<>(LlmTask.class);
+    private final Map<LlmTask, LatencyDistribution> latencies;
+    private final Map<LlmTask, AtomicLong> calls = new EnumMap<>(LlmTask.class);
+    private final Map<LlmTask, List<JsonNode>> recorded = new EnumMap<>(LlmTask.class);
+    private final Random random;
+    private final String recordFrom;
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    /**
+     * @param recordFrom base URL of a real Ollama to record from, or null to replay
+     */
+    ReplayOllama(Map<LlmTask, LatencyDistribution> latencies, long seed, String recordFrom) throws IOException {
+        this.latencies = new EnumMap<>(latencies);
+        this.random = new Random(seed);
+        this.recordFrom = recordFrom;
+        for (LlmTask task : LlmTask.values()) {
+            calls.put(task, new AtomicLong());
+            recorded.put(task, new CopyOnWriteArrayList<>());
+            if (recordFrom == null) {
+                recordings.put(task, load(task));
+            }
+        }
+        server = new StubOllamaServer().respondWith(this::respond);
+    }
+
+    String baseUrl() {
+        return server.baseUrl();
+    }
+
+    long calls(LlmTask task) {
+        return calls.get(task).get();
+    }
+
+    /**
+     * Answers with the given latencies instead of the configured ones until the
+     * returned handle is closed.
+     */
+    AutoCloseable withLatencies(Map<LlmTask, LatencyDistribution> overrides) {
+        Map<LlmTask, LatencyDistribution> configured;
+        synchronized (random) {
+            configured = new EnumMap<>(latencies);
+            latencies.putAll(overrides);
+        }
+        return () -> {
+            synchronized (random) {
+                latencies.putAll(configured);
+            }
+        };
+    }
+
+    void saveRecordings(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<LlmTask, List<JsonNode>> entry : recorded.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                objectMapper.writerWithDefaultPrettyPrinter()
+                        .writeValue(directory.resolve(fileName(entry.getKey())).toFile(), entry.getValue());
+            }
+        }
+    }
+
+    private String respond(JsonNode request) {
+        JsonNode format = request.path("format");
+        LlmTask task = classify(format);
+        calls.get(task).incrementAndGet();
+        if (recordFrom != null) {
+            return forward(task, request);
+        }
+
+        List<JsonNode> responses = recordings.get(task);
+        Duration latency;
+        JsonNode response;
+        synchronized (random) {
+            latency = latencies.get(task).sample(random);
+            response = responses.get(random.nextInt(responses.size()));
+        }
+        sleep(latency);
+
+        JsonNode properties = format.path("properties");
+        if (task == LlmTask.EXTRACTION && properties.size() == 1) {
+            String section = properties.fieldNames().next();
+            ObjectNode fragment = objectMapper.createObjectNode();
+            fragment.set(section, response.path(section));
+            return fragment.toString();
+        }
+        if (task == LlmTask.ANALYSIS) {
+            ObjectNode reviews = objectMapper.createObjectNode();
+            properties.fieldNames().forEachRemaining(section -> reviews.set(section, review(responses, response, section)));
+            return reviews.toString();
+        }
+        return response.toString();
+    }
+
+    /*
+     * The section's review in the chosen recording, or in any recording that has one
+     * (recordings made from edited resumes only hold the sections that were reviewed)
+     */
+    private static JsonNode review(List<JsonNode> responses, JsonNode chosen, String section) {
+        if (chosen.has(section)) {
+            return chosen.get(section);
+        }
+        return responses.stream()
+                .filter(response -> response.has(section))
+                .findFirst()
+                .map(response -> response.get(section))
+                .orElseThrow(() -> new IllegalStateException("No recorded review of section " + section));
+    }
+
+    /*
+     * Career recommendations are the only array output; the other schemas are told
+     * apart by a field only they have (section reviews, one level down).
+     */
+    private static LlmTask classify(JsonNode format) {
+        if ("array".equals(format.path("type").asText())) {
+            return LlmTask.CAREER_RECOMMENDATION;
+        }
+        JsonNode properties = format.path("properties");
+        if (properties.has("winner")) {
+            return LlmTask.COMPARISON;
+        }
+        if (properties.elements().hasNext() && properties.elements().next().path("properties").has("score")) {
+            return LlmTask.ANALYSIS;
+        }
+        return LlmTask.EXTRACTION;
+    }
+
+    private String forward(LlmTask task, JsonNode request) {
+        try {
+            HttpResponse<String> response = httpClient.send(
+                    HttpRequest.newBuilder(URI.create(recordFrom + "/api/chat"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(
+                                    ((ObjectNode) request.deepCopy()).put("stream", false).toString()))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            String content = objectMapper.readTree(response.body()).path("message").path("content").asText();
+            // Section requests are not recorded: replay derives them from full extractions
+            if (task != LlmTask.EXTRACTION || request.path("format").path("properties").size() > 1) {
+                recorded.get(task).add(objectMapper.readTree(content));
+            }
+            return content;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<JsonNode> load(LlmTask task) throws IOException {
+        String name = "loadtest/recordings/" + fileName(task);
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing recording " + name);
+            }
+            List<JsonNode> responses = new ArrayList<>();
+            ((ArrayNode) objectMapper.readTree(in)).forEach(responses::add);
+            if (responses.isEmpty()) {
+                throw new IllegalStateException("No responses in " + name);
+            }
+            return responses;
+        }
+    }
+
+    private static String fileName(LlmTask task) {
+        return task.name().toLowerCase().replace('_', '-') + ".json";
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.close();
+    }
+}
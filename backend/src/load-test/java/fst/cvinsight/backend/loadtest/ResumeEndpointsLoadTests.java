@@ -0,0 +1,676 @@
+package fst.cvinsight.backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import fst.cvinsight.backend.BackendApplication;
+import fst.cvinsight.backend.dto.LlmUsageDto;
+import fst.cvinsight.backend.llm.LlmTask;
+import fst.cvinsight.backend.outbox.OutboxPoller;
+import fst.cvinsight.backend.retention.ResumeRetentionProperties;
+import fst.cvinsight.backend.retention.ResumeRetentionService;
+import fst.cvinsight.backend.service.LlmQuotaService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.scheduling.annotation.ScheduledAnnotationBeanPostProcessor;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load test of the resume endpoints, fully offline: the backend runs against an
+ * embedded Postgres and a {@link ReplayOllama} answering with recorded responses.
+ * <pre>
+ * mvn -P load-test test -Dloadtest.concurrency=32 -Dloadtest.duration=60s
+ * </pre>
+ * Each scenario drives its endpoints with {@code loadtest.concurrency} closed-loop
+ * clients for {@code loadtest.warmup} (not measured) then {@code loadtest.duration}.
+ * Throughput, p50/p99 latency and error rate per endpoint are printed and written to
+ * {@code target/load-test/report.json}, with the response bytes before and after compression. Other settings:
+ * <ul>
+ *   <li>{@code loadtest.users}: users the requests are spread over</li>
+ *   <li>{@code loadtest.latency.<task>}: fake generation latency, {@code "<median>,<p99>"}</li>
+ *   <li>{@code loadtest.seed}: seed of the latency and response choices</li>
+ *   <li>{@code loadtest.max-error-rate}: the test fails above it</li>
+ *   <li>{@code loadtest.record-from}: base URL of a real Ollama; responses are proxied and
+ *   saved to {@code target/load-test/recordings} to refresh {@code loadtest/recordings}</li>
+ *   <li>{@code loadtest.replica}: also start a second Postgres as read replica, fed by
+ *   logical replication from the first, and route reads to it (see ReplicaRouting)</li>
+ *   <li>{@code loadtest.tomcat-threads}: {@code server.tomcat.threads.max} of the backends
+ *   comparing platform and virtual request threads, driven with four clients per thread</li>
+ *   <li>{@code loadtest.pool.max-extra-active}: how many more active connections than
+ *   with no requests the pool-occupancy scenario tolerates at its peak</li>
+ * </ul>
+ * Application properties can be overridden the same way, e.g.
+ * {@code -Dspring.threads.virtual.enabled=true} or {@code -Dllm.models.large.max-concurrency=8}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ResumeEndpointsLoadTests {
+
+    private static final Path OUTPUT = Path.of("target", "load-test");
+    private static final Path SCHEMA = OUTPUT.resolve("schema.sql");
+    private static final Map<LlmTask, String> DEFAULT_LATENCIES = Map.of(
+            LlmTask.EXTRACTION, "1200ms,4s",
+            LlmTask.ANALYSIS, "2s,6s",
+            LlmTask.COMPARISON, "2500ms,7s",
+            LlmTask.CAREER_RECOMMENDATION, "3s,8s");
+
+    // What the test registers on top of application.yml, to boot more backends the same way
+    private static final Map<String, Object> APPLICATION_PROPERTIES = new LinkedHashMap<>();
+    private static final Duration POOL_SAMPLE_INTERVAL = Duration.ofMillis(50);
+
+    private static EmbeddedPostgres postgres;
+    private static EmbeddedPostgres replica;
+    private static ReplayOllama ollama;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final int concurrency = Integer.getInteger("loadtest.concurrency", 16);
+    private final Duration warmup = duration("loadtest.warmup", "5s");
+    private final Duration measured = duration("loadtest.duration", "20s");
+    private final Map<String, Object> report = new LinkedHashMap<>();
+    private final List<Session> sessions = new ArrayList<>();
+    private byte[] resumePdf;
+    private ObjectNode renderRequest;
+    // Port requests are sent to: the test's backend, or one a scenario started
+    private volatile int target;
+    private final Map<String, Function<Session, HttpRequest>> upload = Map.of(
+            "POST /resume/upload-and-process", s -> multipart(s.token(), "/resume/upload-and-process",
+                    Map.of("file", resumePdf)));
+    private final Map<String, Function<Session, HttpRequest>> analysis = Map.of(
+            "GET /resume/{id}/analysis", s -> get(s.token(), "/resume/" + s.resumeIds().get(0) + "/analysis"));
+    private final Map<String, Function<Session, HttpRequest>> comparison = Map.of(
+            "POST /resume/resumes-comparison", s -> json(s.token(), "/resume/resumes-comparison",
+                    objectMapper.valueToTree(s.resumeIds())));
+    private final Map<String, Function<Session, HttpRequest>> recommendations = Map.of(
+            "POST /resume/career/recommendations", s -> json(s.token(), "/resume/career/recommendations",
+                    careerRequest(s)));
+    private final Map<String, Function<Session, HttpRequest>> reads = Map.of(
+            "GET /resume", s -> gzipGet(s.token(), "/resume"),
+            "GET /resume/{id}", s -> gzipGet(s.token(), "/resume/" + s.resumeIds().get(1)),
+            "GET /resume/{id} (If-None-Match)", s -> request(s.token(), "/resume/" + s.resumeIds().get(1))
+                    .header("If-None-Match", s.resumeETag()).GET().build(),
+            "GET /resume/{id}/file", s -> get(s.token(), "/resume/" + s.resumeIds().get(1) + "/file"),
+            "POST /resume/render", s -> json(s.token(), "/resume/render", renderRequest));
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private LlmQuotaService llmQuotaService;
+
+    @Autowired
+    private OutboxPoller outboxPoller;
+
+    @Autowired
+    private CountingOutboxConsumer outboxConsumer;
+
+    @Autowired
+    private ScheduledAnnotationBeanPostProcessor scheduledTasks;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ResumeRetentionService resumeRetentionService;
+
+    private record PoolSample(long ms, int active, int pending) {
+    }
+
+    private record PoolPeak(int active, int pending) {
+    }
+
+    private record Session(String token, List<UUID> resumeIds, String resumeETag) {
+    }
+
+    @TestConfiguration
+    static class OutboxConsumerConfig {
+        @Bean
+        CountingOutboxConsumer countingOutboxConsumer() {
+            return new CountingOutboxConsumer();
+        }
+    }
+
+    @DynamicPropertySource
+    static void environment(DynamicPropertyRegistry registry) throws IOException {
+        boolean withReplica = Boolean.getBoolean("loadtest.replica");
+        postgres = withReplica
+                ? EmbeddedPostgres.builder().setServerConfig("wal_level", "logical").start()
+                : EmbeddedPostgres.builder().start();
+        Map<LlmTask, LatencyDistribution> latencies = new EnumMap<>(LlmTask.class);
+        DEFAULT_LATENCIES.forEach((task, value) -> latencies.put(task, LatencyDistribution.parse(
+                System.getProperty("loadtest.latency." + task.name().toLowerCase().replace('_', '-'), value))));
+        ollama = new ReplayOllama(latencies, Long.getLong("loadtest.seed", 42), System.getProperty("loadtest.record-from"));
+
+        Map<String, Object> properties = APPLICATION_PROPERTIES;
+        properties.put("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"));
+        properties.put("spring.datasource.username", "postgres");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create");
+        properties.put("ollama.router.endpoints", ollama.baseUrl());
+        properties.put("spring.ai.ollama.base-url", ollama.baseUrl());
+        properties.put("jwt.secret", Base64.getEncoder().encodeToString(
+                "load-test-secret-load-test-secret-load-test".getBytes(StandardCharsets.UTF_8)));
+        properties.put("jwt.expiration", "3600000");
+        properties.put("frontend.url", "http://localhost:5173");
+        properties.put("spring.security.oauth2.client.registration.google.client-id", "load-test");
+        properties.put("spring.security.oauth2.client.registration.google.client-secret", "load-test");
+        properties.put("management.server.port", "0");
+        properties.put("access-log.file", OUTPUT.resolve("access.log").toString());
+        // A handful of users send thousands of model requests; quotas are not what is measured
+        properties.put("llm.quota.requests-per-window", Integer.MAX_VALUE);
+        properties.put("llm.quota.tokens-per-window", Long.MAX_VALUE);
+
+        if (withReplica) {
+            replica = EmbeddedPostgres.builder().start();
+            properties.put("datasource.replica.url", replica.getJdbcUrl("postgres", "postgres"));
+            // Hibernate also writes the schema it creates, so it can be created on the replica
+            Files.createDirectories(OUTPUT);
+            properties.put("spring.jpa.properties.jakarta.persistence.schema-generation.database.action", "drop-and-create");
+            properties.put("spring.jpa.properties.jakarta.persistence.schema-generation.scripts.action", "create");
+            properties.put("spring.jpa.properties.jakarta.persistence.schema-generation.scripts.create-target", SCHEMA.toString());
+            properties.put("spring.jpa.properties.hibernate.hbm2ddl.delimiter", ";");
+            properties.put("spring.jpa.properties.hibernate.hbm2ddl.schema-generation.script.append", "false");
+        }
+        properties.forEach((name, value) -> registry.add(name, () -> value));
+    }
+
+    @BeforeAll
+    void createUsersAndResumes() throws Exception {
+        target = port;
+        // Run against the partitioned resume table, as set up in production
+        transactionTemplate.executeWithoutResult(status ->
+                new ResourceDatabasePopulator(new ClassPathResource("db/partition-resume.sql")).execute(dataSource));
+        if (replica != null) {
+            startReplication();
+        }
+        resumePdf = resumePdf();
+        String resumeJson = objectMapper.readTree(getClass().getClassLoader()
+                .getResource("loadtest/recordings/extraction.json")).get(0).toString();
+        // Same JSON for everyone: after the first render it is served from the render cache
+        renderRequest = objectMapper.createObjectNode().put("templateId", "temp-3");
+        renderRequest.set("jsonContent", objectMapper.readTree(resumeJson));
+
+        int users = Integer.getInteger("loadtest.users", 8);
+        for (int i = 0; i < users; i++) {
+            String email = "load-" + i + "-" + UUID.randomUUID() + "@example.com";
+            ObjectNode credentials = objectMapper.createObjectNode()
+                    .put("email", email)
+                    .put("password", "load-test-password")
+                    .put("username", "Load Test " + i);
+            expectOk(send(json(null, "/auth/register", credentials)));
+            String token = objectMapper.readTree(expectOk(send(json(null, "/auth/login", credentials))).body())
+                    .path("token").asText();
+
+            for (int r = 0; r < 2; r++) {
+                expectOk(send(multipart(token, "/resume/upload", Map.of(
+                        "file", resumePdf,
+                        "jsonContent", objectMapper.writeValueAsBytes(resumeJson)))));
+            }
+            List<UUID> ids = new ArrayList<>();
+            for (JsonNode resume : objectMapper.readTree(expectOk(send(get(token, "/resume"))).body())) {
+                ids.add(UUID.fromString(resume.path("id").asText()));
+            }
+            String eTag = expectOk(send(get(token, "/resume/" + ids.get(1)))).headers().firstValue("ETag").orElseThrow();
+            sessions.add(new Session(token, ids, eTag));
+        }
+    }
+
+    /*
+     * Creates the schema on the replica and subscribes it to every table of the primary,
+     * waiting for the initial copy. A logical subscriber is not in recovery, so its lag
+     * reads as 0 and only the read-your-writes window covers replication delay.
+     */
+    private void startReplication() throws InterruptedException {
+        DataSource replicaDatabase = replica.getPostgresDatabase();
+        new ResourceDatabasePopulator(new FileSystemResource(SCHEMA), new ClassPathResource("db/partition-resume.sql"))
+                .execute(replicaDatabase);
+        new JdbcTemplate(dataSource).execute("create publication load_test for all tables");
+        JdbcTemplate subscriber = new JdbcTemplate(replicaDatabase);
+        subscriber.execute("create subscription load_test connection 'host=localhost port=" + postgres.getPort()
+                + " user=postgres dbname=postgres' publication load_test");
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (subscriber.queryForObject("select count(*) from pg_subscription_rel where srsubstate <> 'r'", Long.class) > 0) {
+            assertThat(System.nanoTime()).as("initial copy to the replica").isLessThan(deadline);
+            Thread.sleep(100);
+        }
+    }
+
+    @AfterAll
+    void writeReportAndStop() throws IOException, InterruptedException {
+        Map<String, Long> llmCalls = new LinkedHashMap<>();
+        for (LlmTask task : LlmTask.values()) {
+            llmCalls.put(task.name().toLowerCase(), ollama.calls(task));
+        }
+        report.put("llmCalls", llmCalls);
+        // Also saves the usage counters while the database is still up, so the shutdown flush has nothing left
+        Map<String, Long> llmUsage = new LinkedHashMap<>();
+        for (LlmUsageDto usage : llmQuotaService.getTopConsumers(sessions.size())) {
+            llmUsage.merge("requests", usage.getRequestCount(), Long::sum);
+            llmUsage.merge("promptTokens", usage.getPromptTokens(), Long::sum);
+            llmUsage.merge("completionTokens", usage.getCompletionTokens(), Long::sum);
+        }
+        report.put("llmUsage", llmUsage);
+        System.out.printf("%nmodel usage charged to users: %s%n", llmUsage);
+        Map<String, Double> responseBytes = new LinkedHashMap<>();
+        meterRegistry.find("http.server.response.bytes").counters().forEach(counter -> responseBytes.merge(
+                counter.getId().getTag("encoding") + "." + counter.getId().getTag("stage"), counter.count(), Double::sum));
+        report.put("responseBytes", responseBytes);
+        System.out.printf("%nresponse bytes by encoding and stage: %s%n", responseBytes);
+        Map<String, Double> readsByDatabase = new LinkedHashMap<>();
+        meterRegistry.find("datasource.reads").counters().forEach(counter ->
+                readsByDatabase.put(counter.getId().getTag("target"), counter.count()));
+        if (!readsByDatabase.isEmpty()) {
+            report.put("readOnlyTransactions", readsByDatabase);
+            System.out.printf("%nread-only transactions by database: %s%n", readsByDatabase);
+        }
+        // Scheduled jobs would otherwise keep polling the database closed below
+        scheduledTasks.destroy();
+        ResumeRetentionProperties.Policy unanalyzed = new ResumeRetentionProperties.Policy();
+        unanalyzed.setName("load-test");
+        unanalyzed.setUnscoredOnly(true);
+        unanalyzed.setMaxAge(Duration.ZERO);
+        int purged = resumeRetentionService.purge(unanalyzed);
+        report.put("retentionPurged", purged);
+        System.out.printf("%nunanalyzed resumes purged by retention: %d%n", purged);
+        outboxPoller.poll();
+        report.put("outboxEvents", outboxConsumer.delivered());
+        System.out.printf("%noutbox events delivered: %s%n", outboxConsumer.delivered());
+        Files.createDirectories(OUTPUT);
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(OUTPUT.resolve("report.json").toFile(), report);
+        if (System.getProperty("loadtest.record-from") != null) {
+            ollama.saveRecordings(OUTPUT.resolve("recordings"));
+        }
+        ollama.close();
+        if (replica != null) {
+            replica.close();
+        }
+        postgres.close();
+        if (replica != null) {
+            assertThat(readsByDatabase.get("replica")).as("reads served by the replica").isPositive();
+        }
+    }
+
+    @Test
+    void resumeEndpointsUnderLoad() throws Exception {
+        Map<String, Function<Session, HttpRequest>> mixed = new LinkedHashMap<>();
+        List.of(upload, analysis, comparison, recommendations, reads).forEach(mixed::putAll);
+
+        List<List<EndpointStats.Summary>> results = List.of(
+                run("extraction", upload),
+                run("analysis", analysis),
+                run("comparison", comparison),
+                run("career-recommendations", recommendations),
+                run("reads", reads),
+                run("mixed", mixed));
+
+        assertThat(results).allSatisfy(scenario -> assertThat(scenario)
+                .allSatisfy(endpoint -> assertThat(endpoint.errorRate())
+                        .as(endpoint.endpoint())
+                        .isLessThanOrEqualTo(maxErrorRate())));
+    }
+
+    /*
+     * Boots one more backend per request-thread model, on the same database and fake
+     * Ollama, and drives the model-backed endpoints with four clients per Tomcat thread:
+     * on platform threads the requests beyond server.tomcat.threads.max wait for a
+     * thread, on virtual threads they all wait on the model together
+     */
+    @Test
+    void virtualAgainstPlatformRequestThreads() throws Exception {
+        int tomcatThreads = Integer.getInteger("loadtest.tomcat-threads", 8);
+        int clients = tomcatThreads * 4;
+        Map<String, Function<Session, HttpRequest>> modelBound = new LinkedHashMap<>(comparison);
+        modelBound.putAll(recommendations);
+
+        Map<String, Map<String, EndpointStats.Summary>> byThreads = new LinkedHashMap<>();
+        for (boolean virtual : List.of(false, true)) {
+            String threads = virtual ? "virtual" : "platform";
+            try (ConfigurableApplicationContext backend = startBackend(Map.of(
+                    "spring.threads.virtual.enabled", virtual,
+                    "server.tomcat.threads.max", tomcatThreads,
+                    // Connections to Ollama must not be what requests queue on
+                    "ollama.client.pool.max-connections", clients))) {
+                target = backend.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+                run(threads + "-threads", modelBound, clients).forEach(summary ->
+                        byThreads.computeIfAbsent(summary.endpoint(), endpoint -> new LinkedHashMap<>())
+                                .put(threads, summary));
+            } finally {
+                target = port;
+            }
+        }
+
+        List<Map<String, Object>> sideBySide = new ArrayList<>();
+        System.out.printf("%nrequest threads, %d clients on %d Tomcat threads%n%-40s %15s %15s %15s %15s%n",
+                clients, tomcatThreads, "endpoint", "platform req/s", "platform p99", "virtual req/s", "virtual p99");
+        byThreads.forEach((endpoint, summaries) -> {
+            EndpointStats.Summary platform = summaries.get("platform");
+            EndpointStats.Summary virtual = summaries.get("virtual");
+            System.out.printf("%-40s %15.2f %15.1f %15.2f %15.1f%n", endpoint,
+                    platform.throughput(), platform.p99Ms(), virtual.throughput(), virtual.p99Ms());
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", endpoint);
+            row.put("platformThroughput", platform.throughput());
+            row.put("platformP99Ms", platform.p99Ms());
+            row.put("virtualThroughput", virtual.throughput());
+            row.put("virtualP99Ms", virtual.p99Ms());
+            sideBySide.add(row);
+        });
+        report.put("requestThreads", Map.of("tomcatThreads", tomcatThreads, "clients", clients, "endpoints", sideBySide));
+
+        assertThat(byThreads.values()).allSatisfy(summaries -> assertThat(summaries.values())
+                .allSatisfy(summary -> assertThat(summary.errorRate()).as(summary.endpoint())
+                        .isLessThanOrEqualTo(maxErrorRate())));
+    }
+
+    /*
+     * Samples the Hikari pools while analyses, comparisons and career recommendations
+     * wait on the fake Ollama with more clients than pooled connections. No connection
+     * is held across a model call, so the peak occupancy stays near the request-free
+     * baseline (scheduled jobs) instead of growing with the clients. The model answers
+     * at the default latencies whatever loadtest.latency says: with millisecond model
+     * calls the requests would be bound by the database instead.
+     */
+    @Test
+    void poolOccupancyUnderConcurrentAnalysis() throws Exception {
+        int clients = Math.max(concurrency, 32);
+        Map<String, Function<Session, HttpRequest>> modelBound = new LinkedHashMap<>(analysis);
+        modelBound.putAll(comparison);
+        modelBound.putAll(recommendations);
+
+        List<PoolSample> idle = samplePools(() -> {
+            Thread.sleep(Duration.ofSeconds(2));
+            return null;
+        });
+        List<EndpointStats.Summary> summaries = new ArrayList<>();
+        Map<LlmTask, LatencyDistribution> modelLatencies = new EnumMap<>(LlmTask.class);
+        DEFAULT_LATENCIES.forEach((task, value) -> modelLatencies.put(task, LatencyDistribution.parse(value)));
+        List<PoolSample> loaded;
+        try (AutoCloseable configured = ollama.withLatencies(modelLatencies)) {
+            loaded = samplePools(() -> summaries.addAll(run("pool-occupancy", modelBound, clients)));
+        }
+
+        PoolPeak idlePeak = peak(idle);
+        PoolPeak loadedPeak = peak(loaded);
+        System.out.printf("%nconnection pools, %d clients: peak active/pending %d/%d idle, %d/%d under load%n",
+                clients, idlePeak.active(), idlePeak.pending(), loadedPeak.active(), loadedPeak.pending());
+        Map<String, Object> occupancy = new LinkedHashMap<>();
+        occupancy.put("clients", clients);
+        occupancy.put("sampleIntervalMs", POOL_SAMPLE_INTERVAL.toMillis());
+        occupancy.put("idlePeak", idlePeak);
+        occupancy.put("loadedPeak", loadedPeak);
+        occupancy.put("idleSamples", idle);
+        occupancy.put("loadedSamples", loaded);
+        report.put("poolOccupancy", occupancy);
+
+        assertThat(summaries).allSatisfy(summary -> assertThat(summary.errorRate()).as(summary.endpoint())
+                .isLessThanOrEqualTo(maxErrorRate()));
+        assertThat(loadedPeak.active()).as("peak active connections")
+                .isLessThanOrEqualTo(idlePeak.active() + Integer.getInteger("loadtest.pool.max-extra-active", 4));
+        assertThat(loadedPeak.active() + loadedPeak.pending()).as("peak active and pending connections")
+                .isLessThan(clients / 4);
+    }
+
+    /*
+     * Sums the active and pending connections over the pools (primary and replica)
+     * every POOL_SAMPLE_INTERVAL while the given work runs
+     */
+    private List<PoolSample> samplePools(Callable<?> work) throws Exception {
+        assertThat(meterRegistry.find("hikaricp.connections.active").gauges()).as("Hikari pool metrics").isNotEmpty();
+        List<PoolSample> samples = new ArrayList<>();
+        AtomicBoolean done = new AtomicBoolean();
+        long start = System.nanoTime();
+        Thread sampler = Thread.ofVirtual().start(() -> {
+            while (!done.get()) {
+                samples.add(new PoolSample(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                        (int) gaugeSum("hikaricp.connections.active"), (int) gaugeSum("hikaricp.connections.pending")));
+                try {
+                    Thread.sleep(POOL_SAMPLE_INTERVAL);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        try {
+            work.call();
+        } finally {
+            done.set(true);
+            sampler.join();
+        }
+        return samples;
+    }
+
+    private double gaugeSum(String name) {
+        return meterRegistry.find(name).gauges().stream().mapToDouble(Gauge::value).sum();
+    }
+
+    private static PoolPeak peak(List<PoolSample> samples) {
+        return new PoolPeak(
+                samples.stream().mapToInt(PoolSample::active).max().orElse(0),
+                samples.stream().mapToInt(PoolSample::pending).max().orElse(0));
+    }
+
+    /*
+     * Same application and properties as the test's backend, on other ports; the schema
+     * is already there
+     */
+    private ConfigurableApplicationContext startBackend(Map<String, Object> overrides) {
+        Map<String, Object> properties = new LinkedHashMap<>(APPLICATION_PROPERTIES);
+        properties.keySet().removeIf(name -> name.startsWith("spring.jpa.properties."));
+        properties.put("spring.jpa.hibernate.ddl-auto", "none");
+        properties.put("server.port", 0);
+        properties.putAll(overrides);
+        // Command-line arguments, so they take precedence over application.yml
+        return new SpringApplicationBuilder(BackendApplication.class)
+                .run(properties.entrySet().stream().map(p -> "--" + p.getKey() + "=" + p.getValue()).toArray(String[]::new));
+    }
+
+    private List<EndpointStats.Summary> run(String scenario, Map<String, Function<Session, HttpRequest>> endpoints)
+            throws InterruptedException {
+        return run(scenario, endpoints, concurrency);
+    }
+
+    /*
+     * Closed loop: each client sends its next request as soon as the previous one completes.
+     * Requests started before the warm-up ends are not measured.
+     */
+    private List<EndpointStats.Summary> run(String scenario, Map<String, Function<Session, HttpRequest>> endpoints,
+                                            int clientCount) throws InterruptedException {
+        List<String> names = List.copyOf(endpoints.keySet());
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        names.forEach(name -> stats.put(name, new EndpointStats(name)));
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + measured.toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clientCount; c++) {
+                Session session = sessions.get(c % sessions.size());
+                clients.submit(() -> {
+                    while (System.nanoTime() < end) {
+                        String name = names.get(ThreadLocalRandom.current().nextInt(names.size()));
+                        long sent = System.nanoTime();
+                        boolean error;
+                        try {
+                            error = send(endpoints.get(name).apply(session)).statusCode() >= 400;
+                        } catch (IOException e) {
+                            error = true;
+                        }
+                        if (sent >= measureFrom) {
+                            stats.get(name).record(System.nanoTime() - sent, error);
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+
+        List<EndpointStats.Summary> summaries = stats.values().stream()
+                .map(s -> s.summarize(measured))
+                .toList();
+        System.out.printf("%nscenario %s (%d clients, %s)%n%-40s %8s %10s %10s %10s %9s%n",
+                scenario, clientCount, measured, "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "errors");
+        summaries.forEach(System.out::println);
+        report.put(scenario, summaries);
+        return summaries;
+    }
+
+    private static double maxErrorRate() {
+        return Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpResponse<String> expectOk(HttpResponse<String> response) {
+        assertThat(response.statusCode()).as(response.uri() + " " + response.body()).isLessThan(300);
+        return response;
+    }
+
+    private HttpRequest.Builder request(String token, String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + target + path))
+                .timeout(Duration.ofMinutes(2));
+        return token != null ? builder.header("Authorization", "Bearer " + token) : builder;
+    }
+
+    private HttpRequest get(String token, String path) {
+        return request(token, path).GET().build();
+    }
+
+    /*
+     * Browsers always accept gzip; the body is not read, only its status and size matter.
+     */
+    private HttpRequest gzipGet(String token, String path) {
+        return request(token, path).header("Accept-Encoding", "gzip").GET().build();
+    }
+
+    private HttpRequest json(String token, String path, JsonNode body) {
+        return request(token, path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+    }
+
+    private HttpRequest multipart(String token, String path, Map<String, byte[]> parts) {
+        String boundary = "load-test-" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        parts.forEach((name, content) -> {
+            boolean file = name.equals("file");
+            body.writeBytes(("--" + boundary + "\r\n"
+                    + "Content-Disposition: form-data; name=\"" + name + "\""
+                    + (file ? "; filename=\"resume.pdf\"" : "") + "\r\n"
+                    + "Content-Type: " + (file ? "application/pdf" : "application/json") + "\r\n\r\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            body.writeBytes(content);
+            body.writeBytes("\r\n".getBytes(StandardCharsets.UTF_8));
+        });
+        body.writeBytes(("--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return request(token, path)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build();
+    }
+
+    private ObjectNode careerRequest(Session session) {
+        ObjectNode request = objectMapper.createObjectNode();
+        ArrayNode ids = request.putArray("resumeIds");
+        session.resumeIds().forEach(id -> ids.add(id.toString()));
+        request.putObject("filters").put("type", "COURSE");
+        return request;
+    }
+
+    private static byte[] resumePdf() throws IOException {
+        try (PDDocument document = new PDDocument();
+             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                content.beginText();
+                content.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 10);
+                content.setLeading(14);
+                content.newLineAtOffset(50, 740);
+                for (String line : List.of(
+                        "Jane Doe - Senior Backend Engineer",
+                        "jane.doe@example.com | +216 20 123 456 | github.com/janedoe",
+                        "EXPERIENCE",
+                        "Senior Backend Engineer, Acme Payments (2021 - present)",
+                        "Backend Developer, DocuFlow (2017 - 2021)",
+                        "EDUCATION",
+                        "Engineering degree in Computer Science, Faculty of Sciences of Tunis (2012 - 2017)",
+                        "SKILLS",
+                        "Java, Kotlin, Spring Boot, PostgreSQL, Kafka, Docker, Kubernetes")) {
+                    content.showText(line);
+                    content.newLine();
+                }
+                content.endText();
+            }
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static Duration duration(String property, String defaultValue) {
+        return DurationStyle.detectAndParse(System.getProperty(property, defaultValue));
+    }
+}
@@ -1,9 +1,14 @@
 package fst.cvinsight.backend;
 
+import org.springframework.ai.model.ollama.autoconfigure.OllamaChatAutoConfiguration;
+import org.springframework.ai.model.ollama.autoconfigure.OllamaEmbeddingAutoConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// Chat models are built per Ollama endpoint by OllamaRouterConfig
+@SpringBootApplication(exclude = {OllamaChatAutoConfiguration.class, OllamaEmbeddingAutoConfiguration.class})
+@EnableScheduling
 public class BackendApplication {
 
     public static void main(String[] args) {
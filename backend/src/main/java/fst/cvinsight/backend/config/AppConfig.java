@@ -1,24 +1,56 @@
 package fst.cvinsight.backend.config;
 
+import fst.cvinsight.backend.llm.LlmLatencyAdvisor;
+import fst.cvinsight.backend.llm.LlmProfiles;
+import fst.cvinsight.backend.llm.LlmUsageAdvisor;
+import fst.cvinsight.backend.retention.ResumeRetentionProperties;
+import fst.cvinsight.backend.service.BoundedBCryptPasswordEncoder;
+import fst.cvinsight.backend.service.LlmQuotaService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.ai.ollama.OllamaChatModel;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+
 @Configuration
+@EnableConfigurationProperties({LlmProfiles.class, ResumeRetentionProperties.class})
 public class AppConfig {
 
     /*
      * Password encoder bean (uses BCrypt hashing)
-     * Critical for secure password storage
+     * Critical for secure password storage. The work factor is the highest one whose
+     * hash fits target-latency on this machine, never below min-strength.
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(ThreadPoolTaskExecutor passwordHashingExecutor, MeterRegistry meterRegistry,
+                                           @Value("${security.password-hashing.target-latency:250ms}") Duration targetLatency,
+                                           @Value("${security.password-hashing.min-strength:10}") int minStrength,
+                                           @Value("${security.password-hashing.max-strength:14}") int maxStrength) {
+        int strength = BoundedBCryptPasswordEncoder.calibrate(targetLatency, minStrength, maxStrength);
+        return new BoundedBCryptPasswordEncoder(strength, passwordHashingExecutor, meterRegistry);
     }
 
     @Bean
-    public ChatClient chatClient(OllamaChatModel chatModel) { return ChatClient.create(chatModel); }
+    public ChatClient chatClient(ChatModel chatModel, LlmLatencyAdvisor llmLatencyAdvisor,
+                                 LlmQuotaService llmQuotaService, ObservationRegistry observationRegistry) {
+        return ChatClient.builder(chatModel, observationRegistry, null)
+                .defaultAdvisors(llmLatencyAdvisor, new LlmUsageAdvisor(llmQuotaService))
+                .build();
+    }
+
+    /*
+     * Calls whose model load took at least cold-threshold are recorded as cold starts
+     */
+    @Bean
+    public LlmLatencyAdvisor llmLatencyAdvisor(MeterRegistry meterRegistry,
+                                               @Value("${ollama.warmup.cold-threshold:1s}") Duration coldThreshold) {
+        return new LlmLatencyAdvisor(meterRegistry, coldThreshold);
+    }
 }
@@ -0,0 +1,74 @@
+package fst.cvinsight.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import fst.cvinsight.backend.datasource.ReplicaRouting;
+import fst.cvinsight.backend.datasource.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Read/write split, set up only once {@code datasource.replica.url} is configured;
+ * otherwise Spring Boot's single pool is used as before.
+ * <p>
+ * The primary pool keeps its {@code spring.datasource.*} settings and the replica pool
+ * takes {@code datasource.replica.*}. Read-only transactions run on the replica, within
+ * the limits set by {@link ReplicaRouting}; every other transaction runs on the primary.
+ * Read-only means {@code @Transactional(readOnly = true)}: on a service method, on a
+ * repository query method (UserInfoRepository#findByEmail), or the CRUD reads Spring
+ * Data inherits, such as findById, when no transaction is running yet. Other query
+ * methods called outside a transaction run on the primary.
+ */
+@Configuration
+@ConditionalOnProperty("datasource.replica.url")
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${datasource.replica.url}") String url,
+                                              @Value("${datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url).username(username).password(password).build();
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRouting replicaRouting(@Qualifier("replicaDataSource") DataSource replica, MeterRegistry meterRegistry,
+                                         @Value("${datasource.replica.max-lag:10s}") Duration maxLag,
+                                         @Value("${datasource.replica.read-your-writes-window:5s}") Duration readYourWritesWindow) {
+        return new ReplicaRouting(replica, maxLag, readYourWritesWindow, meterRegistry);
+    }
+
+    /*
+     * The connection is only taken at the first statement, once the transaction and its
+     * read-only flag are known
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaRouting replicaRouting) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica, replicaRouting));
+    }
+}
@@ -0,0 +1,86 @@
+package fst.cvinsight.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    /*
+     * Dedicated platform-thread pool for Tika parsing and Tesseract OCR.
+     * Parsing is CPU bound and OCR waits on a native process, so it must not run
+     * on virtual-thread carriers (spring.threads.virtual.enabled) and must be bounded
+     * independently of the number of in-flight requests.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor documentExtractionExecutor(
+            @Value("${document.extraction.max-concurrency:4}") int maxConcurrency,
+            @Value("${document.extraction.queue-capacity:50}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("document-extraction-");
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setVirtualThreads(false);
+        // Carries the current observation over, so parse spans and metrics keep their request tags
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        return executor;
+    }
+
+    /*
+     * PDF rendering of resume templates (ResumeRenderer). Layout is CPU bound, so it
+     * gets a few platform threads; each keeps its own PDFBox fonts, which makes the
+     * pool threads the renderer instances.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor resumeRenderingExecutor(
+            @Value("${resume.rendering.max-concurrency:2}") int maxConcurrency,
+            @Value("${resume.rendering.queue-capacity:50}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("resume-rendering-");
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setVirtualThreads(false);
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        return executor;
+    }
+
+    /*
+     * BCrypt hashing and verification (BoundedBCryptPasswordEncoder). Each hash is
+     * pure CPU for the calibrated target latency, so logins get a few platform threads
+     * of their own and a short queue; beyond that they are rejected with a 503 instead
+     * of piling up behind each other on request threads.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor passwordHashingExecutor(
+            @Value("${security.password-hashing.max-concurrency:2}") int maxConcurrency,
+            @Value("${security.password-hashing.queue-capacity:16}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("password-hashing-");
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setVirtualThreads(false);
+        return executor;
+    }
+
+    /*
+     * Fan-out of model calls made on behalf of one request (e.g. resume sections).
+     * The threads only wait on Ollama, so they are virtual; the limit just keeps
+     * a burst of uploads from queueing an unbounded number of generations.
+     */
+    @Bean
+    public SimpleAsyncTaskExecutor llmCallExecutor(
+            @Value("${llm.executor.concurrency-limit:64}") int concurrencyLimit) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("llm-call-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concurrencyLimit);
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        return executor;
+    }
+}
@@ -0,0 +1,72 @@
+package fst.cvinsight.backend.config;
+
+import fst.cvinsight.backend.llm.OllamaTransport;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+@Configuration
+public class OllamaClientConfig {
+
+    /*
+     * Connection pool shared by every Ollama client.
+     * Metrics are published as reactor.netty.connection.provider.* (active, idle, pending, max).
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider ollamaConnectionProvider(
+            @Value("${ollama.client.pool.max-connections:32}") int maxConnections,
+            @Value("${ollama.client.pool.max-pending:256}") int maxPending,
+            @Value("${ollama.client.pool.pending-acquire-timeout:30s}") Duration pendingAcquireTimeout,
+            @Value("${ollama.client.pool.max-idle-time:5m}") Duration maxIdleTime,
+            @Value("${ollama.client.pool.max-life-time:30m}") Duration maxLifeTime) {
+        return ConnectionProvider.builder("ollama")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(maxPending)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(Duration.ofSeconds(30))
+                .metrics(true)
+                .build();
+    }
+
+    /*
+     * read-timeout is the longest silence tolerated between chunks of a streamed generation.
+     * A non-streamed generation only answers once it is done, so its wait is bounded by
+     * generation-timeout instead, which must cover the slowest expected generation.
+     */
+    @Bean
+    public OllamaTransport ollamaTransport(
+            ConnectionProvider ollamaConnectionProvider,
+            @Value("${ollama.client.connect-timeout:5s}") Duration connectTimeout,
+            @Value("${ollama.client.read-timeout:120s}") Duration readTimeout,
+            @Value("${ollama.client.generation-timeout:180s}") Duration generationTimeout,
+            @Value("${ollama.client.protocol:HTTP11}") HttpProtocol protocol,
+            ObjectProvider<RestClient.Builder> restClientBuilder,
+            ObjectProvider<WebClient.Builder> webClientBuilder,
+            MeterRegistry meterRegistry) {
+        HttpClient httpClient = HttpClient.create(ollamaConnectionProvider)
+                .protocol(protocol)
+                .keepAlive(true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(readTimeout);
+
+        return new OllamaTransport(
+                httpClient,
+                generationTimeout,
+                () -> restClientBuilder.getIfAvailable(RestClient::builder),
+                () -> webClientBuilder.getIfAvailable(WebClient::builder),
+                meterRegistry);
+    }
+}
@@ -0,0 +1,67 @@
+package fst.cvinsight.backend.config;
+
+import fst.cvinsight.backend.llm.OllamaBackend;
+import fst.cvinsight.backend.llm.OllamaTransport;
+import fst.cvinsight.backend.llm.RoutingChatModel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.ai.model.ollama.autoconfigure.OllamaChatProperties;
+import org.springframework.ai.ollama.OllamaChatModel;
+import org.springframework.ai.ollama.api.OllamaApi;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.retry.support.RetryTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Spring AI's own Ollama chat and embedding auto-configuration is excluded (see
+ * BackendApplication); only its {@code spring.ai.ollama.chat.*} options are kept.
+ */
+@Configuration
+@EnableConfigurationProperties(OllamaChatProperties.class)
+public class OllamaRouterConfig {
+
+    /*
+     * One chat model per entry of ollama.router.endpoints (defaults to the single base-url).
+     * Retries are left to the router, which fails over to another backend instead of
+     * hammering the one that just failed.
+     */
+    @Bean
+    @Primary
+    public RoutingChatModel routingChatModel(
+            OllamaTransport ollamaTransport,
+            OllamaChatProperties chatProperties,
+            ObjectProvider<ObservationRegistry> observationRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${ollama.router.endpoints:${spring.ai.ollama.base-url:http://localhost:11434}}") List<String> endpoints,
+            @Value("${ollama.router.sticky-prefix-length:512}") int stickyPrefixLength,
+            @Value("${ollama.router.sticky-max-imbalance:2}") int stickyMaxImbalance,
+            @Value("${ollama.router.max-attempts:2}") int maxAttempts,
+            @Value("${ollama.router.circuit-breaker.failure-threshold:3}") int failureThreshold,
+            @Value("${ollama.router.circuit-breaker.open-duration:30s}") Duration openDuration) {
+        RetryTemplate noRetry = RetryTemplate.builder().maxAttempts(1).build();
+
+        List<OllamaBackend> backends = endpoints.stream()
+                .map(String::trim)
+                .distinct()
+                .map(url -> {
+                    OllamaApi api = ollamaTransport.createApi(url);
+                    OllamaChatModel chatModel = OllamaChatModel.builder()
+                            .ollamaApi(api)
+                            .defaultOptions(chatProperties.getOptions().copy())
+                            .observationRegistry(observationRegistry.getIfUnique(() -> ObservationRegistry.NOOP))
+                            .retryTemplate(noRetry)
+                            .build();
+                    return new OllamaBackend(url, api, chatModel, failureThreshold, openDuration, meterRegistry);
+                })
+                .toList();
+
+        return new RoutingChatModel(backends, stickyPrefixLength, stickyMaxImbalance, maxAttempts);
+    }
+}
@@ -1,11 +1,11 @@
 package fst.cvinsight.backend.config;
 
-import fst.cvinsight.backend.filter.APIEndpointLoggerFilter;
 import fst.cvinsight.backend.filter.JwtAuthFilter;
 import fst.cvinsight.backend.service.CustomAuthenticationEntryPoint;
 import fst.cvinsight.backend.service.OAuth2SuccessHandler;
 import fst.cvinsight.backend.service.UserInfoService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpStatus;
@@ -30,7 +30,6 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 public class SecurityConfig {
 
     private final JwtAuthFilter jwtAuthFilter;
-    private final APIEndpointLoggerFilter loggerFilter;
     private final UserInfoService userInfoService;
     private final PasswordEncoder encoder;
     private final OAuth2SuccessHandler oAuth2SuccessHandler;
@@ -38,13 +37,11 @@ public class SecurityConfig {
 
     @Autowired
     public SecurityConfig(JwtAuthFilter jwtAuthFilter,
-                          APIEndpointLoggerFilter apiEndpointLoggerFilter,
                           CustomAuthenticationEntryPoint authenticationEntryPoint,
                           UserInfoService userInfoService,
                           PasswordEncoder encoder,
                           OAuth2SuccessHandler oAuth2SuccessHandler) {
         this.jwtAuthFilter = jwtAuthFilter;
-        this.loggerFilter = apiEndpointLoggerFilter;
         this.userInfoService = userInfoService;
         this.encoder = encoder;
         this.oAuth2SuccessHandler = oAuth2SuccessHandler;
@@ -62,6 +59,9 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/auth/**", "/api-docs/**", "/swagger-ui/**").permitAll()
+                        // Probes and scraping; the management port is not published (application.yml)
+                        .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
+                        .requestMatchers("/admin/**").hasRole("ADMIN")
 
                         .anyRequest().authenticated()
                 )
@@ -73,7 +73,6 @@ public class SecurityConfig {
                         .successHandler(oAuth2SuccessHandler)
                 )
                 .authenticationProvider(authenticationProvider())
-                .addFilterBefore(loggerFilter, UsernamePasswordAuthenticationFilter.class)
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
@@ -81,12 +80,14 @@ public class SecurityConfig {
 
     /*
      * Authentication provider configuration
-     * Links UserDetailsService and PasswordEncoder
+     * Links UserDetailsService and PasswordEncoder; hashes whose work factor is off
+     * target are rewritten through UserInfoService#updatePassword after a login
      */
     @Bean
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userInfoService);
         provider.setPasswordEncoder(encoder);
+        provider.setUserDetailsPasswordService(userInfoService);
         return provider;
     }
 
@@ -0,0 +1,28 @@
+package fst.cvinsight.backend.controller;
+
+import fst.cvinsight.backend.dto.LlmUsageDto;
+import fst.cvinsight.backend.service.LlmQuotaService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Operator endpoints, restricted to ROLE_ADMIN in SecurityConfig.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/admin")
+public class AdminController {
+
+    private final LlmQuotaService llmQuotaService;
+
+    @GetMapping("/llm-usage")
+    public ResponseEntity<List<LlmUsageDto>> llmUsage(@RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(llmQuotaService.getTopConsumers(Math.min(Math.max(limit, 1), 1000)));
+    }
+}
@@ -1,17 +1,20 @@
 package fst.cvinsight.backend.controller;
 
+import fst.cvinsight.backend.exception.PasswordHashingRejectedException;
 import fst.cvinsight.backend.mapper.UserInfoMapper;
 import fst.cvinsight.backend.model.AuthRequest;
 import fst.cvinsight.backend.entity.UserInfo;
 import fst.cvinsight.backend.model.RegisterRequest;
 import fst.cvinsight.backend.service.JwtService;
 import fst.cvinsight.backend.util.DocumentUtils;
+import fst.cvinsight.backend.service.UserInfoDetails;
 import fst.cvinsight.backend.service.UserInfoService;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -45,6 +48,8 @@ public class AuthController {
             return ResponseEntity.ok("User registered successfully: " + user.getEmail());
         }catch(IllegalArgumentException e){
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }catch(PasswordHashingRejectedException e){
+            return overloaded(e);
         }catch(Exception e){
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -58,8 +63,8 @@ public class AuthController {
                     new UsernamePasswordAuthenticationToken(authRequest.getEmail(), authRequest.getPassword())
             );
             if (authentication.isAuthenticated()) {
-                String token = jwtService.generateToken(authRequest.getEmail());
-                UserInfo user = service.getUserByEmail(authRequest.getEmail());
+                UserInfo user = ((UserInfoDetails) authentication.getPrincipal()).getUserInfo();
+                String token = jwtService.generateToken(user.getEmail());
 
                 return ResponseEntity.ok(Map.of("token", token, "user", userInfoMapper.toUserInfoDto(user) ));
             } else {
@@ -69,6 +74,8 @@ public class AuthController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }catch (AuthenticationException e) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }catch (PasswordHashingRejectedException e) {
+            return overloaded(e);
         }catch (Exception e) {
             return ResponseEntity.internalServerError().body(e.getMessage());
         }
@@ -121,4 +128,10 @@ public class AuthController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+
+    private ResponseEntity<?> overloaded(PasswordHashingRejectedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("message", e.getMessage()));
+    }
 }
@@ -2,21 +2,32 @@ package fst.cvinsight.backend.controller;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import fst.cvinsight.backend.dto.ResumeDto;
+import fst.cvinsight.backend.dto.ResumeStatsDto;
 import fst.cvinsight.backend.entity.Resume;
 import fst.cvinsight.backend.exception.ResumeProcessingException;
+import fst.cvinsight.backend.metrics.PipelineObservations;
+import fst.cvinsight.backend.metrics.PipelineStage;
 import fst.cvinsight.backend.model.CareerRecommendationRequest;
+import fst.cvinsight.backend.model.RenderRequest;
+import fst.cvinsight.backend.render.RenderedPdf;
+import fst.cvinsight.backend.render.ResumeRenderer;
 import fst.cvinsight.backend.service.ResumeService;
+import fst.cvinsight.backend.service.ResumeStatsService;
 import fst.cvinsight.backend.util.DocumentUtils;
+import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -26,22 +37,22 @@ import java.util.UUID;
 @RequestMapping("/resume")
 public class ResumeController {
 
+    // Conditional GETs answer 304 from the ETag alone (see ResumeService#getResumeETag)
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+    // An uploaded file never changes under its id
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable();
+
     private final DocumentUtils documentUtils;
     private final ResumeService resumeService;
+    private final ResumeStatsService resumeStatsService;
+    private final PipelineObservations pipelineObservations;
+    private final ResumeRenderer resumeRenderer;
 
     @PostMapping(value = "/extract", consumes = {"multipart/form-data"})
     public ResponseEntity<?> extractText(@RequestPart("file") MultipartFile file) {
 
         try {
-            String originalFilename = file.getOriginalFilename();
-            String extension = "";
-
-            if (originalFilename != null && originalFilename.contains(".")) {
-                extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-            }
-
-            File tempFile = File.createTempFile("uploaded-" + file.getName() + "-", extension);
-            file.transferTo(tempFile);
+            File tempFile = writeTempFile(file);
 
             String extractedText = documentUtils.extractText(tempFile);
 
@@ -62,15 +73,7 @@ public class ResumeController {
     @PostMapping(value = "/upload-and-process", consumes = {"multipart/form-data"})
     public ResponseEntity<?> uploadResume(@RequestPart("file") MultipartFile file) {
         try {
-            String originalFilename = file.getOriginalFilename();
-            String extension = "";
-
-            if (originalFilename != null && originalFilename.contains(".")) {
-                extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-            }
-
-            File tempFile = File.createTempFile("uploaded-" + file.getName() + "-", extension);
-            file.transferTo(tempFile);
+            File tempFile = writeTempFile(file);
 
             String jsonResponse = resumeService.extractAndParseResume(tempFile);
             tempFile.delete();
@@ -90,15 +93,7 @@ public class ResumeController {
             @RequestPart("file") MultipartFile file,
             @RequestPart("jsonContent") JsonNode jsonContent) {
         try{
-            String originalFilename = file.getOriginalFilename();
-            String extension = "";
-
-            if (originalFilename != null && originalFilename.contains(".")) {
-                extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-            }
-
-            File tempFile = File.createTempFile("uploaded-" + file.getName() + "-", extension);
-            file.transferTo(tempFile);
+            File tempFile = writeTempFile(file);
 
             resumeService.saveResume(tempFile,jsonContent.asText(), null);
 
@@ -109,6 +104,36 @@ public class ResumeController {
         }
     }
 
+    /*
+     * Preview of a CV builder resume; the ETag is the render's content address
+     */
+    @PostMapping("/render")
+    public ResponseEntity<?> render(@Valid @RequestBody RenderRequest request) {
+        try {
+            RenderedPdf pdf = resumeRenderer.render(request.getTemplateId(), request.getJsonContent());
+            return ResponseEntity.ok()
+                    .eTag(pdf.key())
+                    .contentType(MediaType.APPLICATION_PDF)
+                    .body(pdf.content());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(new ErrorResponse(e.getMessage()));
+        } catch (IOException e) {
+            return renderingUnavailable(e);
+        }
+    }
+
+    @PostMapping("/generate")
+    public ResponseEntity<?> generateResume(@Valid @RequestBody RenderRequest request) {
+        try {
+            resumeService.generateResume(request);
+            return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        } catch (IOException e) {
+            return renderingUnavailable(e);
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteResume(@PathVariable UUID id) {
         resumeService.deleteResume(id);
@@ -116,13 +141,32 @@ public class ResumeController {
     }
 
     @GetMapping
-    public ResponseEntity<List<ResumeDto>> getAllResumesForUser() {
-        return ResponseEntity.ok(resumeService.getAllCVsForCurrentUser());
+    public ResponseEntity<List<ResumeDto>> getAllResumesForUser(WebRequest request) {
+        String eTag = weak(resumeService.getResumesETag());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(REVALIDATE)
+                .body(resumeService.getAllCVsForCurrentUser());
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<ResumeStatsDto> getStatsForUser() {
+        return ResponseEntity.ok(resumeStatsService.getStatsForCurrentUser());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ResumeDto> getResumeById(@PathVariable UUID id) {
-        return ResponseEntity.ok(resumeService.getResumeDtoById(id));
+    public ResponseEntity<ResumeDto> getResumeById(@PathVariable UUID id, WebRequest request) {
+        String eTag = weak(resumeService.getResumeETag(id));
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(REVALIDATE)
+                .body(resumeService.getResumeDtoById(id));
     }
 
     @GetMapping("/{id}/analysis")
@@ -136,10 +180,16 @@ public class ResumeController {
     }
 
     @GetMapping("/{id}/file")
-    public ResponseEntity<byte[]> downloadFile(@PathVariable UUID id) {
+    public ResponseEntity<byte[]> downloadFile(@PathVariable UUID id, WebRequest request) {
+        String eTag = resumeService.getResumeFileETag(id);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
         Resume resume = resumeService.getResumeById(id);
 
         return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(IMMUTABLE)
                 .contentType(MediaType.parseMediaType(resume.getContentType()))
                 .header(HttpHeaders.CONTENT_DISPOSITION,
                         "attachment; filename=\"" + resume.getFilename() + "\"")
@@ -151,5 +201,36 @@ public class ResumeController {
         return ResponseEntity.ok(resumeService.compareResumes(resumeIds));
     }
 
+    /*
+     * JSON responses are gzipped, and a strong ETag names exact bytes, so it would
+     * have to differ per encoding (Tomcat does not compress responses carrying one).
+     * If-None-Match compares weakly anyway, so a weak ETag revalidates all the same.
+     */
+    private static String weak(String eTag) {
+        return "W/\"" + eTag + "\"";
+    }
+
+    private static ResponseEntity<?> renderingUnavailable(IOException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorResponse(e.getMessage()));
+    }
+
+    private File writeTempFile(MultipartFile file) throws IOException {
+        return pipelineObservations.observe(PipelineStage.TEMP_FILE_WRITE, () -> {
+            String originalFilename = file.getOriginalFilename();
+            String extension = "";
+
+            if (originalFilename != null && originalFilename.contains(".")) {
+                extension = originalFilename.substring(originalFilename.lastIndexOf("."));
+            }
+
+            File tempFile = File.createTempFile("uploaded-" + file.getName() + "-", extension);
+            file.transferTo(tempFile);
+            return tempFile;
+        });
+    }
+
     private record ErrorResponse(String message) {}
 }
@@ -0,0 +1,156 @@
+package fst.cvinsight.backend.datasource;
+
+import fst.cvinsight.backend.service.UserInfoService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Decides where a read-only transaction reads from (see {@link ReplicaRoutingDataSource}).
+ * <ul>
+ *   <li>The replica's lag is checked every {@code datasource.replica.lag-check-interval}
+ *   and published as {@code datasource.replica.lag}. While the replica lags by more than
+ *   {@code datasource.replica.max-lag}, or cannot be reached, every read goes to the primary.</li>
+ *   <li>Read-your-writes: once a user's read-write transaction commits, that user's reads
+ *   go to the primary for {@code datasource.replica.read-your-writes-window} plus the
+ *   current lag, so a resume is listed right after its upload. Writes are remembered by
+ *   this instance only; the window is meant to cover the next few requests, which a
+ *   load balancer may send to another instance, so keep it well above the usual lag.</li>
+ *   <li>{@link #onPrimary} reads the primary regardless, for a read that must see a
+ *   write made outside the current user's requests.</li>
+ * </ul>
+ * Lag is measured on a streaming standby; a server not in recovery reports none.
+ */
+public class ReplicaRouting {
+
+    private final Logger log = LoggerFactory.getLogger(ReplicaRouting.class);
+
+    // Replay position equal to receive position means the standby has applied all it has
+    private static final String LAG_QUERY = """
+            select case
+                       when not pg_is_in_recovery() or pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0
+                       else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0)
+                   end""";
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private final JdbcTemplate replica;
+    private final Duration maxLag;
+    private final Duration readYourWritesWindow;
+    private final Map<UUID, Long> lastWrites = new ConcurrentHashMap<>();
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+    private volatile boolean available;
+    private volatile long lagMillis;
+
+    public ReplicaRouting(DataSource replica, Duration maxLag, Duration readYourWritesWindow,
+                          MeterRegistry meterRegistry) {
+        this.replica = new JdbcTemplate(replica);
+        this.maxLag = maxLag;
+        this.readYourWritesWindow = readYourWritesWindow;
+        this.replicaReads = readCounter(meterRegistry, "replica");
+        this.primaryReads = readCounter(meterRegistry, "primary");
+        Gauge.builder("datasource.replica.lag", this, routing -> routing.available ? routing.lagMillis / 1000.0 : Double.NaN)
+                .description("Replication lag of the read replica, NaN while it cannot be reached")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code read} on the primary when it opens its own transaction; a transaction
+     * already under way keeps the connection it has.
+     */
+    public static <T> T onPrimary(Supplier<T> read) {
+        Boolean previous = PRIMARY_ONLY.get();
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_ONLY.remove();
+            } else {
+                PRIMARY_ONLY.set(previous);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-interval:1s}")
+    public void checkLag() {
+        try {
+            Double lag = replica.queryForObject(LAG_QUERY, Double.class);
+            lagMillis = lag == null ? 0 : Math.round(lag * 1000);
+            if (!available) {
+                log.info("Read replica available, lagging {} ms", lagMillis);
+            }
+            available = true;
+        } catch (RuntimeException e) {
+            markUnavailable(e);
+        }
+
+        long expired = System.nanoTime() - pinDuration().toNanos();
+        lastWrites.values().removeIf(writtenAt -> writtenAt - expired < 0);
+    }
+
+    boolean useReplica() {
+        boolean replica = PRIMARY_ONLY.get() == null && available && lagMillis <= maxLag.toMillis()
+                && UserInfoService.currentUserId().map(this::caughtUpWith).orElse(true);
+        (replica ? replicaReads : primaryReads).increment();
+        return replica;
+    }
+
+    /*
+     * Remembers the current user once the read-write transaction being started commits
+     */
+    void onWriteTransaction() {
+        Optional<UUID> userId = UserInfoService.currentUserId();
+        if (userId.isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lastWrites.put(userId.get(), System.nanoTime());
+            }
+        });
+    }
+
+    void markUnavailable(Exception cause) {
+        if (available) {
+            log.warn("Read replica unavailable, reading from the primary until it is back", cause);
+        }
+        available = false;
+    }
+
+    /*
+     * True when the user has not committed a write recently enough for the replica to miss it
+     */
+    private boolean caughtUpWith(UUID userId) {
+        Long writtenAt = lastWrites.get(userId);
+        return writtenAt == null || System.nanoTime() - writtenAt > pinDuration().toNanos();
+    }
+
+    private Duration pinDuration() {
+        return readYourWritesWindow.plusMillis(lagMillis);
+    }
+
+    private static Counter readCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("datasource.reads")
+                .description("Read-only transactions, by the database they read from")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+}
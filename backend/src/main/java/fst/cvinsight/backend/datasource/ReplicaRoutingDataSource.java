@@ -0,0 +1,50 @@
+package fst.cvinsight.backend.datasource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Hands read-only transactions a replica connection when {@link ReplicaRouting} allows
+ * it, and everything else a primary one. A replica that refuses a connection is marked
+ * unavailable and the read goes to the primary. Connections asked for with explicit
+ * credentials always come from the primary.
+ * <p>
+ * The transaction has to be known when the connection is taken, which with JPA is when
+ * the transaction begins; wrap this in a {@code LazyConnectionDataSourceProxy} so the
+ * connection is only taken at the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaRouting routing;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaRouting routing) {
+        this.primary = primary;
+        this.replica = replica;
+        this.routing = routing;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            routing.onWriteTransaction();
+        } else if (routing.useReplica()) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                routing.markUnavailable(e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+}
@@ -0,0 +1,25 @@
+package fst.cvinsight.backend.dto;
+
+import lombok.Value;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO for {@link fst.cvinsight.backend.entity.LlmUsage}. The allowances are
+ * what was left at {@code refilledAt}; they refill continuously from there.
+ */
+@Value
+public class LlmUsageDto implements Serializable {
+    UUID userId;
+    String email;
+    long requestCount;
+    long promptTokens;
+    long completionTokens;
+    double requestAllowance;
+    double tokenAllowance;
+    Instant refilledAt;
+    LocalDateTime lastRequestAt;
+}
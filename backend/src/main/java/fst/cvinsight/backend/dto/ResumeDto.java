@@ -1,6 +1,6 @@
 package fst.cvinsight.backend.dto;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.annotation.JsonRawValue;
 import fst.cvinsight.backend.model.ResumeOrigin;
 import lombok.Value;
 
@@ -10,6 +10,10 @@ import java.util.UUID;
 
 /**
  * DTO for {@link fst.cvinsight.backend.entity.Resume}
+ * <p>
+ * {@code jsonContent} is the jsonb text as read from the database and is written
+ * into the response as is: the backend never looks inside it, so no tree is built
+ * on the way out (see {@link fst.cvinsight.backend.repo.ResumeRepository#findDtoByIdAndOwner}).
  */
 @Value
 public class ResumeDto implements Serializable {
@@ -19,7 +23,8 @@ public class ResumeDto implements Serializable {
     long size;
     UUID uploadedById;
     LocalDateTime uploadedAt;
-    JsonNode jsonContent;
+    @JsonRawValue
+    String jsonContent;
     ResumeOrigin origin;
     Double score;
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package fst.cvinsight.backend.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * Detached read of the {@link fst.cvinsight.backend.entity.Resume} columns the
+ * LLM flows need (no file bytes), taken in a short transaction so no
+ * connection or persistence context is held while the model is generating.
+ */
+@Value
+public class ResumeSnapshot {
+    UUID id;
+    UUID ownerId;
+    long version;
+    Double score;
+    JsonNode jsonContent;
+}
@@ -0,0 +1,29 @@
+package fst.cvinsight.backend.dto;
+
+import lombok.Value;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for {@link fst.cvinsight.backend.entity.ResumeStats}
+ */
+@Value
+public class ResumeStatsDto implements Serializable {
+    long resumeCount;
+    long scoredCount;
+    Double averageScore;
+    LocalDateTime lastUploadAt;
+    Map<String, Integer> scoreDistribution;
+    Map<String, Integer> uploadsPerMonth;
+    Map<String, Integer> originCounts;
+    List<SkillCount> topSkills;
+
+    @Value
+    public static class SkillCount implements Serializable {
+        String skill;
+        int count;
+    }
+}
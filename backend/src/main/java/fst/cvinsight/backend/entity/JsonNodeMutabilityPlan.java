@@ -0,0 +1,17 @@
+package fst.cvinsight.backend.entity;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.hibernate.type.descriptor.java.MutableMutabilityPlan;
+
+/**
+ * Snapshots {@link JsonNode} attributes for dirty checking with a tree copy.
+ * Hibernate's default for JSON attributes copies by serializing the value and
+ * parsing it back, on every entity load.
+ */
+public class JsonNodeMutabilityPlan extends MutableMutabilityPlan<JsonNode> {
+
+    @Override
+    protected JsonNode deepCopyNotNull(JsonNode value) {
+        return value.deepCopy();
+    }
+}
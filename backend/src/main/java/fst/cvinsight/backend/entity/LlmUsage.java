@@ -0,0 +1,35 @@
+package fst.cvinsight.backend.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Per-user model usage: the two token buckets enforced by
+ * {@link fst.cvinsight.backend.service.LlmQuotaService} (requests and generated
+ * tokens, as of {@code refilledAt}) and lifetime totals. Each instance adds its
+ * usage periodically, so the row may lag the live counters by one flush interval.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class LlmUsage {
+    @Id
+    private UUID userId;
+    private double requestAllowance;
+    private double tokenAllowance;
+    private Instant refilledAt;
+    private long requestCount;
+    private long promptTokens;
+    private long completionTokens;
+    private LocalDateTime lastRequestAt;
+}
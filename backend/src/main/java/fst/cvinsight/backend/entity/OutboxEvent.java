@@ -0,0 +1,58 @@
+package fst.cvinsight.backend.entity;
+
+import fst.cvinsight.backend.model.ResumeEventType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Generated;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A resume change, written in the transaction that made it and delivered to the
+ * outbox consumers in (transactionId, id) order (see {@link fst.cvinsight.backend.outbox.OutboxPoller}).
+ * {@code eventKey} is the idempotency key consumers deduplicate redeliveries with;
+ * {@code transactionId} and {@code createdAt} are stamped by the database.
+ */
+@Entity
+@Table(indexes = {@Index(columnList = "createdAt"), @Index(columnList = "transactionId, id")})
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(nullable = false, unique = true)
+    private UUID eventKey;
+    @Enumerated(EnumType.STRING)
+    private ResumeEventType type;
+    private UUID resumeId;
+    private UUID userId;
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    private Map<String, Object> payload = new HashMap<>();
+    @Generated
+    @Column(insertable = false, updatable = false,
+            columnDefinition = "bigint default pg_current_xact_id()::text::bigint not null")
+    private Long transactionId;
+    @Generated
+    @Column(insertable = false, updatable = false, columnDefinition = "timestamp(6) default clock_timestamp() not null")
+    private LocalDateTime createdAt;
+}
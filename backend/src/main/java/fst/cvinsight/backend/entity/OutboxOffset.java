@@ -0,0 +1,28 @@
+package fst.cvinsight.backend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Position, transaction then id, of the last outbox event an outbox consumer has handled.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutboxOffset {
+    @Id
+    private String consumer;
+    @Column(columnDefinition = "bigint default 0 not null")
+    private long lastTransactionId;
+    private long lastEventId;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,29 @@
+package fst.cvinsight.backend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A PDF rendered from a resume template, stored under the hash of everything it
+ * was rendered from (see {@link fst.cvinsight.backend.render.ResumeRenderer}).
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class RenderedResume {
+    @Id
+    @Column(length = 64)
+    private String renderKey;
+    private String templateId;
+    private byte[] pdf;
+    private LocalDateTime createdAt;
+}
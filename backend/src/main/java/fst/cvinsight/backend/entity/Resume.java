@@ -1,16 +1,19 @@
 package fst.cvinsight.backend.entity;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.vladmihalcea.hibernate.type.json.JsonType;
 import fst.cvinsight.backend.model.ResumeOrigin;
 import jakarta.persistence.*;
 import lombok.*;
-import org.hibernate.annotations.Type;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.Mutability;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+// uploadedAt is indexed for the retention purge (ResumeRetentionService)
 @Entity
+@Table(indexes = @Index(name = "resume_uploaded_at_idx", columnList = "uploadedAt"))
 @Getter
 @Setter
 @AllArgsConstructor
@@ -27,10 +30,17 @@ public class Resume {
     private UserInfo uploadedBy;
     private LocalDateTime uploadedAt = LocalDateTime.now();
     private byte[] fileData;
-    @Type(JsonType.class)
+    // SHA-256 of fileData, the strong validator of the file and of its DTO (see ResumeService)
+    @Column(length = 64)
+    private String contentHash;
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Mutability(JsonNodeMutabilityPlan.class)
     @Column(columnDefinition = "jsonb")
     private JsonNode jsonContent;
     @Enumerated(EnumType.STRING)
     private ResumeOrigin origin;
     private Double score;
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
 }
@@ -0,0 +1,40 @@
+package fst.cvinsight.backend.entity;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import fst.cvinsight.backend.model.ResumeSection;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.Mutability;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * The model's review of one resume section, stored under the hash of the prompt
+ * version and the section content (see {@link fst.cvinsight.backend.service.ResumeAnalysisService}).
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class SectionAnalysisCache {
+    @Id
+    @Column(length = 64)
+    private String analysisKey;
+    @Enumerated(EnumType.STRING)
+    private ResumeSection section;
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Mutability(JsonNodeMutabilityPlan.class)
+    @Column(columnDefinition = "jsonb")
+    private JsonNode analysis;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,16 @@
+package fst.cvinsight.backend.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+@Getter
+public class LlmQuotaExceededException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public LlmQuotaExceededException(Duration retryAfter) {
+        super("AI usage quota exceeded, please retry in " + retryAfter.toSeconds() + " seconds");
+        this.retryAfter = retryAfter;
+    }
+}
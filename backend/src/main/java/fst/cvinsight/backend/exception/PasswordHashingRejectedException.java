@@ -0,0 +1,7 @@
+package fst.cvinsight.backend.exception;
+
+public class PasswordHashingRejectedException extends RuntimeException {
+    public PasswordHashingRejectedException(Throwable cause) {
+        super("Too many sign-in attempts in progress, please retry later", cause);
+    }
+}
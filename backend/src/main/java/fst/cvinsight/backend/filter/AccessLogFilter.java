@@ -0,0 +1,159 @@
+package fst.cvinsight.backend.filter;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Structured access log, written by the {@code ACCESS_LOG} logger to its own
+ * asynchronous, drop-on-overflow appender (logback-spring.xml).
+ * <p>
+ * Fast requests are sampled; server errors and slow requests are always logged.
+ * Only allow-listed headers are logged, and the values of sensitive headers and
+ * query parameters are redacted. Durations use the meter registry clock and the
+ * start stamp of {@link RequestStartFilter}, like the pipeline metrics. Runs inside
+ * the HTTP server observation so trace ids are attached to the entry.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private static final Logger accessLog = LoggerFactory.getLogger("ACCESS_LOG");
+    private static final String REDACTED = "[REDACTED]";
+
+    private final Clock clock;
+    private final double sampleRate;
+    private final Duration slowThreshold;
+    private final List<String> headers;
+    private final Set<String> redactedHeaders;
+    private final Set<String> redactedQueryParameters;
+
+    public AccessLogFilter(MeterRegistry meterRegistry,
+                           @Value("${access-log.sample-rate:0.1}") double sampleRate,
+                           @Value("${access-log.slow-threshold:2s}") Duration slowThreshold,
+                           @Value("${access-log.headers:User-Agent,Content-Type,Content-Length,Referer,X-Request-Id,Authorization}") List<String> headers,
+                           @Value("${access-log.redacted-headers:Authorization,Cookie,Set-Cookie,Proxy-Authorization}") List<String> redactedHeaders,
+                           @Value("${access-log.redacted-query-parameters:code,state,token,access_token,password}") List<String> redactedQueryParameters) {
+        this.clock = meterRegistry.config().clock();
+        this.sampleRate = sampleRate;
+        this.slowThreshold = slowThreshold;
+        this.headers = headers;
+        this.redactedHeaders = lowerCase(redactedHeaders);
+        this.redactedQueryParameters = lowerCase(redactedQueryParameters);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        if (!accessLog.isInfoEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long start = request.getAttribute(RequestStartFilter.START_NANOS_ATTRIBUTE) instanceof Long stamped
+                ? stamped
+                : clock.monotonicTime();
+        Throwable failure = null;
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            long durationNanos = clock.monotonicTime() - start;
+            int status = failure != null ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+            if (shouldLog(status, durationNanos)) {
+                log(request, status, durationNanos, failure);
+            }
+        }
+    }
+
+    private boolean shouldLog(int status, long durationNanos) {
+        return status >= 500
+                || durationNanos >= slowThreshold.toNanos()
+                || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    private void log(HttpServletRequest request, int status, long durationNanos, Throwable failure) {
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        LoggingEventBuilder event = accessLog.atInfo()
+                .addKeyValue("http.method", request.getMethod())
+                .addKeyValue("url.path", request.getRequestURI())
+                .addKeyValue("http.route", route != null ? route : "none")
+                .addKeyValue("http.status", status)
+                .addKeyValue("duration.ms", durationNanos / 1_000_000.0)
+                .addKeyValue("client.ip", request.getRemoteAddr());
+        if (request.getQueryString() != null) {
+            event = event.addKeyValue("url.query", redactQuery(request.getQueryString()));
+        }
+        for (String header : headers) {
+            String value = request.getHeader(header);
+            if (value != null) {
+                event = event.addKeyValue("http.header." + header.toLowerCase(Locale.ROOT),
+                        redactedHeaders.contains(header.toLowerCase(Locale.ROOT)) ? REDACTED : value);
+            }
+        }
+        if (failure != null) {
+            event = event.addKeyValue("error.type", failure.getClass().getName());
+        }
+        event.log("{} {} -> {}", request.getMethod(), request.getRequestURI(), status);
+    }
+
+    /*
+     * Parameter names are compared decoded, so an encoded name (%74oken) is redacted too;
+     * a name that does not decode is redacted as well
+     */
+    String redactQuery(String query) {
+        StringBuilder redacted = new StringBuilder(query.length());
+        for (String parameter : query.split("&")) {
+            if (!redacted.isEmpty()) {
+                redacted.append('&');
+            }
+            int equals = parameter.indexOf('=');
+            String name = equals >= 0 ? parameter.substring(0, equals) : parameter;
+            if (equals >= 0 && isRedacted(name)) {
+                redacted.append(name).append('=').append(REDACTED);
+            } else {
+                redacted.append(parameter);
+            }
+        }
+        return redacted.toString();
+    }
+
+    private boolean isRedacted(String name) {
+        try {
+            return redactedQueryParameters.contains(
+                    URLDecoder.decode(name, StandardCharsets.UTF_8).trim().toLowerCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return true;
+        }
+    }
+
+    private static Set<String> lowerCase(List<String> names) {
+        return names.stream().map(name -> name.trim().toLowerCase(Locale.ROOT)).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,41 @@
+package fst.cvinsight.backend.filter;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Stamps the request with the time it entered the application, before the
+ * multipart body is read, so later stages can measure from it. Uses the meter
+ * registry clock, the timing source of every metric.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestStartFilter extends OncePerRequestFilter {
+
+    public static final String START_NANOS_ATTRIBUTE = RequestStartFilter.class.getName() + ".startNanos";
+
+    private final Clock clock;
+
+    public RequestStartFilter(MeterRegistry meterRegistry) {
+        this.clock = meterRegistry.config().clock();
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        request.setAttribute(START_NANOS_ATTRIBUTE, clock.monotonicTime());
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,107 @@
+package fst.cvinsight.backend.llm;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.ai.util.json.schema.JsonSchemaGenerator;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JSON schemas of the model output types, passed to Ollama's {@code format}
+ * option so generation is constrained to valid instances.
+ * <p>
+ * The generator lists properties alphabetically; they are put back in record
+ * component order because Ollama generates fields in schema order, and fields
+ * that depend on others (a score, a verdict) should come after them.
+ */
+public final class JsonSchemas {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Map<Type, ObjectNode> CACHE = new ConcurrentHashMap<>();
+
+    private JsonSchemas() {
+    }
+
+    /**
+     * Schema of a record type; returns a copy the caller may modify.
+     */
+    public static ObjectNode forType(Class<?> type) {
+        return CACHE.computeIfAbsent(type, t -> {
+            try {
+                ObjectNode schema = (ObjectNode) MAPPER.readTree(JsonSchemaGenerator.generateForType(t));
+                orderLikeRecord(schema, type);
+                return schema;
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Cannot generate JSON schema for " + type, e);
+            }
+        }).deepCopy();
+    }
+
+    /**
+     * Schema of a JSON array of {@code itemType}.
+     */
+    public static ObjectNode arrayOf(Class<?> itemType) {
+        ObjectNode items = forType(itemType);
+        ObjectNode schema = MAPPER.createObjectNode();
+        schema.set("$schema", items.remove("$schema"));
+        schema.put("type", "array");
+        schema.set("items", items);
+        return schema;
+    }
+
+    /**
+     * Schema of a JSON object with exactly the given properties, each a {@code valueType}.
+     */
+    public static ObjectNode objectOf(Collection<String> properties, Class<?> valueType) {
+        ObjectNode value = forType(valueType);
+        ObjectNode schema = MAPPER.createObjectNode();
+        schema.set("$schema", value.remove("$schema"));
+        schema.put("type", "object");
+        ObjectNode valueProperties = schema.putObject("properties");
+        ArrayNode required = schema.putArray("required");
+        for (String property : properties) {
+            valueProperties.set(property, value.deepCopy());
+            required.add(property);
+        }
+        schema.put("additionalProperties", false);
+        return schema;
+    }
+
+    /**
+     * Form accepted by {@code OllamaOptions.format}.
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> toFormat(ObjectNode schema) {
+        return MAPPER.convertValue(schema, Map.class);
+    }
+
+    private static void orderLikeRecord(JsonNode schema, Class<?> type) {
+        if (!type.isRecord() || !(schema.get("properties") instanceof ObjectNode properties)) {
+            return;
+        }
+        ObjectNode ordered = MAPPER.createObjectNode();
+        for (RecordComponent component : type.getRecordComponents()) {
+            JsonNode property = properties.get(component.getName());
+            if (property == null) {
+                continue;
+            }
+            Type generic = component.getGenericType();
+            if (generic instanceof ParameterizedType parameterized
+                    && parameterized.getActualTypeArguments()[0] instanceof Class<?> itemType) {
+                orderLikeRecord(property.path("items"), itemType);
+            } else {
+                orderLikeRecord(property, component.getType());
+            }
+            ordered.set(component.getName(), property);
+        }
+        ((ObjectNode) schema).set("properties", ordered);
+    }
+}
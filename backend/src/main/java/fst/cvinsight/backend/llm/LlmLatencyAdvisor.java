@@ -0,0 +1,73 @@
+package fst.cvinsight.backend.llm;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Records {@code llm.generation} latency histograms, tagged {@code start=cold}
+ * when Ollama reports that it had to load the model for the call and
+ * {@code start=warm} otherwise.
+ */
+public class LlmLatencyAdvisor implements CallAdvisor {
+
+    private static final String LOAD_DURATION = "load-duration";
+
+    private final MeterRegistry meterRegistry;
+    private final Duration coldThreshold;
+
+    public LlmLatencyAdvisor(MeterRegistry meterRegistry, Duration coldThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.coldThreshold = coldThreshold;
+    }
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest request, CallAdvisorChain chain) {
+        long start = System.nanoTime();
+        ChatClientResponse response = chain.nextCall(request);
+        long elapsed = System.nanoTime() - start;
+
+        ChatResponse chatResponse = response.chatResponse();
+        ChatResponseMetadata metadata = chatResponse != null ? chatResponse.getMetadata() : null;
+        String model = metadata != null && metadata.getModel() != null ? metadata.getModel() : "unknown";
+        Duration loadDuration = metadata != null ? toDuration(metadata.get(LOAD_DURATION)) : Duration.ZERO;
+        String startType = loadDuration.compareTo(coldThreshold) >= 0 ? "cold" : "warm";
+
+        Timer.builder("llm.generation")
+                .description("End-to-end model call latency")
+                .tag("model", model)
+                .tag("start", startType)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(Duration.ofNanos(elapsed));
+        return response;
+    }
+
+    private static Duration toDuration(Object value) {
+        if (value instanceof Duration duration) {
+            return duration;
+        }
+        if (value instanceof Number nanos) {
+            return Duration.ofNanos(nanos.longValue());
+        }
+        return Duration.ZERO;
+    }
+
+    @Override
+    public String getName() {
+        return "llmLatency";
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,59 @@
+package fst.cvinsight.backend.llm;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Model tiers and per-task generation profiles ({@code llm.*} in application.yml).
+ * <p>
+ * Tasks reference tiers by key so the concrete model names live in one place.
+ */
+@Data
+@ConfigurationProperties(prefix = "llm")
+public class LlmProfiles {
+
+    private Map<String, Model> models = new LinkedHashMap<>();
+    private Map<LlmTask, Profile> tasks = new EnumMap<>(LlmTask.class);
+
+    @Data
+    public static class Model {
+        private String name;
+        // Concurrent calls across all backends above which the model counts as busy
+        private int maxConcurrency = Integer.MAX_VALUE;
+    }
+
+    @Data
+    public static class Profile {
+        private String model;
+        // Tier used instead of model while model is busy; none means wait for it
+        private String fallback;
+        private Double temperature;
+        private Integer numCtx;
+        private Integer numPredict;
+    }
+
+    public Profile profile(LlmTask task) {
+        Profile profile = tasks.get(task);
+        if (profile == null) {
+            throw new IllegalStateException("No LLM profile configured for task " + task);
+        }
+        return profile;
+    }
+
+    public Model model(String tier) {
+        Model model = models.get(tier);
+        if (model == null) {
+            throw new IllegalStateException("Unknown LLM model tier: " + tier);
+        }
+        return model;
+    }
+
+    public List<String> modelNames() {
+        return models.values().stream().map(Model::getName).distinct().toList();
+    }
+}
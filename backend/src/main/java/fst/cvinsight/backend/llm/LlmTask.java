@@ -0,0 +1,12 @@
+package fst.cvinsight.backend.llm;
+
+/**
+ * The kinds of model calls the application makes. Each task is mapped to a
+ * model tier and generation options in {@link LlmProfiles}.
+ */
+public enum LlmTask {
+    EXTRACTION,
+    ANALYSIS,
+    CAREER_RECOMMENDATION,
+    COMPARISON
+}
@@ -0,0 +1,53 @@
+package fst.cvinsight.backend.llm;
+
+import fst.cvinsight.backend.service.LlmQuotaService;
+import fst.cvinsight.backend.service.UserInfoService;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.core.Ordered;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Charges the tokens of every model call to the user it is made for (see
+ * {@link LlmQuotaService}). The security context follows fan-out calls onto
+ * {@code llmCallExecutor} threads, so section extraction is charged as well.
+ */
+public class LlmUsageAdvisor implements CallAdvisor {
+
+    private final LlmQuotaService quotaService;
+
+    public LlmUsageAdvisor(LlmQuotaService quotaService) {
+        this.quotaService = quotaService;
+    }
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest request, CallAdvisorChain chain) {
+        ChatClientResponse response = chain.nextCall(request);
+
+        Optional<UUID> userId = UserInfoService.currentUserId();
+        ChatResponse chatResponse = response.chatResponse();
+        Usage usage = chatResponse != null ? chatResponse.getMetadata().getUsage() : null;
+        if (userId.isPresent() && usage != null) {
+            quotaService.record(userId.get(),
+                    usage.getPromptTokens() != null ? usage.getPromptTokens() : 0,
+                    usage.getCompletionTokens() != null ? usage.getCompletionTokens() : 0);
+        }
+        return response;
+    }
+
+    @Override
+    public String getName() {
+        return "llmUsage";
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 1;
+    }
+}
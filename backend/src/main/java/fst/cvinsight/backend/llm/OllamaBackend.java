@@ -0,0 +1,130 @@
+package fst.cvinsight.backend.llm;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.ollama.api.OllamaApi;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One Ollama instance behind {@link RoutingChatModel}: its chat model, the number
+ * of requests currently outstanding on it, its last health-check result and a
+ * consecutive-failure circuit breaker.
+ */
+public class OllamaBackend {
+
+    @Getter
+    private final String baseUrl;
+    @Getter
+    private final OllamaApi api;
+    @Getter
+    private final ChatModel chatModel;
+    private final int failureThreshold;
+    private final long openDurationNanos;
+
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openUntil = new AtomicLong();
+    private final AtomicBoolean halfOpenTrial = new AtomicBoolean();
+    private volatile boolean healthy = true;
+    private final Timer successTimer;
+    private final Timer failureTimer;
+
+    public OllamaBackend(String baseUrl, OllamaApi api, ChatModel chatModel,
+                         int failureThreshold, Duration openDuration, MeterRegistry meterRegistry) {
+        this.baseUrl = baseUrl;
+        this.api = api;
+        this.chatModel = chatModel;
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+
+        Gauge.builder("llm.backend.outstanding", outstanding, AtomicInteger::get)
+                .description("Requests queued or running on the backend")
+                .tag("backend", baseUrl)
+                .register(meterRegistry);
+        Gauge.builder("llm.backend.available", this, b -> b.isAvailable() ? 1 : 0)
+                .description("1 when the backend is healthy and its circuit is closed")
+                .tag("backend", baseUrl)
+                .register(meterRegistry);
+        this.successTimer = latencyTimer(meterRegistry, "success");
+        this.failureTimer = latencyTimer(meterRegistry, "failure");
+    }
+
+    private Timer latencyTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("llm.backend.latency")
+                .tag("backend", baseUrl)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public int outstanding() {
+        return outstanding.get();
+    }
+
+    /** Healthy and circuit closed (or open long enough to allow a trial call). */
+    public boolean isAvailable() {
+        return healthy && (openUntil.get() == 0 || System.nanoTime() >= openUntil.get());
+    }
+
+    /**
+     * Reserves a slot on this backend, or returns null when the circuit is
+     * half-open and another caller already holds the single trial slot.
+     */
+    Lease tryAcquire() {
+        long until = openUntil.get();
+        boolean trial = until != 0 && System.nanoTime() >= until;
+        if (trial && !halfOpenTrial.compareAndSet(false, true)) {
+            return null;
+        }
+        outstanding.incrementAndGet();
+        return new Lease(System.nanoTime(), trial);
+    }
+
+    class Lease {
+        private final long startNanos;
+        private final boolean trial;
+
+        private Lease(long startNanos, boolean trial) {
+            this.startNanos = startNanos;
+            this.trial = trial;
+        }
+
+        OllamaBackend backend() {
+            return OllamaBackend.this;
+        }
+
+        void release(boolean success) {
+            outstanding.decrementAndGet();
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+            if (success) {
+                successTimer.record(elapsed);
+                consecutiveFailures.set(0);
+                openUntil.set(0);
+            } else {
+                failureTimer.record(elapsed);
+                if (trial || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+                    openUntil.set(System.nanoTime() + openDurationNanos);
+                }
+            }
+            if (trial) {
+                halfOpenTrial.set(false);
+            }
+        }
+    }
+
+    void checkHealth() {
+        try {
+            api.listModels();
+            healthy = true;
+        } catch (Exception e) {
+            healthy = false;
+        }
+    }
+}
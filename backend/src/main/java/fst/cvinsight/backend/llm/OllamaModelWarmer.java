@@ -0,0 +1,178 @@
+package fst.cvinsight.backend.llm;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.ollama.api.OllamaApi;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Loads the configured models into every Ollama backend once the application
+ * has started, keeps them resident with periodic keep-alive pings, and holds the
+ * readiness state at {@link ReadinessState#REFUSING_TRAFFIC} until every model
+ * is loaded on at least one available backend, which is all
+ * {@link RoutingChatModel} needs to serve every task. Backends still cold, or
+ * whose keep-alive ping failed (the backend restarted or evicted the model), are
+ * warmed up again in the background while the router's health check and circuit
+ * breaker keep calls away from them; readiness is only taken back once a model is
+ * loaded nowhere.
+ */
+@Component
+public class OllamaModelWarmer {
+
+    private final Logger log = LoggerFactory.getLogger(OllamaModelWarmer.class);
+
+    private final List<OllamaBackend> backends;
+    private final List<String> models;
+    private final String keepAlive;
+    private final Duration retryDelay;
+    private final boolean gateReadiness;
+    private final TaskScheduler taskScheduler;
+    private final ApplicationEventPublisher eventPublisher;
+    // "<backend url> <model>" pairs that answered the last load or ping
+    private final Set<String> warmModels = ConcurrentHashMap.newKeySet();
+    // Set while a warm-up is scheduled or running, so pings do not start another one
+    private final AtomicBoolean warming = new AtomicBoolean();
+    // Readiness last published by the warmer, so each change is published once
+    private final AtomicBoolean accepting = new AtomicBoolean();
+
+    public OllamaModelWarmer(RoutingChatModel routingChatModel,
+                             @Value("${ollama.warmup.models:}") List<String> models,
+                             LlmProfiles profiles,
+                             @Value("${ollama.warmup.keep-alive:30m}") String keepAlive,
+                             @Value("${ollama.warmup.retry-delay:15s}") Duration retryDelay,
+                             @Value("${ollama.warmup.gate-readiness:true}") boolean gateReadiness,
+                             TaskScheduler taskScheduler,
+                             ApplicationEventPublisher eventPublisher) {
+        this.backends = routingChatModel.getBackends();
+        // Defaults to every model tier the task profiles can route to
+        this.models = models.isEmpty() ? profiles.modelNames() : models;
+        this.keepAlive = keepAlive;
+        this.retryDelay = retryDelay;
+        this.gateReadiness = gateReadiness;
+        this.taskScheduler = taskScheduler;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * True when every model is loaded on at least one available backend.
+     */
+    public boolean isWarm() {
+        return models.stream().allMatch(model -> backends.stream()
+                .anyMatch(backend -> backend.isAvailable() && warmModels.contains(key(backend, model))));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        startWarmUp(Instant.now());
+    }
+
+    /*
+     * Spring Boot publishes ACCEPTING_TRAFFIC right after the ready event;
+     * push it back until the models are loaded.
+     */
+    @EventListener
+    public void onReadinessChange(AvailabilityChangeEvent<ReadinessState> event) {
+        if (gateReadiness && event.getState() == ReadinessState.ACCEPTING_TRAFFIC && !isWarm()) {
+            AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        }
+    }
+
+    @Scheduled(cron = "${ollama.warmup.keep-alive-cron:0 */5 8-19 * * MON-FRI}")
+    public void keepAlive() {
+        boolean lost = false;
+        for (OllamaBackend backend : backends) {
+            for (String model : models) {
+                if (!load(backend, model)) {
+                    lost |= warmModels.remove(key(backend, model));
+                }
+            }
+        }
+        publishReadiness();
+        if (lost) {
+            startWarmUp(Instant.now().plus(retryDelay));
+        }
+    }
+
+    private void startWarmUp(Instant at) {
+        if (warming.compareAndSet(false, true)) {
+            taskScheduler.schedule(this::warmUp, at);
+        }
+    }
+
+    private void warmUp() {
+        for (OllamaBackend backend : backends) {
+            for (String model : models) {
+                if (!warmModels.contains(key(backend, model)) && load(backend, model)) {
+                    log.info("Model {} loaded in Ollama at {}", model, backend.getBaseUrl());
+                }
+            }
+        }
+
+        publishReadiness();
+        if (isWarmEverywhere()) {
+            warming.set(false);
+        } else {
+            taskScheduler.schedule(this::warmUp, Instant.now().plus(retryDelay));
+        }
+    }
+
+    /*
+     * The warm-up keeps retrying until every backend holds every model
+     */
+    private boolean isWarmEverywhere() {
+        return backends.stream().allMatch(backend ->
+                models.stream().allMatch(model -> warmModels.contains(key(backend, model))));
+    }
+
+    /*
+     * Publishes a readiness change only when isWarm() flipped since the last one
+     */
+    private void publishReadiness() {
+        boolean warm = isWarm();
+        if (!accepting.compareAndSet(!warm, warm)) {
+            return;
+        }
+        if (warm) {
+            AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.ACCEPTING_TRAFFIC);
+        } else if (gateReadiness) {
+            AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        }
+    }
+
+    /*
+     * A chat request without messages makes Ollama load the model and
+     * reset its keep-alive timer without generating anything.
+     */
+    private boolean load(OllamaBackend backend, String model) {
+        try {
+            backend.getApi().chat(OllamaApi.ChatRequest.builder(model)
+                    .messages(List.of())
+                    .keepAlive(keepAlive)
+                    .build());
+            warmModels.add(key(backend, model));
+            return true;
+        } catch (Exception e) {
+            log.warn("Could not load model {} in Ollama at {}: {}", model, backend.getBaseUrl(), e.getMessage());
+            return false;
+        }
+    }
+
+    private static String key(OllamaBackend backend, String model) {
+        return backend.getBaseUrl() + " " + model;
+    }
+}
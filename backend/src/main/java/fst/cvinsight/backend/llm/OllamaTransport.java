@@ -0,0 +1,93 @@
+package fst.cvinsight.backend.llm;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.ai.ollama.api.OllamaApi;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ReactorClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Builds {@link OllamaApi} clients that all share one pooled Reactor Netty
+ * {@link HttpClient}, so every Ollama endpoint reuses keep-alive connections
+ * from the same bounded pool. Each endpoint gets an
+ * {@code ollama.client.requests.inflight} gauge tagged with its base URL.
+ */
+public class OllamaTransport {
+
+    private final HttpClient httpClient;
+    private final Duration generationTimeout;
+    private final Supplier<RestClient.Builder> restClientBuilders;
+    private final Supplier<WebClient.Builder> webClientBuilders;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    public OllamaTransport(HttpClient httpClient,
+                           Duration generationTimeout,
+                           Supplier<RestClient.Builder> restClientBuilders,
+                           Supplier<WebClient.Builder> webClientBuilders,
+                           MeterRegistry meterRegistry) {
+        this.httpClient = httpClient;
+        this.generationTimeout = generationTimeout;
+        this.restClientBuilders = restClientBuilders;
+        this.webClientBuilders = webClientBuilders;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public OllamaApi createApi(String baseUrl) {
+        AtomicInteger counter = inFlightCounter(baseUrl);
+
+        // A non-streamed generation answers in one piece once it is done: the wait for the
+        // response is the whole generation
+        ReactorClientHttpRequestFactory requestFactory =
+                new ReactorClientHttpRequestFactory(httpClient.responseTimeout(generationTimeout));
+
+        ClientHttpRequestInterceptor inFlightInterceptor = (request, body, execution) -> {
+            counter.incrementAndGet();
+            try {
+                return execution.execute(request, body);
+            } finally {
+                counter.decrementAndGet();
+            }
+        };
+        ExchangeFilterFunction inFlightFilter = (request, next) -> next.exchange(request)
+                .doOnSubscribe(s -> counter.incrementAndGet())
+                .doFinally(signal -> counter.decrementAndGet());
+
+        return OllamaApi.builder()
+                .baseUrl(baseUrl)
+                .restClientBuilder(restClientBuilders.get()
+                        .requestFactory(requestFactory)
+                        .requestInterceptor(inFlightInterceptor))
+                .webClientBuilder(webClientBuilders.get()
+                        .clientConnector(new ReactorClientHttpConnector(httpClient))
+                        .filter(inFlightFilter))
+                .build();
+    }
+
+    public int inFlight(String baseUrl) {
+        AtomicInteger counter = inFlight.get(baseUrl);
+        return counter != null ? counter.get() : 0;
+    }
+
+    private AtomicInteger inFlightCounter(String baseUrl) {
+        return inFlight.computeIfAbsent(baseUrl, url -> {
+            AtomicInteger counter = new AtomicInteger();
+            Gauge.builder("ollama.client.requests.inflight", counter, AtomicInteger::get)
+                    .description("Ollama HTTP requests waiting for a response")
+                    .tag("endpoint", url)
+                    .register(meterRegistry);
+            return counter;
+        });
+    }
+}
@@ -0,0 +1,176 @@
+package fst.cvinsight.backend.llm;
+
+import lombok.Getter;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.scheduling.annotation.Scheduled;
+import reactor.core.publisher.Flux;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Spreads chat calls over several Ollama instances.
+ * <p>
+ * The backend with the fewest outstanding requests wins, except that prompts
+ * sharing the same leading {@code stickyPrefixLength} characters are pinned to
+ * one backend (rendezvous hashing) so its KV cache for that prefix gets reused,
+ * as long as it is no more than {@code stickyMaxImbalance} requests busier than
+ * the least loaded one. Unhealthy backends and backends with an open circuit
+ * are skipped; a failed call fails over to another backend.
+ */
+public class RoutingChatModel implements ChatModel {
+
+    @Getter
+    private final List<OllamaBackend> backends;
+    private final int stickyPrefixLength;
+    private final int stickyMaxImbalance;
+    private final int maxAttempts;
+
+    public RoutingChatModel(List<OllamaBackend> backends, int stickyPrefixLength,
+                            int stickyMaxImbalance, int maxAttempts) {
+        if (backends.isEmpty()) {
+            throw new IllegalArgumentException("At least one Ollama backend is required");
+        }
+        this.backends = List.copyOf(backends);
+        this.stickyPrefixLength = stickyPrefixLength;
+        this.stickyMaxImbalance = stickyMaxImbalance;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        Set<OllamaBackend> tried = new HashSet<>();
+        RuntimeException lastFailure = null;
+
+        for (int attempt = 0; attempt < maxAttempts; attempt++) {
+            OllamaBackend.Lease lease = select(prompt, tried);
+            if (lease == null) {
+                break;
+            }
+            tried.add(lease.backend());
+
+            boolean backendFailure = false;
+            try {
+                return lease.backend().getChatModel().call(prompt);
+            } catch (RuntimeException e) {
+                backendFailure = isBackendFailure(e);
+                if (!backendFailure) {
+                    throw e;
+                }
+                lastFailure = e;
+            } finally {
+                lease.release(!backendFailure);
+            }
+        }
+
+        throw lastFailure != null ? lastFailure : new TransientAiException("No Ollama backend available");
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return Flux.defer(() -> {
+            OllamaBackend.Lease lease = select(prompt, Set.of());
+            if (lease == null) {
+                return Flux.error(new TransientAiException("No Ollama backend available"));
+            }
+            AtomicBoolean backendFailure = new AtomicBoolean();
+            return lease.backend().getChatModel().stream(prompt)
+                    .doOnError(e -> backendFailure.set(isBackendFailure(e)))
+                    .doFinally(signal -> lease.release(!backendFailure.get()));
+        });
+    }
+
+    @Override
+    public ChatOptions getDefaultOptions() {
+        return backends.get(0).getChatModel().getDefaultOptions();
+    }
+
+    @Scheduled(fixedDelayString = "${ollama.router.health-check-interval:10s}")
+    public void checkHealth() {
+        backends.forEach(OllamaBackend::checkHealth);
+    }
+
+    private OllamaBackend.Lease select(Prompt prompt, Set<OllamaBackend> excluded) {
+        List<OllamaBackend> candidates = backends.stream()
+                .filter(b -> !excluded.contains(b) && b.isAvailable())
+                .sorted(Comparator.comparingInt(OllamaBackend::outstanding))
+                .toList();
+        if (candidates.isEmpty()) {
+            return null;
+        }
+
+        OllamaBackend sticky = stickyBackend(prefixHash(prompt), candidates);
+        if (sticky.outstanding() <= candidates.get(0).outstanding() + stickyMaxImbalance) {
+            OllamaBackend.Lease lease = sticky.tryAcquire();
+            if (lease != null) {
+                return lease;
+            }
+        }
+        for (OllamaBackend candidate : candidates) {
+            OllamaBackend.Lease lease = candidate.tryAcquire();
+            if (lease != null) {
+                return lease;
+            }
+        }
+        return null;
+    }
+
+    private static OllamaBackend stickyBackend(long prefixHash, List<OllamaBackend> candidates) {
+        OllamaBackend best = candidates.get(0);
+        long bestScore = Long.MIN_VALUE;
+        for (OllamaBackend candidate : candidates) {
+            long score = mix(prefixHash ^ candidate.getBaseUrl().hashCode());
+            if (score > bestScore) {
+                bestScore = score;
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    private long prefixHash(Prompt prompt) {
+        long hash = 1125899906842597L;
+        int remaining = stickyPrefixLength;
+        for (Message message : prompt.getInstructions()) {
+            String text = message.getText();
+            if (text == null) {
+                continue;
+            }
+            int length = Math.min(text.length(), remaining);
+            for (int i = 0; i < length; i++) {
+                hash = 31 * hash + text.charAt(i);
+            }
+            remaining -= length;
+            if (remaining == 0) {
+                break;
+            }
+        }
+        return hash;
+    }
+
+    // MurmurHash3 64-bit finalizer
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /*
+     * 4xx answers (NonTransientAiException) are caused by the request, not by the backend
+     */
+    private static boolean isBackendFailure(Throwable e) {
+        return !(e instanceof NonTransientAiException);
+    }
+}
@@ -0,0 +1,164 @@
+package fst.cvinsight.backend.llm;
+
+import fst.cvinsight.backend.metrics.PipelineObservations;
+import fst.cvinsight.backend.metrics.PipelineStage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.ollama.api.OllamaOptions;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a prompt with the model and options of its {@link LlmTask} profile.
+ * <p>
+ * When the preferred model already has {@code max-concurrency} calls in flight
+ * and the profile names a fallback tier with spare capacity, the call goes to
+ * the fallback instead of queueing behind the busy model. Latency is recorded
+ * per task and per model that actually served the call as {@code llm.task.latency}.
+ * <p>
+ * The call is also split into the {@code llm_queue} and {@code llm_generation}
+ * pipeline stages: Ollama reports how long it worked on the request, the rest
+ * of the wall time was spent waiting for a connection or a free model slot.
+ * Prompt and generated token counts are counted as {@code llm.tokens}.
+ */
+@Component
+public class TieredChatClient {
+
+    // Ollama's own processing time for the request (model load, prompt evaluation and generation)
+    private static final String TOTAL_DURATION = "total-duration";
+
+    private final ChatClient chatClient;
+    private final LlmProfiles profiles;
+    private final MeterRegistry meterRegistry;
+    private final PipelineObservations observations;
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    public TieredChatClient(ChatClient chatClient, LlmProfiles profiles, MeterRegistry meterRegistry,
+                            PipelineObservations observations) {
+        this.chatClient = chatClient;
+        this.profiles = profiles;
+        this.meterRegistry = meterRegistry;
+        this.observations = observations;
+    }
+
+    public String call(LlmTask task, String prompt) {
+        return call(task, prompt, null);
+    }
+
+    /**
+     * @param format JSON schema the output must conform to (see {@link JsonSchemas}), or null for free text
+     */
+    public String call(LlmTask task, String prompt, Map<String, Object> format) {
+        LlmProfiles.Profile profile = profiles.profile(task);
+        LlmProfiles.Model model = acquire(profile);
+
+        OllamaOptions options = OllamaOptions.builder()
+                .model(model.getName())
+                .temperature(profile.getTemperature())
+                .numCtx(profile.getNumCtx())
+                .numPredict(profile.getNumPredict())
+                .format(format)
+                .build();
+
+        String outcome = "error";
+        long start = System.nanoTime();
+        try {
+            ChatResponse response = chatClient.prompt(prompt)
+                    .options(options)
+                    .call()
+                    .chatResponse();
+            outcome = "success";
+            recordStages(response, Duration.ofNanos(System.nanoTime() - start));
+            recordTokens(task, model, response);
+            return response != null && response.getResult() != null
+                    ? response.getResult().getOutput().getText()
+                    : null;
+        } finally {
+            counter(model).decrementAndGet();
+            Timer.builder("llm.task.latency")
+                    .description("Model call latency per task and serving model")
+                    .tag("task", task.name().toLowerCase())
+                    .tag("model", model.getName())
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void recordStages(ChatResponse response, Duration elapsed) {
+        Object total = response != null ? response.getMetadata().get(TOTAL_DURATION) : null;
+        if (!(total instanceof Duration generation)) {
+            observations.record(PipelineStage.LLM_GENERATION, elapsed);
+            return;
+        }
+        Duration queue = elapsed.minus(generation);
+        observations.record(PipelineStage.LLM_QUEUE, queue.isNegative() ? Duration.ZERO : queue);
+        observations.record(PipelineStage.LLM_GENERATION, generation);
+    }
+
+    private void recordTokens(LlmTask task, LlmProfiles.Model model, ChatResponse response) {
+        Usage usage = response != null ? response.getMetadata().getUsage() : null;
+        if (usage == null) {
+            return;
+        }
+        tokenCounter(task, model, "prompt").increment(usage.getPromptTokens() != null ? usage.getPromptTokens() : 0);
+        tokenCounter(task, model, "completion").increment(usage.getCompletionTokens() != null ? usage.getCompletionTokens() : 0);
+    }
+
+    private Counter tokenCounter(LlmTask task, LlmProfiles.Model model, String type) {
+        return Counter.builder("llm.tokens")
+                .description("Tokens processed per task and serving model")
+                .tag("task", task.name().toLowerCase())
+                .tag("model", model.getName())
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    /*
+     * The preferred model is always used when no fallback has room: the Ollama queue
+     * absorbs the excess, max-concurrency only decides when spilling over is worth it.
+     */
+    private LlmProfiles.Model acquire(LlmProfiles.Profile profile) {
+        LlmProfiles.Model preferred = profiles.model(profile.getModel());
+        if (tryAcquire(preferred)) {
+            return preferred;
+        }
+        if (profile.getFallback() != null) {
+            LlmProfiles.Model fallback = profiles.model(profile.getFallback());
+            if (tryAcquire(fallback)) {
+                return fallback;
+            }
+        }
+        // tryAcquire gave the slot back; the call is counted all the same, since it is released
+        counter(preferred).incrementAndGet();
+        return preferred;
+    }
+
+    private boolean tryAcquire(LlmProfiles.Model model) {
+        AtomicInteger counter = counter(model);
+        if (counter.incrementAndGet() <= model.getMaxConcurrency()) {
+            return true;
+        }
+        counter.decrementAndGet();
+        return false;
+    }
+
+    private AtomicInteger counter(LlmProfiles.Model model) {
+        return inFlight.computeIfAbsent(model.getName(), name -> {
+            AtomicInteger counter = new AtomicInteger();
+            meterRegistry.gauge("llm.model.inflight", Tags.of("model", name), counter);
+            return counter;
+        });
+    }
+}
@@ -0,0 +1,24 @@
+package fst.cvinsight.backend.llm.schema;
+
+import fst.cvinsight.backend.model.RecommendationLevel;
+import fst.cvinsight.backend.model.RecommendationType;
+
+import java.util.List;
+
+/**
+ * One item of the career recommendations array.
+ */
+public record CareerRecommendation(
+        RecommendationType type,
+        String title,
+        String provider,
+        String description,
+        int matchScore,
+        RecommendationLevel level,
+        String duration,
+        double price,
+        String url,
+        List<String> skills,
+        String whyRecommended,
+        String category) {
+}
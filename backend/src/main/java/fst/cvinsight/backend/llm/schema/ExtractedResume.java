@@ -0,0 +1,66 @@
+package fst.cvinsight.backend.llm.schema;
+
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+
+import java.util.List;
+
+/**
+ * Structure of the resume JSON produced by extraction and stored in {@code Resume.jsonContent}.
+ */
+public record ExtractedResume(
+        About about,
+        List<Education> education,
+        List<Work> work,
+        List<Project> projects,
+        List<String> skills,
+        List<Language> languages,
+        List<Certification> certifications,
+        List<SocialActivity> socialActivities) {
+
+    public record About(
+            String name,
+            String email,
+            String phone,
+            String address,
+            String linkedin,
+            String github,
+            String role,
+            String portfolio,
+            String summary,
+            List<String> otherProfiles) {
+    }
+
+    public record Education(
+            String degree,
+            @JsonPropertyDescription("Institution name") String school,
+            @JsonPropertyDescription("Year, e.g. 2022") String startYr,
+            @JsonPropertyDescription("Year, e.g. 2025") String endYr,
+            String grade) {
+    }
+
+    public record Work(
+            String position,
+            String company,
+            @JsonPropertyDescription("YYYY-MM if available") String startDate,
+            @JsonPropertyDescription("YYYY-MM if available") String endDate,
+            String description,
+            @JsonPropertyDescription("Full-Time, Internship, Part-Time or Freelance") String type) {
+    }
+
+    public record Project(
+            String name,
+            String description,
+            String github,
+            List<String> technologies,
+            String url) {
+    }
+
+    public record Language(String name, String level) {
+    }
+
+    public record Certification(String title, String issuer, String year) {
+    }
+
+    public record SocialActivity(String role, String organization, String description) {
+    }
+}
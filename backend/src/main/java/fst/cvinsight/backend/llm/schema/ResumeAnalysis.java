@@ -0,0 +1,17 @@
+package fst.cvinsight.backend.llm.schema;
+
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+
+import java.util.List;
+
+/**
+ * Output of the resume review prompt.
+ */
+public record ResumeAnalysis(
+        List<String> weaknesses,
+        List<String> improvements,
+        List<String> missingSections,
+        List<String> mistakes,
+        @JsonPropertyDescription("Overall quality from 0 to 100") int score,
+        String overallFeedback) {
+}
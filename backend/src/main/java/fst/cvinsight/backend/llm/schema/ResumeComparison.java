@@ -0,0 +1,22 @@
+package fst.cvinsight.backend.llm.schema;
+
+import java.util.List;
+
+/**
+ * Output of the two-resume comparison prompt; left is the first requested resume.
+ */
+public record ResumeComparison(
+        String summary,
+        List<String> leftHighlights,
+        List<String> rightHighlights,
+        List<String> sharedStrengths,
+        List<String> gaps,
+        Winner winner,
+        String hiringAdvice) {
+
+    public enum Winner {
+        LEFT,
+        RIGHT,
+        TIE
+    }
+}
@@ -0,0 +1,16 @@
+package fst.cvinsight.backend.llm.schema;
+
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+
+import java.util.List;
+
+/**
+ * Review of one resume section, as returned per section by the resume review prompt.
+ */
+public record SectionAnalysis(
+        List<String> weaknesses,
+        List<String> improvements,
+        List<String> mistakes,
+        @JsonPropertyDescription("Quality of this section from 0 to 100") int score,
+        String feedback) {
+}
@@ -0,0 +1,42 @@
+package fst.cvinsight.backend.metrics;
+
+import fst.cvinsight.backend.filter.RequestStartFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.WebUtils;
+
+import java.time.Duration;
+
+/**
+ * The dispatcher resolves multipart bodies before interceptors run, so the time
+ * from {@link RequestStartFilter} to here is the upload receipt. Also sets the
+ * format tag of the request from the uploaded file.
+ */
+@Component
+public class PipelineHandlerInterceptor implements HandlerInterceptor {
+
+    private final PipelineObservations observations;
+
+    public PipelineHandlerInterceptor(PipelineObservations observations) {
+        this.observations = observations;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        MultipartHttpServletRequest multipart = WebUtils.getNativeRequest(request, MultipartHttpServletRequest.class);
+        if (multipart == null) {
+            return true;
+        }
+        MultipartFile file = multipart.getFileMap().values().stream().findFirst().orElse(null);
+        observations.setFormat(request, file != null ? file.getOriginalFilename() : null);
+
+        if (request.getAttribute(RequestStartFilter.START_NANOS_ATTRIBUTE) instanceof Long start) {
+            observations.record(PipelineStage.MULTIPART_RECEIPT, Duration.ofNanos(observations.monotonicTime() - start));
+        }
+        return true;
+    }
+}
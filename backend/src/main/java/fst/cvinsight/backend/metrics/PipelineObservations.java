@@ -0,0 +1,129 @@
+package fst.cvinsight.backend.metrics;
+
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.ObservationView;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Observes the stages of the resume pipeline as {@code resume.pipeline} timers
+ * (tagged {@code stage}, {@code endpoint} and {@code format}) and trace spans.
+ * <p>
+ * The endpoint and format tags come from the HTTP request being served. They are
+ * found through the current observation's parents, so stages running on another
+ * thread are tagged correctly as long as their executor propagates the context.
+ */
+@Component
+public class PipelineObservations {
+
+    public static final String NAME = "resume.pipeline";
+    private static final String FORMAT_ATTRIBUTE = PipelineObservations.class.getName() + ".format";
+    private static final String NONE = "none";
+    // Bounded tag values: anything else is reported as "other"
+    private static final Set<String> KNOWN_FORMATS = Set.of(
+            "pdf", "doc", "docx", "odt", "rtf", "txt", "png", "jpg", "jpeg", "tif", "tiff");
+
+    private final ObservationRegistry observationRegistry;
+    private final MeterRegistry meterRegistry;
+
+    public PipelineObservations(ObservationRegistry observationRegistry, MeterRegistry meterRegistry) {
+        this.observationRegistry = observationRegistry;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T, E extends Throwable> T observe(PipelineStage stage, Observation.CheckedCallable<T, E> work) throws E {
+        return create(stage).observeChecked(work);
+    }
+
+    public <E extends Throwable> void run(PipelineStage stage, Observation.CheckedRunnable<E> work) throws E {
+        create(stage).observeChecked(work);
+    }
+
+    /**
+     * Started observation for a stage that ends on another thread (queue waits);
+     * the caller stops it. The stage tag may still be changed before stopping.
+     */
+    public Observation start(PipelineStage stage) {
+        return create(stage).start();
+    }
+
+    /**
+     * Records a duration measured by someone else (e.g. reported by Ollama).
+     * Only a timer is recorded; tags match the ones observations produce.
+     */
+    public void record(PipelineStage stage, Duration duration) {
+        Timer.builder(NAME)
+                .tag("stage", stage.tag())
+                .tags(toTags(currentTags()))
+                .tag("error", NONE)
+                .register(meterRegistry)
+                .record(duration);
+    }
+
+    public long monotonicTime() {
+        return meterRegistry.config().clock().monotonicTime();
+    }
+
+    /**
+     * Sets the format tag of the current request from the uploaded file name.
+     */
+    public void setFormat(HttpServletRequest request, String filename) {
+        String extension = NONE;
+        if (filename != null && filename.lastIndexOf('.') >= 0) {
+            extension = filename.substring(filename.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+            extension = KNOWN_FORMATS.contains(extension) ? extension : "other";
+        }
+        request.setAttribute(FORMAT_ATTRIBUTE, extension);
+    }
+
+    private Observation create(PipelineStage stage) {
+        return Observation.createNotStarted(NAME, observationRegistry)
+                .contextualName(NAME + " " + stage.tag())
+                .lowCardinalityKeyValue("stage", stage.tag())
+                .lowCardinalityKeyValues(currentTags());
+    }
+
+    private KeyValues currentTags() {
+        HttpServletRequest request = currentRequest();
+        if (request == null) {
+            return KeyValues.of("endpoint", NONE, "format", NONE);
+        }
+        Object endpoint = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Object format = request.getAttribute(FORMAT_ATTRIBUTE);
+        return KeyValues.of(
+                "endpoint", endpoint != null ? endpoint.toString() : NONE,
+                "format", format != null ? format.toString() : NONE);
+    }
+
+    private HttpServletRequest currentRequest() {
+        for (ObservationView view = observationRegistry.getCurrentObservation(); view != null;
+             view = view.getContextView().getParentObservation()) {
+            if (view.getContextView() instanceof ServerRequestObservationContext context) {
+                return context.getCarrier();
+            }
+        }
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes.getRequest()
+                : null;
+    }
+
+    private static Tags toTags(KeyValues keyValues) {
+        return Tags.of(keyValues.stream()
+                .map(kv -> Tag.of(kv.getKey(), kv.getValue()))
+                .toList());
+    }
+}
@@ -0,0 +1,25 @@
+package fst.cvinsight.backend.metrics;
+
+import java.util.Locale;
+
+/**
+ * Steps of the resume pipeline, recorded as the {@code stage} tag of {@code resume.pipeline}.
+ */
+public enum PipelineStage {
+    MULTIPART_RECEIPT,
+    TEMP_FILE_WRITE,
+    EXTRACTION_QUEUE,
+    TEXT_PARSE,
+    OCR,
+    PROMPT_BUILD,
+    LLM_QUEUE,
+    LLM_GENERATION,
+    JSON_PARSE,
+    PDF_RENDER,
+    DB_READ,
+    DB_WRITE;
+
+    public String tag() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
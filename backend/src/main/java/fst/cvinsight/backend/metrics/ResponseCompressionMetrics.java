@@ -0,0 +1,81 @@
+package fst.cvinsight.backend.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.ServletException;
+import org.apache.catalina.AccessLog;
+import org.apache.catalina.connector.Request;
+import org.apache.catalina.connector.Response;
+import org.apache.catalina.valves.ValveBase;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Bytes saved by response compression ({@code server.compression}). Tomcat compresses
+ * below the servlet API, so this is read from a valve once the response is finished:
+ * {@code http.server.response.bytes} counts what the application wrote
+ * ({@code stage=content}) and what went on the wire ({@code stage=sent}), per
+ * {@code encoding}. The saving is content minus sent for {@code encoding=gzip}.
+ */
+@Component
+public class ResponseCompressionMetrics implements WebServerFactoryCustomizer<TomcatServletWebServerFactory> {
+
+    private static final String METRIC = "http.server.response.bytes";
+
+    private final MeterRegistry meterRegistry;
+
+    public ResponseCompressionMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void customize(TomcatServletWebServerFactory factory) {
+        factory.addContextValves(new MeasuringValve());
+    }
+
+    /*
+     * Tomcat calls AccessLog#log after the response is flushed and closed, when the
+     * compressed size is final; invoke happens too early for that.
+     */
+    private class MeasuringValve extends ValveBase implements AccessLog {
+
+        private boolean requestAttributesEnabled;
+
+        MeasuringValve() {
+            super(true);
+        }
+
+        @Override
+        public void invoke(Request request, Response response) throws IOException, ServletException {
+            getNext().invoke(request, response);
+        }
+
+        @Override
+        public void log(Request request, Response response, long time) {
+            long content = response.getContentWritten();
+            if (content == 0) {
+                return;
+            }
+            String encoding = response.getHeader(HttpHeaders.CONTENT_ENCODING);
+            String tag = encoding != null ? encoding : "identity";
+            Counter.builder(METRIC).tag("stage", "content").tag("encoding", tag)
+                    .baseUnit("bytes").register(meterRegistry).increment(content);
+            Counter.builder(METRIC).tag("stage", "sent").tag("encoding", tag)
+                    .baseUnit("bytes").register(meterRegistry).increment(response.getCoyoteResponse().getBytesWritten(false));
+        }
+
+        @Override
+        public void setRequestAttributesEnabled(boolean requestAttributesEnabled) {
+            this.requestAttributesEnabled = requestAttributesEnabled;
+        }
+
+        @Override
+        public boolean getRequestAttributesEnabled() {
+            return requestAttributesEnabled;
+        }
+    }
+}
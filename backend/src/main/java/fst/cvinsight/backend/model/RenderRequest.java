@@ -0,0 +1,15 @@
+package fst.cvinsight.backend.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+
+@Getter
+public class RenderRequest {
+    // One of the resume-templates/*.json ids, e.g. temp-1
+    @NotBlank(message = "Template is required")
+    private String templateId;
+    @NotNull(message = "Resume content is required")
+    private JsonNode jsonContent;
+}
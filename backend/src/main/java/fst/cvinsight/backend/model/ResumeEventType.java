@@ -0,0 +1,10 @@
+package fst.cvinsight.backend.model;
+
+/**
+ * Resume state changes published to the outbox (see {@link fst.cvinsight.backend.outbox.OutboxPublisher}).
+ */
+public enum ResumeEventType {
+    SAVED,
+    SCORED,
+    DELETED
+}
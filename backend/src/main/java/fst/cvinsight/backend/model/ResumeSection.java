@@ -0,0 +1,23 @@
+package fst.cvinsight.backend.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Top-level blocks of the extracted resume JSON, in output order.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ResumeSection {
+    ABOUT("about", "About"),
+    EDUCATION("education", "Education"),
+    WORK("work", "Work experience"),
+    PROJECTS("projects", "Projects"),
+    SKILLS("skills", "Skills"),
+    LANGUAGES("languages", "Languages"),
+    CERTIFICATIONS("certifications", "Certifications"),
+    SOCIAL_ACTIVITIES("socialActivities", "Social activities");
+
+    private final String field;
+    private final String title;
+}
@@ -0,0 +1,27 @@
+package fst.cvinsight.backend.outbox;
+
+import fst.cvinsight.backend.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Keeps some derived data up to date from the resume events in the outbox. Beans of
+ * this type are registered with {@link OutboxPoller} automatically.
+ * <p>
+ * Delivery is at least once: a batch is handed over again when {@link #handle} throws,
+ * or when the process stops before the offset is saved, so repeated events must be
+ * recognized by their {@code eventKey}. Writes made through JPA in {@link #handle}
+ * commit together with the offset, which makes them exactly once.
+ */
+public interface OutboxConsumer {
+
+    /**
+     * Key of the consumer's offset. A new name starts over from the oldest retained event.
+     */
+    String getName();
+
+    /**
+     * Called with events in transaction order, then id order, never concurrently for the same consumer.
+     */
+    void handle(List<OutboxEvent> events);
+}
@@ -0,0 +1,153 @@
+package fst.cvinsight.backend.outbox;
+
+import fst.cvinsight.backend.entity.OutboxEvent;
+import fst.cvinsight.backend.entity.OutboxOffset;
+import fst.cvinsight.backend.repo.OutboxEventRepository;
+import fst.cvinsight.backend.repo.OutboxOffsetRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers outbox events to every {@link OutboxConsumer}, in batches and in the order
+ * their transactions started.
+ * <ul>
+ *   <li>Each consumer has its own {@link OutboxOffset}, locked with SKIP LOCKED while
+ *   a batch is handled, so one replica delivers to a consumer at a time and a slow or
+ *   failing consumer holds back no other.</li>
+ *   <li>Events carry the id of the transaction that wrote them and are only delivered
+ *   once every transaction up to it has ended, i.e. below the xmin of the database
+ *   snapshot. The offset is a (transaction, id) position, so an event committed late
+ *   sorts after the ones already handled instead of below the offset.</li>
+ *   <li>{@code outbox.consumer.lag} is the age of the oldest event a consumer has not
+ *   handled yet, 0 when it is caught up.</li>
+ *   <li>Events every consumer has handled are deleted {@code outbox.retention} after
+ *   they were written.</li>
+ * </ul>
+ */
+@Component
+public class OutboxPoller {
+
+    private static final Comparator<OutboxOffset> POSITION =
+            Comparator.comparingLong(OutboxOffset::getLastTransactionId).thenComparingLong(OutboxOffset::getLastEventId);
+
+    private final Logger log = LoggerFactory.getLogger(OutboxPoller.class);
+
+    private final List<OutboxConsumer> consumers;
+    private final OutboxEventRepository events;
+    private final OutboxOffsetRepository offsets;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final Duration retention;
+    private final Set<String> registered = ConcurrentHashMap.newKeySet();
+    private final Map<String, AtomicLong> lagMillis = new ConcurrentHashMap<>();
+
+    public OutboxPoller(List<OutboxConsumer> consumers,
+                        OutboxEventRepository events,
+                        OutboxOffsetRepository offsets,
+                        TransactionTemplate transactionTemplate,
+                        MeterRegistry meterRegistry,
+                        @Value("${outbox.batch-size:100}") int batchSize,
+                        @Value("${outbox.retention:7d}") Duration retention) {
+        this.consumers = consumers;
+        this.events = events;
+        this.offsets = offsets;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.retention = retention;
+        for (OutboxConsumer consumer : consumers) {
+            AtomicLong lag = new AtomicLong();
+            lagMillis.put(consumer.getName(), lag);
+            Gauge.builder("outbox.consumer.lag", lag, value -> value.get() / 1000.0)
+                    .description("Age of the oldest outbox event the consumer has not handled yet")
+                    .baseUnit("seconds")
+                    .tag("consumer", consumer.getName())
+                    .register(meterRegistry);
+        }
+    }
+
+    /*
+     * Drains each consumer in turn, one transaction per batch; a failed batch is
+     * rolled back with its offset and handed over again on the next poll
+     */
+    @Scheduled(fixedDelayString = "${outbox.poll-interval:1s}")
+    public void poll() {
+        for (OutboxConsumer consumer : consumers) {
+            try {
+                if (!registered.contains(consumer.getName())) {
+                    transactionTemplate.executeWithoutResult(status -> offsets.createIfMissing(consumer.getName()));
+                    registered.add(consumer.getName());
+                }
+                while (Boolean.TRUE.equals(transactionTemplate.execute(status -> deliverBatch(consumer)))) {
+                    // a full batch was delivered, there may be more
+                }
+            } catch (RuntimeException e) {
+                counter("outbox.events.failed", consumer).increment();
+                log.warn("Outbox consumer {} failed, redelivering on the next poll", consumer.getName(), e);
+            }
+        }
+    }
+
+    /*
+     * Deletes up to the position of the consumer furthest behind; nothing before the
+     * consumers have registered an offset
+     */
+    @Scheduled(cron = "${outbox.purge-cron:0 15 4 * * *}")
+    public void purgeDelivered() {
+        OutboxOffset upTo = consumers.isEmpty() ? new OutboxOffset(null, Long.MAX_VALUE, Long.MAX_VALUE, null)
+                : offsets.findAllById(consumers.stream().map(OutboxConsumer::getName).toList()).stream()
+                        .min(POSITION)
+                        .orElseGet(OutboxOffset::new);
+        int deleted = events.deleteDelivered(upTo.getLastTransactionId(), upTo.getLastEventId(),
+                LocalDateTime.now().minus(retention));
+        log.info("Purged {} delivered outbox events", deleted);
+    }
+
+    private boolean deliverBatch(OutboxConsumer consumer) {
+        Optional<OutboxOffset> locked = offsets.findAndLock(consumer.getName());
+        if (locked.isEmpty()) {
+            return false;
+        }
+        OutboxOffset offset = locked.get();
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> batch = events.findBatch(offset.getLastTransactionId(), offset.getLastEventId(), batchSize);
+        AtomicLong lag = lagMillis.get(consumer.getName());
+        if (batch.isEmpty()) {
+            lag.set(0);
+            return false;
+        }
+        lag.set(Duration.between(batch.get(0).getCreatedAt(), now).toMillis());
+
+        consumer.handle(batch);
+        OutboxEvent last = batch.get(batch.size() - 1);
+        offset.setLastTransactionId(last.getTransactionId());
+        offset.setLastEventId(last.getId());
+        offset.setUpdatedAt(now);
+        counter("outbox.events.delivered", consumer).increment(batch.size());
+        return batch.size() == batchSize;
+    }
+
+    private Counter counter(String name, OutboxConsumer consumer) {
+        return Counter.builder(name)
+                .tag("consumer", consumer.getName())
+                .register(meterRegistry);
+    }
+}
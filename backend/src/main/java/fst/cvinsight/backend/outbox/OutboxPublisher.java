@@ -0,0 +1,28 @@
+package fst.cvinsight.backend.outbox;
+
+import fst.cvinsight.backend.entity.OutboxEvent;
+import fst.cvinsight.backend.model.ResumeEventType;
+import fst.cvinsight.backend.repo.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Writes resume events to the outbox. Must be called in the transaction that changes
+ * the resume, so the event exists if and only if the change was committed.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxPublisher {
+
+    private final OutboxEventRepository repository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(ResumeEventType type, UUID resumeId, UUID userId, Map<String, Object> payload) {
+        repository.save(new OutboxEvent(null, UUID.randomUUID(), type, resumeId, userId, payload, null, null));
+    }
+}
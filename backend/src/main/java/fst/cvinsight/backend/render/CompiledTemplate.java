@@ -0,0 +1,230 @@
+package fst.cvinsight.backend.render;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * A {@link ResumeTemplate} resolved once into the list of section writers it renders,
+ * with colors parsed and headings cased. Immutable and shared by all render threads;
+ * fonts are the per-thread {@link Fonts}, since PDFBox fonts cache glyph widths
+ * without synchronization.
+ */
+final class CompiledTemplate {
+
+    private static final float NAME_SIZE = 20;
+    private static final float HEADING_SIZE = 12;
+    private static final float BODY_SIZE = 10;
+    private static final float SMALL_SIZE = 9;
+
+    @FunctionalInterface
+    private interface SectionWriter {
+        void write(JsonNode resume, PdfCanvas canvas, Fonts fonts) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface EntryWriter {
+        void write(JsonNode entry, PdfCanvas canvas, PDFont body, PDFont strong) throws IOException;
+    }
+
+    /**
+     * Standard fonts of one render thread.
+     */
+    static final class Fonts {
+        private final Map<Standard14Fonts.FontName, PDFont> fonts = new EnumMap<>(Standard14Fonts.FontName.class);
+
+        PDFont get(Standard14Fonts.FontName name) {
+            return fonts.computeIfAbsent(name, PDType1Font::new);
+        }
+    }
+
+    private final String id;
+    private final String version;
+    private final ResumeTemplate template;
+    private final float[] accent;
+    private final List<SectionWriter> sections = new ArrayList<>();
+
+    /**
+     * @param version identifies the template definition, so cached renders of an edited template are not reused
+     */
+    CompiledTemplate(String id, String version, ResumeTemplate template) {
+        this.id = id;
+        this.version = version;
+        this.template = template;
+        this.accent = PdfCanvas.rgb(template.accent());
+        for (ResumeTemplate.Section section : template.sections()) {
+            sections.add(compile(section));
+        }
+    }
+
+    String getId() {
+        return id;
+    }
+
+    String getVersion() {
+        return version;
+    }
+
+    byte[] render(JsonNode resume, Fonts fonts) throws IOException {
+        JsonNode about = resume.path("about");
+        try (PdfCanvas canvas = new PdfCanvas(text(about, "name"))) {
+            writeHeader(about, canvas, fonts);
+            for (SectionWriter section : sections) {
+                section.write(resume, canvas, fonts);
+            }
+            return canvas.toPdf();
+        }
+    }
+
+    private void writeHeader(JsonNode about, PdfCanvas canvas, Fonts fonts) throws IOException {
+        PDFont body = fonts.get(template.bodyFont());
+        PDFont heading = fonts.get(template.headingFont());
+        ResumeTemplate.Align align = template.nameAlign();
+
+        String name = text(about, "name");
+        canvas.text(name.isEmpty() ? "Your Name" : name, heading, NAME_SIZE, accent, align);
+        String role = text(about, "role");
+        if (!role.isEmpty()) {
+            canvas.text(role, body, HEADING_SIZE, accent, align);
+        }
+        String contact = join(" • ", text(about, "email"), text(about, "phone"), text(about, "address"));
+        if (!contact.isEmpty()) {
+            canvas.text(contact, body, SMALL_SIZE, PdfCanvas.MUTED, align);
+        }
+        String links = join(" • ", text(about, "linkedin"), text(about, "github"), text(about, "portfolio"));
+        if (!links.isEmpty()) {
+            canvas.text(links, body, SMALL_SIZE, PdfCanvas.MUTED, align);
+        }
+        canvas.space(4);
+        canvas.rule(template.headingRule(), PdfCanvas.LINE);
+    }
+
+    private SectionWriter compile(ResumeTemplate.Section section) {
+        String title = template.uppercaseHeadings() ? section.title().toUpperCase(Locale.ROOT) : section.title();
+        return switch (section) {
+            case SUMMARY -> (resume, canvas, fonts) -> {
+                String summary = text(resume.path("about"), "summary");
+                if (!summary.isEmpty()) {
+                    heading(title, canvas, fonts);
+                    canvas.text(summary, fonts.get(template.bodyFont()), BODY_SIZE, PdfCanvas.TEXT);
+                }
+            };
+            case WORK -> entries(title, "work", (work, canvas, body, strong) -> {
+                canvas.text(join(" — ", text(work, "position"), text(work, "company")), strong, BODY_SIZE, PdfCanvas.TEXT);
+                canvas.text(join(" • ", period(text(work, "startDate"), text(work, "endDate")), text(work, "type")),
+                        body, SMALL_SIZE, PdfCanvas.MUTED);
+                paragraph(text(work, "description"), canvas, body);
+            });
+            case EDUCATION -> entries(title, "education", (education, canvas, body, strong) -> {
+                canvas.text(join(" — ", text(education, "degree"), text(education, "school")), strong, BODY_SIZE, PdfCanvas.TEXT);
+                canvas.text(join(" • ", period(text(education, "startYr"), text(education, "endYr")), text(education, "grade")),
+                        body, SMALL_SIZE, PdfCanvas.MUTED);
+            });
+            case PROJECTS -> entries(title, "projects", (project, canvas, body, strong) -> {
+                canvas.text(text(project, "name"), strong, BODY_SIZE, PdfCanvas.TEXT);
+                paragraph(text(project, "description"), canvas, body);
+                String technologies = join(", ", strings(project.path("technologies")).toArray(String[]::new));
+                String links = join(" • ", text(project, "url"), text(project, "github"));
+                if (!technologies.isEmpty() || !links.isEmpty()) {
+                    canvas.text(join(" • ", technologies, links), body, SMALL_SIZE, PdfCanvas.MUTED);
+                }
+            });
+            case SKILLS -> (resume, canvas, fonts) -> {
+                List<String> skills = strings(resume.path("skills"));
+                if (skills.isEmpty()) {
+                    return;
+                }
+                heading(title, canvas, fonts);
+                if (template.skillStyle() == ResumeTemplate.SkillStyle.TAGS) {
+                    canvas.tags(skills, fonts.get(template.bodyFont()), SMALL_SIZE, accent);
+                } else {
+                    canvas.text(String.join(" • ", skills), fonts.get(template.bodyFont()), BODY_SIZE, PdfCanvas.TEXT);
+                }
+            };
+            case LANGUAGES -> entries(title, "languages", (language, canvas, body, strong) ->
+                    canvas.text(join(" — ", text(language, "name"), text(language, "level")), body, BODY_SIZE, PdfCanvas.TEXT));
+            case CERTIFICATIONS -> entries(title, "certifications", (certification, canvas, body, strong) ->
+                    canvas.text(join(" — ", text(certification, "title"), text(certification, "issuer"),
+                            text(certification, "year")), body, BODY_SIZE, PdfCanvas.TEXT));
+            case SOCIAL_ACTIVITIES -> entries(title, "socialActivities", (activity, canvas, body, strong) -> {
+                canvas.text(join(" — ", text(activity, "role"), text(activity, "organization")), strong, BODY_SIZE, PdfCanvas.TEXT);
+                paragraph(text(activity, "description"), canvas, body);
+            });
+        };
+    }
+
+    /*
+     * A heading followed by one block per element of the resume's array field;
+     * nothing at all when the array is missing or empty
+     */
+    private SectionWriter entries(String title, String field, EntryWriter entry) {
+        return (resume, canvas, fonts) -> {
+            JsonNode items = resume.path(field);
+            if (!items.isArray() || items.isEmpty()) {
+                return;
+            }
+            heading(title, canvas, fonts);
+            PDFont body = fonts.get(template.bodyFont());
+            PDFont strong = fonts.get(template.headingFont());
+            for (JsonNode item : items) {
+                entry.write(item, canvas, body, strong);
+                canvas.space(4);
+            }
+        };
+    }
+
+    private void heading(String title, PdfCanvas canvas, Fonts fonts) throws IOException {
+        canvas.space(10);
+        canvas.ensure(HEADING_SIZE * 2 + BODY_SIZE * 4);
+        canvas.text(title, fonts.get(template.headingFont()), HEADING_SIZE, accent);
+        canvas.rule(template.headingRule(), template.headingRule() == ResumeTemplate.Rule.DOTTED ? accent : PdfCanvas.LINE);
+        canvas.space(2);
+    }
+
+    private static void paragraph(String text, PdfCanvas canvas, PDFont body) throws IOException {
+        if (!text.isEmpty()) {
+            canvas.text(text, body, BODY_SIZE, PdfCanvas.TEXT);
+        }
+    }
+
+    private static String period(String start, String end) {
+        if (start.isEmpty() && end.isEmpty()) {
+            return "";
+        }
+        return (start.isEmpty() ? "?" : start) + " – " + (end.isEmpty() ? "Present" : end);
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.path(field);
+        return value.isValueNode() ? value.asText().trim() : "";
+    }
+
+    private static List<String> strings(JsonNode array) {
+        List<String> values = new ArrayList<>();
+        for (JsonNode value : array) {
+            if (value.isValueNode() && !value.asText().isBlank()) {
+                values.add(value.asText().trim());
+            }
+        }
+        return values;
+    }
+
+    private static String join(String separator, String... parts) {
+        StringJoiner joiner = new StringJoiner(separator);
+        for (String part : parts) {
+            if (!part.isEmpty()) {
+                joiner.add(part);
+            }
+        }
+        return joiner.toString();
+    }
+}
@@ -0,0 +1,214 @@
+package fst.cvinsight.backend.render;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Top-to-bottom A4 layout of one document: wrapped text, rules and tag rows, with
+ * page breaks as needed. Not thread-safe; one per render.
+ */
+final class PdfCanvas implements Closeable {
+
+    static final float[] TEXT = rgb("#111827");
+    static final float[] MUTED = rgb("#6b7280");
+    static final float[] LINE = rgb("#d1d5db");
+
+    private static final PDRectangle PAGE = PDRectangle.A4;
+    private static final float MARGIN = 48;
+    private static final float WIDTH = PAGE.getWidth() - 2 * MARGIN;
+    private static final float LEADING = 1.35f;
+
+    private final PDDocument document = new PDDocument();
+    private PDPageContentStream content;
+    private float y;
+
+    PdfCanvas(String title) throws IOException {
+        document.getDocumentInformation().setTitle(title);
+        document.getDocumentInformation().setProducer("CV Insight");
+        newPage();
+    }
+
+    static float[] rgb(String hex) {
+        int value = Integer.parseInt(hex.substring(1), 16);
+        return new float[]{(value >> 16 & 0xff) / 255f, (value >> 8 & 0xff) / 255f, (value & 0xff) / 255f};
+    }
+
+    void text(String text, PDFont font, float size, float[] color, ResumeTemplate.Align align) throws IOException {
+        for (String line : wrap(printable(text, font), font, size, WIDTH)) {
+            ensure(size * LEADING);
+            y -= size * LEADING;
+            float x = MARGIN;
+            if (align == ResumeTemplate.Align.CENTER) {
+                x += (WIDTH - width(line, font, size)) / 2;
+            }
+            content.beginText();
+            content.setFont(font, size);
+            content.setNonStrokingColor(color[0], color[1], color[2]);
+            content.newLineAtOffset(x, y + size * (LEADING - 1));
+            content.showText(line);
+            content.endText();
+        }
+    }
+
+    void text(String text, PDFont font, float size, float[] color) throws IOException {
+        text(text, font, size, color, ResumeTemplate.Align.LEFT);
+    }
+
+    void rule(ResumeTemplate.Rule style, float[] color) throws IOException {
+        if (style == ResumeTemplate.Rule.NONE) {
+            return;
+        }
+        ensure(6);
+        y -= 3;
+        content.setStrokingColor(color[0], color[1], color[2]);
+        content.setLineWidth(style == ResumeTemplate.Rule.DOTTED ? 1 : 0.75f);
+        content.setLineDashPattern(style == ResumeTemplate.Rule.DOTTED ? new float[]{1, 2} : new float[0], 0);
+        content.moveTo(MARGIN, y);
+        content.lineTo(MARGIN + WIDTH, y);
+        content.stroke();
+        y -= 3;
+    }
+
+    /*
+     * Outlined labels flowed left to right, wrapping onto new rows
+     */
+    void tags(List<String> labels, PDFont font, float size, float[] color) throws IOException {
+        float padding = 4;
+        float height = size + 2 * padding;
+        float x = MARGIN;
+        ensure(height + 4);
+        y -= height + 4;
+        content.setLineDashPattern(new float[0], 0);
+        content.setLineWidth(0.75f);
+        for (String label : labels) {
+            String text = printable(label, font);
+            float width = Math.min(width(text, font, size) + 2 * padding, WIDTH);
+            if (x + width > MARGIN + WIDTH) {
+                x = MARGIN;
+                ensure(height + 4);
+                y -= height + 4;
+            }
+            content.setStrokingColor(color[0], color[1], color[2]);
+            content.addRect(x, y, width, height);
+            content.stroke();
+            content.beginText();
+            content.setFont(font, size);
+            content.setNonStrokingColor(color[0], color[1], color[2]);
+            content.newLineAtOffset(x + padding, y + padding + size * 0.2f);
+            content.showText(text);
+            content.endText();
+            x += width + 4;
+        }
+    }
+
+    void space(float points) {
+        y -= points;
+    }
+
+    byte[] toPdf() throws IOException {
+        content.close();
+        content = null;
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32 * 1024);
+        document.save(out);
+        return out.toByteArray();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (content != null) {
+            content.close();
+        }
+        document.close();
+    }
+
+    /*
+     * Starts a new page unless height is left on this one (also keeps a heading with its first lines)
+     */
+    void ensure(float height) throws IOException {
+        if (y - height < MARGIN) {
+            newPage();
+        }
+    }
+
+    private void newPage() throws IOException {
+        if (content != null) {
+            content.close();
+        }
+        PDPage page = new PDPage(PAGE);
+        document.addPage(page);
+        content = new PDPageContentStream(document, page);
+        y = PAGE.getHeight() - MARGIN;
+    }
+
+    private static List<String> wrap(String text, PDFont font, float size, float maxWidth) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (String paragraph : text.split("\n")) {
+            StringBuilder line = new StringBuilder();
+            for (String word : paragraph.trim().split(" +")) {
+                String candidate = line.isEmpty() ? word : line + " " + word;
+                if (width(candidate, font, size) <= maxWidth) {
+                    line.setLength(0);
+                    line.append(candidate);
+                    continue;
+                }
+                if (!line.isEmpty()) {
+                    lines.add(line.toString());
+                    line.setLength(0);
+                }
+                // A word wider than the page (a long URL) is cut wherever it overflows
+                while (width(word, font, size) > maxWidth) {
+                    int cut = word.length() - 1;
+                    while (cut > 1 && width(word.substring(0, cut), font, size) > maxWidth) {
+                        cut--;
+                    }
+                    lines.add(word.substring(0, cut));
+                    word = word.substring(cut);
+                }
+                line.append(word);
+            }
+            if (!line.isEmpty()) {
+                lines.add(line.toString());
+            }
+        }
+        return lines;
+    }
+
+    private static float width(String text, PDFont font, float size) throws IOException {
+        return font.getStringWidth(text) / 1000 * size;
+    }
+
+    /*
+     * Standard fonts only cover WinAnsi; anything else (CJK, Arabic, emoji) becomes '?'
+     * instead of failing the render. Tabs and carriage returns become spaces.
+     */
+    private static String printable(String text, PDFont font) {
+        StringBuilder out = new StringBuilder(text.length());
+        text.codePoints().forEach(codePoint -> {
+            if (codePoint == '\n') {
+                out.append('\n');
+                return;
+            }
+            if (Character.isWhitespace(codePoint) || Character.isISOControl(codePoint)) {
+                out.append(' ');
+                return;
+            }
+            String character = Character.toString(codePoint);
+            try {
+                font.encode(character);
+                out.append(character);
+            } catch (IllegalArgumentException | IOException e) {
+                out.append('?');
+            }
+        });
+        return out.toString();
+    }
+}
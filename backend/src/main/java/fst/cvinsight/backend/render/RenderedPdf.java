@@ -0,0 +1,7 @@
+package fst.cvinsight.backend.render;
+
+/**
+ * @param key SHA-256 of the template id, template version and resume JSON the PDF was rendered from
+ */
+public record RenderedPdf(String key, byte[] content) {
+}
@@ -0,0 +1,188 @@
+package fst.cvinsight.backend.render;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.cfg.JsonNodeFeature;
+import fst.cvinsight.backend.entity.RenderedResume;
+import fst.cvinsight.backend.metrics.PipelineObservations;
+import fst.cvinsight.backend.metrics.PipelineStage;
+import fst.cvinsight.backend.repo.RenderedResumeRepository;
+import fst.cvinsight.backend.util.ContentHashes;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Renders resume JSON to PDF with one of the {@code resume-templates/*.json} templates.
+ * <ul>
+ *   <li>Templates are read and compiled once, at startup.</li>
+ *   <li>Rendering runs on the bounded {@code resumeRenderingExecutor}; each of its
+ *   threads keeps its own fonts, so the pool is the renderer pool.</li>
+ *   <li>Output is content addressed: the SHA-256 of template id, template version and
+ *   the canonical JSON (compact, properties sorted by name) keys a {@link RenderedResume}
+ *   row, so rendering unchanged JSON again is a lookup. Concurrent requests for the same
+ *   key share one render. Rows are purged {@code resume.rendering.cache-ttl} after creation.</li>
+ * </ul>
+ */
+@Component
+public class ResumeRenderer {
+
+    private static final String TEMPLATES = "classpath*:resume-templates/*.json";
+
+    private final Map<String, CompiledTemplate> templates = new TreeMap<>();
+    private final ThreadLocal<CompiledTemplate.Fonts> fonts = ThreadLocal.withInitial(CompiledTemplate.Fonts::new);
+    private final Map<String, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+    private final ThreadPoolTaskExecutor renderingExecutor;
+    private final RenderedResumeRepository repository;
+    private final PipelineObservations observations;
+    private final Duration cacheTtl;
+    private final ObjectWriter canonicalJson;
+    private final Counter hits;
+    private final Counter misses;
+
+    public ResumeRenderer(@Qualifier("resumeRenderingExecutor") ThreadPoolTaskExecutor renderingExecutor,
+                          RenderedResumeRepository repository,
+                          PipelineObservations observations,
+                          ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          @Value("${resume.rendering.cache-ttl:30d}") Duration cacheTtl) throws IOException {
+        this.renderingExecutor = renderingExecutor;
+        this.repository = repository;
+        this.observations = observations;
+        this.cacheTtl = cacheTtl;
+        this.canonicalJson = objectMapper.writer().with(JsonNodeFeature.WRITE_PROPERTIES_SORTED);
+        this.hits = cacheCounter(meterRegistry, "hit");
+        this.misses = cacheCounter(meterRegistry, "miss");
+
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources(TEMPLATES)) {
+            String id = resource.getFilename().substring(0, resource.getFilename().length() - ".json".length());
+            byte[] definition = resource.getContentAsByteArray();
+            templates.put(id, new CompiledTemplate(id, ContentHashes.sha256(definition),
+                    objectMapper.readValue(definition, ResumeTemplate.class)));
+        }
+    }
+
+    public Set<String> getTemplateIds() {
+        return templates.keySet();
+    }
+
+    /**
+     * @throws IllegalArgumentException for an unknown template id
+     * @throws IOException when the rendering pool is saturated
+     */
+    public RenderedPdf render(String templateId, JsonNode resume) throws IOException {
+        CompiledTemplate template = templates.get(templateId);
+        if (template == null) {
+            throw new IllegalArgumentException("Unknown resume template: " + templateId);
+        }
+        String key = ContentHashes.sha256(template.getId() + '\n' + template.getVersion() + '\n' + canonical(resume));
+
+        Optional<byte[]> cached = observations.observe(PipelineStage.DB_READ, () -> repository.findPdfByRenderKey(key));
+        if (cached.isPresent()) {
+            hits.increment();
+            return new RenderedPdf(key, cached.get());
+        }
+
+        CompletableFuture<byte[]> render = new CompletableFuture<>();
+        CompletableFuture<byte[]> running = inFlight.putIfAbsent(key, render);
+        if (running != null) {
+            return new RenderedPdf(key, await(running));
+        }
+        try {
+            misses.increment();
+            byte[] pdf = renderOnPool(template, resume);
+            store(key, templateId, pdf);
+            render.complete(pdf);
+            return new RenderedPdf(key, pdf);
+        } catch (IOException | RuntimeException e) {
+            render.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key);
+        }
+    }
+
+    @Scheduled(cron = "${resume.rendering.cache-purge-cron:0 30 3 * * *}")
+    public void purgeExpired() {
+        repository.deleteCreatedBefore(LocalDateTime.now().minus(cacheTtl));
+    }
+
+    /*
+     * The same resume keys the same render whatever order its properties come in
+     */
+    private String canonical(JsonNode resume) {
+        try {
+            return canonicalJson.writeValueAsString(resume);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private byte[] renderOnPool(CompiledTemplate template, JsonNode resume) throws IOException {
+        Future<byte[]> result;
+        try {
+            result = renderingExecutor.submit(() -> observations.observe(PipelineStage.PDF_RENDER,
+                    () -> template.render(resume, fonts.get())));
+        } catch (TaskRejectedException e) {
+            throw new IOException("Resume rendering is overloaded, please retry later", e);
+        }
+        return await(result);
+    }
+
+    /*
+     * Another replica may have stored the same render in the meantime; either copy will do
+     */
+    private void store(String key, String templateId, byte[] pdf) {
+        try {
+            observations.run(PipelineStage.DB_WRITE,
+                    () -> repository.save(new RenderedResume(key, templateId, pdf, LocalDateTime.now())));
+        } catch (DataIntegrityViolationException ignored) {
+        }
+    }
+
+    private static byte[] await(Future<byte[]> result) throws IOException {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Resume rendering was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static Counter cacheCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("resume.render.cache")
+                .description("Resume renders served from the content-addressed cache or rendered")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
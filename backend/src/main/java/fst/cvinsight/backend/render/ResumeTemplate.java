@@ -0,0 +1,60 @@
+package fst.cvinsight.backend.render;
+
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+
+import java.util.List;
+
+/**
+ * A resume template as declared in {@code resume-templates/<id>.json}. The ids and
+ * looks follow the CV builder templates of the frontend ({@code resume.templates.ts});
+ * only the PDF standard fonts are used, so nothing has to be embedded.
+ */
+public record ResumeTemplate(
+        String name,
+        Standard14Fonts.FontName bodyFont,
+        Standard14Fonts.FontName headingFont,
+        // #rrggbb of the name and section headings
+        String accent,
+        Align nameAlign,
+        boolean uppercaseHeadings,
+        Rule headingRule,
+        SkillStyle skillStyle,
+        List<Section> sections) {
+
+    public enum Align {
+        LEFT,
+        CENTER
+    }
+
+    public enum Rule {
+        NONE,
+        SOLID,
+        DOTTED
+    }
+
+    public enum SkillStyle {
+        LIST,
+        TAGS
+    }
+
+    public enum Section {
+        SUMMARY("Summary"),
+        WORK("Work Experience"),
+        EDUCATION("Education"),
+        PROJECTS("Projects"),
+        SKILLS("Skills"),
+        LANGUAGES("Languages"),
+        CERTIFICATIONS("Certifications"),
+        SOCIAL_ACTIVITIES("Social Activities");
+
+        private final String title;
+
+        Section(String title) {
+            this.title = title;
+        }
+
+        public String title() {
+            return title;
+        }
+    }
+}
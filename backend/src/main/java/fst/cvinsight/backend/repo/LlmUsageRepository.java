@@ -0,0 +1,59 @@
+package fst.cvinsight.backend.repo;
+
+import fst.cvinsight.backend.dto.LlmUsageDto;
+import fst.cvinsight.backend.entity.LlmUsage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface LlmUsageRepository extends JpaRepository<LlmUsage, UUID> {
+
+    @Query("""
+            select new fst.cvinsight.backend.dto.LlmUsageDto(u.userId, i.email, u.requestCount, u.promptTokens,
+                u.completionTokens, u.requestAllowance, u.tokenAllowance, u.refilledAt, u.lastRequestAt)
+            from LlmUsage u join UserInfo i on i.id = u.userId
+            order by u.completionTokens desc
+            """)
+    List<LlmUsageDto> findTopConsumers(Pageable pageable);
+
+    /**
+     * Adds one instance's usage since its last flush to the stored row: the buckets are
+     * refilled up to {@code now} and then charged, the totals are incremented. Other
+     * instances' usage already in the row is kept.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            insert into llm_usage (user_id, request_allowance, token_allowance, refilled_at,
+                                   request_count, prompt_tokens, completion_tokens, last_request_at)
+            values (:userId, :requestsPerWindow - :requests, :tokensPerWindow - :completionTokens, :now,
+                    :requests, :promptTokens, :completionTokens, :lastRequestAt)
+            on conflict (user_id) do update set
+                request_allowance = least(:requestsPerWindow, llm_usage.request_allowance
+                        + greatest(0, extract(epoch from cast(:now as timestamptz) - llm_usage.refilled_at))
+                        / :windowSeconds * :requestsPerWindow) - :requests,
+                token_allowance = least(:tokensPerWindow, llm_usage.token_allowance
+                        + greatest(0, extract(epoch from cast(:now as timestamptz) - llm_usage.refilled_at))
+                        / :windowSeconds * :tokensPerWindow) - :completionTokens,
+                refilled_at = greatest(llm_usage.refilled_at, cast(:now as timestamptz)),
+                request_count = llm_usage.request_count + :requests,
+                prompt_tokens = llm_usage.prompt_tokens + :promptTokens,
+                completion_tokens = llm_usage.completion_tokens + :completionTokens,
+                last_request_at = greatest(llm_usage.last_request_at, cast(:lastRequestAt as timestamp))
+            """, nativeQuery = true)
+    void addUsage(@Param("userId") UUID userId, @Param("requests") long requests,
+                  @Param("promptTokens") long promptTokens, @Param("completionTokens") long completionTokens,
+                  @Param("lastRequestAt") LocalDateTime lastRequestAt, @Param("now") Instant now,
+                  @Param("windowSeconds") double windowSeconds, @Param("requestsPerWindow") double requestsPerWindow,
+                  @Param("tokensPerWindow") double tokensPerWindow);
+}
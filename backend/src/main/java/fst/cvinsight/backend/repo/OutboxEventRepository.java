@@ -0,0 +1,43 @@
+package fst.cvinsight.backend.repo;
+
+import fst.cvinsight.backend.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Events after the given position, written by transactions older than the oldest
+     * one still running: every transaction below that bound has ended, so no event
+     * can still appear before the last one returned.
+     */
+    @Query(value = """
+            select * from outbox_event e
+            where (e.transaction_id, e.id) > (:afterTransaction, :afterId)
+              and e.transaction_id < pg_snapshot_xmin(pg_current_snapshot())::text::bigint
+            order by e.transaction_id, e.id
+            limit :limit
+            """, nativeQuery = true)
+    List<OutboxEvent> findBatch(@Param("afterTransaction") long afterTransactionId,
+                                @Param("afterId") long afterEventId,
+                                @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            delete from OutboxEvent e
+            where (e.transactionId < :upToTransaction or (e.transactionId = :upToTransaction and e.id <= :upToId))
+              and e.createdAt < :before
+            """)
+    int deleteDelivered(@Param("upToTransaction") long upToTransactionId,
+                        @Param("upToId") long upToEventId,
+                        @Param("before") LocalDateTime before);
+}
@@ -0,0 +1,35 @@
+package fst.cvinsight.backend.repo;
+
+import fst.cvinsight.backend.entity.OutboxOffset;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface OutboxOffsetRepository extends JpaRepository<OutboxOffset, String> {
+
+    @Modifying
+    @Query(value = """
+            insert into outbox_offset (consumer, last_transaction_id, last_event_id, updated_at)
+            values (:consumer, 0, 0, now())
+            on conflict do nothing
+            """, nativeQuery = true)
+    void createIfMissing(@Param("consumer") String consumer);
+
+    /**
+     * The consumer's offset, locked for the rest of the transaction; empty while
+     * another replica holds it (SKIP LOCKED).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select o from OutboxOffset o where o.consumer = :consumer")
+    Optional<OutboxOffset> findAndLock(@Param("consumer") String consumer);
+}
@@ -0,0 +1,24 @@
+package fst.cvinsight.backend.repo;
+
+import fst.cvinsight.backend.entity.RenderedResume;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface RenderedResumeRepository extends JpaRepository<RenderedResume, String> {
+
+    @Query("select r.pdf from RenderedResume r where r.renderKey = :renderKey")
+    Optional<byte[]> findPdfByRenderKey(@Param("renderKey") String renderKey);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RenderedResume r where r.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
@@ -1,14 +1,162 @@
 package fst.cvinsight.backend.repo;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import fst.cvinsight.backend.dto.ResumeDto;
+import fst.cvinsight.backend.dto.ResumeSnapshot;
 import fst.cvinsight.backend.entity.Resume;
 import fst.cvinsight.backend.entity.UserInfo;
+import fst.cvinsight.backend.model.ResumeOrigin;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Resumes may live in a table hash-partitioned by user_id (db/partition-resume.sql),
+ * so every query on single resumes also filters on the owner: Postgres then only
+ * looks into that owner's partition.
+ */
 public interface ResumeRepository extends JpaRepository<Resume, UUID> {
     List<Resume> findAllByUploadedBy(UserInfo uploadedBy);
+
+    <T> List<T> findAllByUploadedById(UUID uploadedById, Class<T> type);
+
+    Optional<Resume> findByIdAndUploadedById(UUID id, UUID uploadedById);
+
+    @Query("select new fst.cvinsight.backend.dto.ResumeSnapshot(r.id, r.uploadedBy.id, r.version, r.score, r.jsonContent) " +
+            "from Resume r where r.id = :id and r.uploadedBy.id = :ownerId")
+    Optional<ResumeSnapshot> findSnapshotByIdAndOwner(@Param("id") UUID id, @Param("ownerId") UUID ownerId);
+
+    @Query("select new fst.cvinsight.backend.dto.ResumeSnapshot(r.id, r.uploadedBy.id, r.version, r.score, r.jsonContent) " +
+            "from Resume r where r.id in :ids and r.uploadedBy.id = :ownerId")
+    List<ResumeSnapshot> findSnapshotsByIdInAndOwner(@Param("ids") Collection<UUID> ids, @Param("ownerId") UUID ownerId);
+
+    /**
+     * Reads the DTO directly, with {@code jsonContent} as jsonb text instead of a parsed
+     * tree and without the file bytes.
+     */
+    @Query("select new fst.cvinsight.backend.dto.ResumeDto(r.id, r.filename, r.contentType, r.size, r.uploadedBy.id, " +
+            "r.uploadedAt, cast(r.jsonContent as String), r.origin, r.score) from Resume r " +
+            "where r.id = :id and r.uploadedBy.id = :ownerId")
+    Optional<ResumeDto> findDtoByIdAndOwner(@Param("id") UUID id, @Param("ownerId") UUID ownerId);
+
+    @Query("select new fst.cvinsight.backend.dto.ResumeDto(r.id, r.filename, r.contentType, r.size, r.uploadedBy.id, " +
+            "r.uploadedAt, cast(r.jsonContent as String), r.origin, r.score) from Resume r where r.uploadedBy.id = :ownerId")
+    List<ResumeDto> findDtosByOwner(@Param("ownerId") UUID ownerId);
+
+    @Query("select r.id as id, r.uploadedBy.id as ownerId, r.contentHash as contentHash, r.version as version " +
+            "from Resume r where r.id = :id and r.uploadedBy.id = :ownerId")
+    Optional<ValidatorView> findValidatorByIdAndOwner(@Param("id") UUID id, @Param("ownerId") UUID ownerId);
+
+    @Query("select r.id as id, r.uploadedBy.id as ownerId, r.contentHash as contentHash, r.version as version " +
+            "from Resume r where r.uploadedBy.id = :ownerId order by r.id")
+    List<ValidatorView> findValidatorsByOwner(@Param("ownerId") UUID ownerId);
+
+    /**
+     * Locks the resume until the end of the transaction and returns its version; empty
+     * when the owner has no such resume. User writes take this lock before the owner's
+     * statistics row, so they never wait on a retention batch that holds the statistics
+     * row and skips the resume.
+     */
+    @Query(value = "select version from resume where id = :id and user_id = :ownerId for update", nativeQuery = true)
+    Optional<Long> lockVersionByIdAndOwner(@Param("id") UUID id, @Param("ownerId") UUID ownerId);
+
+    /**
+     * Optimistic score write-back: only applies if nobody changed the row since {@code version} was read.
+     */
+    @Modifying
+    @Query("update Resume r set r.score = :score, r.version = r.version + 1 " +
+            "where r.id = :id and r.uploadedBy.id = :ownerId and r.version = :version")
+    int updateScore(@Param("id") UUID id, @Param("ownerId") UUID ownerId, @Param("version") long version,
+                    @Param("score") double score);
+
+    @Query("select r.id as id, r.uploadedBy.id as ownerId, r.version as version, r.uploadedAt as uploadedAt, " +
+            "r.origin as origin, r.score as score, r.jsonContent as jsonContent " +
+            "from Resume r where r.id = :id and r.uploadedBy.id = :ownerId")
+    Optional<DeletionView> findDeletionViewByIdAndOwner(@Param("id") UUID id, @Param("ownerId") UUID ownerId);
+
+    @Query("select r.id as id, r.uploadedBy.id as ownerId, r.version as version, r.uploadedAt as uploadedAt, " +
+            "r.origin as origin, r.score as score, r.jsonContent as jsonContent " +
+            "from Resume r where r.uploadedBy.id in :ownerIds and r.id in :ids")
+    List<DeletionView> findDeletionViewsByOwnersAndIdIn(@Param("ownerIds") Collection<UUID> ownerIds,
+                                                        @Param("ids") Collection<UUID> ids);
+
+    /**
+     * Latest upload of the owner other than {@code excludedIds}; null when there is none.
+     */
+    @Query("select max(r.uploadedAt) from Resume r where r.uploadedBy.id = :ownerId and r.id not in :excludedIds")
+    LocalDateTime findLastUploadAtExcluding(@Param("ownerId") UUID ownerId,
+                                            @Param("excludedIds") Collection<UUID> excludedIds);
+
+    /**
+     * Deletes the resume only if nobody changed it since {@code version} was read.
+     */
+    @Modifying
+    @Query("delete from Resume r where r.id = :id and r.uploadedBy.id = :ownerId and r.version = :version")
+    int deleteByIdAndOwner(@Param("id") UUID id, @Param("ownerId") UUID ownerId, @Param("version") long version);
+
+    @Modifying
+    @Query("delete from Resume r where r.uploadedBy.id in :ownerIds and r.id in :ids")
+    int deleteByOwnersAndIdIn(@Param("ownerIds") Collection<UUID> ownerIds, @Param("ids") Collection<UUID> ids);
+
+    /**
+     * Oldest resumes matching a retention policy, locked until the end of the transaction.
+     * Rows locked by another purge, or by a delete or score write in progress, are skipped.
+     */
+    @Query(value = """
+            select id, user_id as "ownerId" from resume
+            where uploaded_at < :before
+              and (cast(:origin as varchar) is null or origin = cast(:origin as varchar))
+              and (:unscoredOnly = false or score is null)
+            order by uploaded_at
+            limit :limit
+            for update skip locked
+            """, nativeQuery = true)
+    List<ExpiredView> lockExpired(@Param("before") LocalDateTime before, @Param("origin") String origin,
+                                  @Param("unscoredOnly") boolean unscoredOnly, @Param("limit") int limit);
+
+    /**
+     * Columns needed to rebuild dashboard statistics, without the file bytes.
+     */
+    interface StatsView {
+        LocalDateTime getUploadedAt();
+        ResumeOrigin getOrigin();
+        Double getScore();
+        JsonNode getJsonContent();
+    }
+
+    /**
+     * Columns needed to delete a resume and take it out of the statistics, without the file bytes.
+     */
+    interface DeletionView extends StatsView {
+        UUID getId();
+        UUID getOwnerId();
+        long getVersion();
+    }
+
+    /**
+     * Resume locked by a retention policy, with its owner so the rest of the batch only
+     * reads that owner's partition.
+     */
+    interface ExpiredView {
+        UUID getId();
+        UUID getOwnerId();
+    }
+
+    /**
+     * Columns the ETags of a resume are derived from, so conditional requests are
+     * answered without reading the file bytes or the extracted JSON.
+     */
+    interface ValidatorView {
+        UUID getId();
+        UUID getOwnerId();
+        String getContentHash();
+        long getVersion();
+    }
 }
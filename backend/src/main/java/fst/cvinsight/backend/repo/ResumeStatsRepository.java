@@ -0,0 +1,34 @@
+package fst.cvinsight.backend.repo;
+
+import fst.cvinsight.backend.entity.ResumeStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ResumeStatsRepository extends JpaRepository<ResumeStats, UUID> {
+
+    /**
+     * Inserts an empty row unless the user has one; returns 1 when it was inserted.
+     * A concurrent insert of the same row is waited for.
+     */
+    @Modifying
+    @Query(value = """
+            insert into resume_stats (user_id, resume_count, scored_count, score_sum,
+                                      score_distribution, uploads_per_month, origin_counts, skill_counts)
+            values (:userId, 0, 0, 0, '{}', '{}', '{}', '{}')
+            on conflict (user_id) do nothing
+            """, nativeQuery = true)
+    int createIfMissing(@Param("userId") UUID userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from ResumeStats s where s.userId = :userId")
+    Optional<ResumeStats> findForUpdate(@Param("userId") UUID userId);
+}
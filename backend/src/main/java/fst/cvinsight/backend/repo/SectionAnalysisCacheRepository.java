@@ -0,0 +1,20 @@
+package fst.cvinsight.backend.repo;
+
+import fst.cvinsight.backend.entity.SectionAnalysisCache;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SectionAnalysisCacheRepository extends JpaRepository<SectionAnalysisCache, String> {
+
+    @Transactional
+    @Modifying
+    @Query("delete from SectionAnalysisCache a where a.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
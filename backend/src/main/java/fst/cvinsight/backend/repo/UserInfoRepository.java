@@ -2,12 +2,25 @@ package fst.cvinsight.backend.repo;
 
 import fst.cvinsight.backend.entity.UserInfo;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface UserInfoRepository extends JpaRepository<UserInfo, UUID> {
+    /**
+     * Read-only when called outside a transaction, so the lookup behind every
+     * authenticated request can be served by the replica.
+     */
+    @Transactional(readOnly = true)
     Optional<UserInfo> findByEmail(String email);
+
+    @Modifying
+    @Query("update UserInfo u set u.password = :password where u.id = :id")
+    int updatePassword(@Param("id") UUID id, @Param("password") String password);
 }
@@ -0,0 +1,37 @@
+package fst.cvinsight.backend.retention;
+
+import fst.cvinsight.backend.model.ResumeOrigin;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Retention policies of resumes ({@code resume.retention.*} in application.yml) and
+ * how fast {@link ResumeRetentionService} may purge them.
+ */
+@Data
+@ConfigurationProperties(prefix = "resume.retention")
+public class ResumeRetentionProperties {
+
+    private boolean enabled;
+    // Rows deleted per transaction
+    private int batchSize = 200;
+    // Pause between batches, leaving the database to the request path
+    private Duration batchPause = Duration.ofMillis(200);
+    // Per policy and run; whatever is left is purged by the next run
+    private int maxBatchesPerRun = 500;
+    private List<Policy> policies = new ArrayList<>();
+
+    @Data
+    public static class Policy {
+        private String name;
+        // Resumes of any origin when not set
+        private ResumeOrigin origin;
+        // Only resumes that were never analyzed
+        private boolean unscoredOnly;
+        private Duration maxAge;
+    }
+}
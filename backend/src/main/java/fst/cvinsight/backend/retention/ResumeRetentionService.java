@@ -0,0 +1,128 @@
+package fst.cvinsight.backend.retention;
+
+import fst.cvinsight.backend.model.ResumeEventType;
+import fst.cvinsight.backend.outbox.OutboxPublisher;
+import fst.cvinsight.backend.repo.ResumeRepository;
+import fst.cvinsight.backend.service.ResumeStatsService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Deletes resumes once a retention policy says they have expired, e.g. uploads that
+ * were never analyzed. Deletes are batched, one short transaction per batch with a
+ * pause in between, so a large backlog never holds long locks or saturates the
+ * database. Each batch takes its resumes out of the statistics and publishes their
+ * DELETED events like a user delete does.
+ * <p>
+ * Locks are taken resume rows first, skipping rows a user write holds, then the
+ * owners' statistics rows; user writes lock their resume row before the statistics
+ * row too (see ResumeRepository#lockVersionByIdAndOwner).
+ * <p>
+ * The table is hash-partitioned by owner, not by time, so expired rows are spread over
+ * every partition and are deleted row by row rather than by dropping partitions.
+ */
+@Service
+public class ResumeRetentionService {
+
+    private final Logger log = LoggerFactory.getLogger(ResumeRetentionService.class);
+
+    private final ResumeRetentionProperties properties;
+    private final ResumeRepository resumeRepository;
+    private final ResumeStatsService resumeStatsService;
+    private final OutboxPublisher outboxPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    public ResumeRetentionService(ResumeRetentionProperties properties,
+                                  ResumeRepository resumeRepository,
+                                  ResumeStatsService resumeStatsService,
+                                  OutboxPublisher outboxPublisher,
+                                  TransactionTemplate transactionTemplate,
+                                  MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.resumeRepository = resumeRepository;
+        this.resumeStatsService = resumeStatsService;
+        this.outboxPublisher = outboxPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Scheduled(cron = "${resume.retention.cron:0 0 4 * * *}")
+    public void purgeExpired() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        for (ResumeRetentionProperties.Policy policy : properties.getPolicies()) {
+            try {
+                int purged = purge(policy);
+                log.info("Retention policy {} purged {} resumes", policy.getName(), purged);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Retention policy {} failed, retrying on the next run", policy.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Deletes at most {@code maxBatchesPerRun} batches of the policy's expired resumes.
+     */
+    public int purge(ResumeRetentionProperties.Policy policy) throws InterruptedException {
+        Counter purged = Counter.builder("resume.retention.purged")
+                .description("Resumes deleted by a retention policy")
+                .tag("policy", policy.getName())
+                .register(meterRegistry);
+        int total = 0;
+        for (int batch = 0; batch < properties.getMaxBatchesPerRun(); batch++) {
+            LocalDateTime before = LocalDateTime.now().minus(policy.getMaxAge());
+            Integer deleted = transactionTemplate.execute(status -> deleteBatch(policy, before));
+            total += deleted;
+            purged.increment(deleted);
+            if (deleted < properties.getBatchSize()) {
+                break;
+            }
+            Thread.sleep(properties.getBatchPause());
+        }
+        return total;
+    }
+
+    private int deleteBatch(ResumeRetentionProperties.Policy policy, LocalDateTime before) {
+        String origin = policy.getOrigin() != null ? policy.getOrigin().name() : null;
+        List<ResumeRepository.ExpiredView> expired =
+                resumeRepository.lockExpired(before, origin, policy.isUnscoredOnly(), properties.getBatchSize());
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        List<UUID> ids = expired.stream().map(ResumeRepository.ExpiredView::getId).toList();
+        Set<UUID> owners = expired.stream().map(ResumeRepository.ExpiredView::getOwnerId).collect(Collectors.toSet());
+        List<ResumeRepository.DeletionView> resumes = resumeRepository.findDeletionViewsByOwnersAndIdIn(owners, ids);
+        // Statistics rows are locked in owner order, so concurrent batches queue instead of deadlocking
+        Map<UUID, List<ResumeRepository.DeletionView>> byOwner = resumes.stream()
+                .collect(Collectors.groupingBy(ResumeRepository.DeletionView::getOwnerId, TreeMap::new, Collectors.toList()));
+        byOwner.forEach(resumeStatsService::onResumesDeleted);
+
+        int deleted = resumeRepository.deleteByOwnersAndIdIn(owners, ids);
+        for (ResumeRepository.DeletionView resume : resumes) {
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("score", resume.getScore());
+            payload.put("retentionPolicy", policy.getName());
+            outboxPublisher.publish(ResumeEventType.DELETED, resume.getId(), resume.getOwnerId(), payload);
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,124 @@
+package fst.cvinsight.backend.service;
+
+import fst.cvinsight.backend.exception.PasswordHashingRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt hashing and verification on a dedicated bounded pool
+ * ({@code passwordHashingExecutor}) instead of request threads, so a burst of
+ * logins cannot take every core from the rest of the API. When the pool and its
+ * queue are full the caller gets a {@link PasswordHashingRejectedException}
+ * rather than waiting.
+ * <p>
+ * The work factor is {@code strength}, normally calibrated with {@link #calibrate}.
+ * Stored hashes of a lower cost are reported by {@link #upgradeEncoding}, so
+ * {@code DaoAuthenticationProvider} re-hashes them on the next successful login.
+ */
+public class BoundedBCryptPasswordEncoder implements PasswordEncoder {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$");
+    private static final String METRIC = "security.password.hashing";
+
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+    private final ThreadPoolTaskExecutor executor;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    public BoundedBCryptPasswordEncoder(int strength, ThreadPoolTaskExecutor executor, MeterRegistry meterRegistry) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+        this.executor = executor;
+        this.encodeTimer = Timer.builder(METRIC).tag("operation", "encode")
+                .tag("strength", String.valueOf(strength)).register(meterRegistry);
+        this.matchesTimer = Timer.builder(METRIC).tag("operation", "matches")
+                .tag("strength", String.valueOf(strength)).register(meterRegistry);
+        this.rejected = Counter.builder(METRIC + ".rejected").register(meterRegistry);
+    }
+
+    /**
+     * Highest work factor in {@code [minStrength, maxStrength]} whose hash takes at
+     * most {@code target} on this machine. Each cost step doubles the time, so one
+     * hash at the minimum is timed and extrapolated.
+     */
+    public static int calibrate(Duration target, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        // The first hash also pays for class loading and interpretation
+        probe.encode("calibration");
+        long start = System.nanoTime();
+        probe.encode("calibration");
+        long elapsed = Math.max(1, System.nanoTime() - start);
+
+        int calibrated = minStrength;
+        while (calibrated < maxStrength && elapsed * 2 <= target.toNanos()) {
+            elapsed *= 2;
+            calibrated++;
+        }
+        return calibrated;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return hash(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return hash(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /*
+     * Only lower costs are raised to the target. Instances on different hardware
+     * calibrate different costs, so lowering higher ones would let hashes flip back
+     * and forth and weaken them. Re-hashing is one more hash on the login that
+     * triggers it, so it is skipped while logins are already queueing for the pool.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || executor.getQueueSize() > 0) {
+            return false;
+        }
+        Matcher cost = BCRYPT_COST.matcher(encodedPassword);
+        return cost.find() && Integer.parseInt(cost.group(1)) < strength;
+    }
+
+    private <T> T hash(Timer timer, Supplier<T> operation) {
+        Future<T> result;
+        try {
+            result = executor.submit(() -> timer.record(operation));
+        } catch (TaskRejectedException e) {
+            rejected.increment();
+            throw new PasswordHashingRejectedException(e);
+        }
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing a password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package fst.cvinsight.backend.service;
+
+import fst.cvinsight.backend.datasource.ReplicaRouting;
+import fst.cvinsight.backend.dto.LlmUsageDto;
+import fst.cvinsight.backend.entity.LlmUsage;
+import fst.cvinsight.backend.exception.LlmQuotaExceededException;
+import fst.cvinsight.backend.repo.LlmUsageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-user quotas on model usage, as two token buckets refilled continuously over
+ * {@code llm.quota.window}: one for LLM-backed requests, one for generated
+ * (completion) tokens. A request is admitted while both have something left; its
+ * tokens are charged once the model answers, so the last request of a window may
+ * overdraw the token bucket and the next ones wait until it is paid back.
+ * <p>
+ * Buckets live in memory, each guarded by one of {@value #STRIPES} striped locks
+ * ({@link ReentrantLock}, so virtual threads are not pinned while they wait). The usage
+ * since the last flush is added to {@link LlmUsage} every {@code llm.quota.flush-interval}
+ * and on shutdown, so instances sharing the table never overwrite each other's usage.
+ * A user's bucket is read back from the table on first use, so quotas survive
+ * restarts; an instance only sees the others' usage from then on.
+ */
+@Service
+public class LlmQuotaService {
+
+    private static final int STRIPES = 64;
+
+    private final Logger log = LoggerFactory.getLogger(LlmQuotaService.class);
+
+    private final LlmUsageRepository repository;
+    private final Duration window;
+    private final int requestsPerWindow;
+    private final long tokensPerWindow;
+    private final Lock[] stripes = new Lock[STRIPES];
+    private final Map<UUID, LlmUsage> buckets = new ConcurrentHashMap<>();
+    private final Map<UUID, Unflushed> unflushed = new ConcurrentHashMap<>();
+    private final Lock flushLock = new ReentrantLock();
+    private final Counter rejected;
+
+    /*
+     * Usage of one user since the last flush; only touched under the user's stripe
+     */
+    private static final class Unflushed {
+        long requests;
+        long promptTokens;
+        long completionTokens;
+        LocalDateTime lastRequestAt;
+
+        void add(Unflushed other) {
+            requests += other.requests;
+            promptTokens += other.promptTokens;
+            completionTokens += other.completionTokens;
+            if (lastRequestAt == null || (other.lastRequestAt != null && other.lastRequestAt.isAfter(lastRequestAt))) {
+                lastRequestAt = other.lastRequestAt;
+            }
+        }
+    }
+
+    public LlmQuotaService(LlmUsageRepository repository, MeterRegistry meterRegistry,
+                           @Value("${llm.quota.window:1h}") Duration window,
+                           @Value("${llm.quota.requests-per-window:60}") int requestsPerWindow,
+                           @Value("${llm.quota.tokens-per-window:100000}") long tokensPerWindow) {
+        this.repository = repository;
+        this.window = window;
+        this.requestsPerWindow = requestsPerWindow;
+        this.tokensPerWindow = tokensPerWindow;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.rejected = Counter.builder("llm.quota.rejected")
+                .description("LLM-backed requests refused because the user's quota was exhausted")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes one request from the current user's bucket before any model work starts.
+     *
+     * @throws LlmQuotaExceededException with the time until the request would be admitted
+     */
+    public void acquire() {
+        UserInfoService.currentUserId().ifPresent(this::acquire);
+    }
+
+    public void acquire(UUID userId) {
+        Lock lock = stripe(userId);
+        LlmUsage usage = lockBucket(userId, lock);
+        try {
+            refill(usage, Instant.now());
+            if (usage.getRequestAllowance() < 1 || usage.getTokenAllowance() <= 0) {
+                rejected.increment();
+                throw new LlmQuotaExceededException(retryAfter(usage));
+            }
+            usage.setRequestAllowance(usage.getRequestAllowance() - 1);
+            Unflushed pending = unflushed(userId);
+            pending.requests++;
+            pending.lastRequestAt = LocalDateTime.now();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Charges the tokens of one model call; only generated tokens count against the quota.
+     */
+    public void record(UUID userId, long promptTokens, long completionTokens) {
+        Lock lock = stripe(userId);
+        LlmUsage usage = lockBucket(userId, lock);
+        try {
+            refill(usage, Instant.now());
+            usage.setTokenAllowance(usage.getTokenAllowance() - completionTokens);
+            Unflushed pending = unflushed(userId);
+            pending.promptTokens += promptTokens;
+            pending.completionTokens += completionTokens;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Heaviest users by generated tokens, as of now.
+     */
+    public List<LlmUsageDto> getTopConsumers(int limit) {
+        flush();
+        // Read what was just flushed, not a replica that may be behind
+        return ReplicaRouting.onPrimary(() -> repository.findTopConsumers(PageRequest.ofSize(limit)));
+    }
+
+    /*
+     * Takes each user's usage since the last flush under its lock and adds it to the
+     * table without holding any; what could not be written is put back for the next
+     * flush. Buckets idle for a whole window are full again and are dropped from memory.
+     */
+    @Scheduled(fixedDelayString = "${llm.quota.flush-interval:30s}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushUnflushed();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushUnflushed() {
+        Map<UUID, Unflushed> taken = new LinkedHashMap<>();
+        for (UUID userId : unflushed.keySet()) {
+            Lock lock = stripe(userId);
+            lock.lock();
+            try {
+                taken.put(userId, unflushed.remove(userId));
+            } finally {
+                lock.unlock();
+            }
+        }
+        Instant now = Instant.now();
+        Iterator<Map.Entry<UUID, Unflushed>> remaining = taken.entrySet().iterator();
+        try {
+            while (remaining.hasNext()) {
+                Map.Entry<UUID, Unflushed> entry = remaining.next();
+                Unflushed usage = entry.getValue();
+                repository.addUsage(entry.getKey(), usage.requests, usage.promptTokens, usage.completionTokens,
+                        usage.lastRequestAt, now, window.toNanos() / 1e9, requestsPerWindow, tokensPerWindow);
+                remaining.remove();
+            }
+        } catch (RuntimeException e) {
+            taken.forEach(this::putBack);
+            log.warn("Could not save LLM usage of {} users, retrying on the next flush", taken.size(), e);
+            return;
+        }
+        evictIdle(now.minus(window));
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private void evictIdle(Instant idleSince) {
+        for (UUID userId : buckets.keySet()) {
+            Lock lock = stripe(userId);
+            lock.lock();
+            try {
+                LlmUsage usage = buckets.get(userId);
+                if (usage != null && !unflushed.containsKey(userId) && usage.getRefilledAt().isBefore(idleSince)) {
+                    buckets.remove(userId);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /*
+     * Returns the user's bucket with its stripe held. A first request reads the saved
+     * bucket before taking the lock, so other users on the stripe never wait on the
+     * database; should the bucket be evicted in between, it is read again.
+     */
+    private LlmUsage lockBucket(UUID userId, Lock lock) {
+        while (true) {
+            LlmUsage saved = buckets.containsKey(userId) ? null : repository.findById(userId)
+                    .orElseGet(() -> new LlmUsage(userId, requestsPerWindow, tokensPerWindow, Instant.now(), 0, 0, 0, null));
+            lock.lock();
+            LlmUsage usage = saved != null ? buckets.putIfAbsent(userId, saved) : buckets.get(userId);
+            if (usage == null) {
+                usage = saved;
+            }
+            if (usage != null) {
+                return usage;
+            }
+            lock.unlock();
+        }
+    }
+
+    private Unflushed unflushed(UUID userId) {
+        return unflushed.computeIfAbsent(userId, id -> new Unflushed());
+    }
+
+    private void putBack(UUID userId, Unflushed usage) {
+        Lock lock = stripe(userId);
+        lock.lock();
+        try {
+            unflushed(userId).add(usage);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refill(LlmUsage usage, Instant now) {
+        long elapsed = Duration.between(usage.getRefilledAt(), now).toNanos();
+        if (elapsed <= 0) {
+            return;
+        }
+        double windows = (double) elapsed / window.toNanos();
+        usage.setRequestAllowance(Math.min(requestsPerWindow, usage.getRequestAllowance() + windows * requestsPerWindow));
+        usage.setTokenAllowance(Math.min(tokensPerWindow, usage.getTokenAllowance() + windows * tokensPerWindow));
+        usage.setRefilledAt(now);
+    }
+
+    /*
+     * Time until one request is back and the token debt, if any, is paid off
+     */
+    private Duration retryAfter(LlmUsage usage) {
+        double windows = Math.max(
+                (1 - usage.getRequestAllowance()) / requestsPerWindow,
+                (1 - usage.getTokenAllowance()) / tokensPerWindow);
+        long seconds = (long) Math.ceil(windows * window.toSeconds());
+        return Duration.ofSeconds(Math.max(1, seconds));
+    }
+
+    private Lock stripe(UUID userId) {
+        return stripes[Math.floorMod(userId.hashCode(), STRIPES)];
+    }
+}
@@ -22,6 +22,7 @@ public class ProfileService {
     /**
      * Get current user's profile
      */
+    @Transactional(readOnly = true)
     public Optional<UserProfile> getCurrentUserProfile() {
         var currentUser = userInfoService.getCurrentUser();
         return userProfileRepository.findByUser(currentUser);
@@ -30,6 +31,7 @@ public class ProfileService {
     /**
      * Get profile by user ID
      */
+    @Transactional(readOnly = true)
     public Optional<UserProfile> getProfileByUserId(UUID userId) {
         return userProfileRepository.findByUserId(userId);
     }
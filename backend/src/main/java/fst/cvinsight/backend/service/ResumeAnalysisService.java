@@ -0,0 +1,277 @@
+package fst.cvinsight.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import fst.cvinsight.backend.entity.SectionAnalysisCache;
+import fst.cvinsight.backend.exception.ResumeAnalysisException;
+import fst.cvinsight.backend.exception.ResumeProcessingException;
+import fst.cvinsight.backend.llm.JsonSchemas;
+import fst.cvinsight.backend.llm.LlmTask;
+import fst.cvinsight.backend.llm.TieredChatClient;
+import fst.cvinsight.backend.llm.schema.SectionAnalysis;
+import fst.cvinsight.backend.metrics.PipelineObservations;
+import fst.cvinsight.backend.metrics.PipelineStage;
+import fst.cvinsight.backend.model.ResumeSection;
+import fst.cvinsight.backend.repo.SectionAnalysisCacheRepository;
+import fst.cvinsight.backend.util.ContentHashes;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Reviews resumes section by section, so an edit only costs a review of what changed.
+ * <p>
+ * Each non-empty top-level section ({@link ResumeSection}) is keyed by the SHA-256 of
+ * the prompt version, the section and its JSON. Reviews already stored under their key
+ * in {@link SectionAnalysisCache} are reused; the other sections are reviewed together
+ * in one model call whose schema has one {@link SectionAnalysis} per section. The
+ * section reviews are then merged into the {@code ResumeAnalysis} shape: lists are
+ * concatenated, empty sections become {@code missingSections} and the score is the
+ * weighted mean of the scores of the sections present, so a resume is not capped by
+ * the weight of sections it has no use for.
+ * <p>
+ * Sections are reviewed on their own content only; that is what makes a review
+ * reusable by any resume with the same section, whoever uploaded it.
+ */
+@Service
+public class ResumeAnalysisService {
+
+    private static final String PROMPT = """
+            You are an expert resume reviewer with 20+ years of experience in HR, technical hiring, and career development.
+
+            Your task:
+            - Review each section of the following resume JSON on its own and extract its weaknesses, improvements, and mistakes.
+            - Provide clear, actionable, and practical feedback.
+            - Evaluate the quality of each section, assign it a numerical score from 0 to 100 and sum it up in one or two sentences.
+
+            ----------------------------
+            Guidelines (IMPORTANT):
+            ----------------------------
+            1. **Do NOT generate or invent experience, skills, or data that are not present.**
+            2. Base the review of a section strictly on that section's JSON. Other sections are reviewed separately; do not mention them.
+            3. Weaknesses must be directly supported by the section contents (e.g., vague descriptions, missing dates).
+            4. Improvements must be actionable steps (e.g., "Add metrics", "Expand project descriptions").
+            5. Mistakes should include formatting issues, typos, inconsistencies, or missing date ranges if applicable.
+            6. Score evaluation rules:
+               - 0–39: Very weak section
+               - 40–59: Needs significant improvement
+               - 60–79: Decent but missing important elements
+               - 80–89: Strong section with minor issues
+               - 90–100: Excellent section
+
+            ----------------------------
+            Resume sections JSON:
+            %s
+            ----------------------------
+            """;
+
+    // Editing the prompt or the review schema makes the stored reviews stale
+    private static final String PROMPT_VERSION =
+            ContentHashes.sha256(PROMPT + JsonSchemas.forType(SectionAnalysis.class));
+
+    // Share of each section in the overall score, in percent when every section is present
+    private static final Map<ResumeSection, Integer> WEIGHTS = new EnumMap<>(Map.of(
+            ResumeSection.ABOUT, 10,
+            ResumeSection.EDUCATION, 15,
+            ResumeSection.WORK, 30,
+            ResumeSection.PROJECTS, 15,
+            ResumeSection.SKILLS, 15,
+            ResumeSection.LANGUAGES, 5,
+            ResumeSection.CERTIFICATIONS, 5,
+            ResumeSection.SOCIAL_ACTIVITIES, 5));
+
+    private final TieredChatClient chatClient;
+    private final SectionAnalysisCacheRepository repository;
+    private final PipelineObservations observations;
+    private final ObjectMapper objectMapper;
+    private final LlmQuotaService llmQuotaService;
+    private final Duration cacheTtl;
+    private final Counter hits;
+    private final Counter misses;
+
+    public ResumeAnalysisService(TieredChatClient chatClient,
+                                 SectionAnalysisCacheRepository repository,
+                                 PipelineObservations observations,
+                                 ObjectMapper objectMapper,
+                                 LlmQuotaService llmQuotaService,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${resume.analysis.cache-ttl:90d}") Duration cacheTtl) {
+        this.chatClient = chatClient;
+        this.repository = repository;
+        this.observations = observations;
+        this.objectMapper = objectMapper;
+        this.llmQuotaService = llmQuotaService;
+        this.cacheTtl = cacheTtl;
+        this.hits = sectionCounter(meterRegistry, "hit");
+        this.misses = sectionCounter(meterRegistry, "miss");
+    }
+
+    /**
+     * Takes one request from the owner's quota only when some section has to be reviewed.
+     */
+    public ObjectNode analyze(UUID ownerId, JsonNode resume) {
+        Map<ResumeSection, String> keys = new EnumMap<>(ResumeSection.class);
+        for (ResumeSection section : ResumeSection.values()) {
+            JsonNode content = resume.path(section.getField());
+            if (!isBlank(content)) {
+                keys.put(section, ContentHashes.sha256(PROMPT_VERSION + '\n' + section + '\n' + content));
+            }
+        }
+
+        Map<String, JsonNode> cached = observations.observe(PipelineStage.DB_READ, () -> repository.findAllById(keys.values()))
+                .stream()
+                .collect(Collectors.toMap(SectionAnalysisCache::getAnalysisKey, SectionAnalysisCache::getAnalysis));
+        Map<ResumeSection, JsonNode> reviews = new EnumMap<>(ResumeSection.class);
+        Map<ResumeSection, JsonNode> changed = new EnumMap<>(ResumeSection.class);
+        keys.forEach((section, key) -> {
+            JsonNode review = cached.get(key);
+            if (review != null) {
+                reviews.put(section, review);
+            } else {
+                changed.put(section, resume.path(section.getField()));
+            }
+        });
+        hits.increment(reviews.size());
+        misses.increment(changed.size());
+
+        if (!changed.isEmpty()) {
+            llmQuotaService.acquire(ownerId);
+            JsonNode fresh = review(changed);
+            for (ResumeSection section : changed.keySet()) {
+                JsonNode review = fresh.path(section.getField());
+                if (!review.isObject()) {
+                    throw new ResumeAnalysisException(
+                            new IllegalStateException("Model did not review section " + section.getField()));
+                }
+                reviews.put(section, review);
+            }
+            changed.keySet().forEach(section -> store(keys.get(section), section, reviews.get(section)));
+        }
+        return merge(reviews);
+    }
+
+    @Scheduled(cron = "${resume.analysis.cache-purge-cron:0 45 3 * * *}")
+    public void purgeExpired() {
+        repository.deleteCreatedBefore(LocalDateTime.now().minus(cacheTtl));
+    }
+
+    private JsonNode review(Map<ResumeSection, JsonNode> sections) {
+        ObjectNode content = objectMapper.createObjectNode();
+        sections.forEach((section, json) -> content.set(section.getField(), json));
+        String prompt = observations.observe(PipelineStage.PROMPT_BUILD, () -> PROMPT.formatted(content));
+        Map<String, Object> format = JsonSchemas.toFormat(JsonSchemas.objectOf(
+                sections.keySet().stream().map(ResumeSection::getField).toList(), SectionAnalysis.class));
+
+        try {
+            String response = chatClient.call(LlmTask.ANALYSIS, prompt, format);
+            return observations.observe(PipelineStage.JSON_PARSE, () -> objectMapper.readTree(response));
+        } catch (JsonProcessingException ex) {
+            throw new ResumeProcessingException(ex.getMessage(), ex);
+        } catch (Exception e) {
+            throw new ResumeAnalysisException(e);
+        }
+    }
+
+    /*
+     * Another request may have stored the same review in the meantime; either copy will do
+     */
+    private void store(String key, ResumeSection section, JsonNode review) {
+        try {
+            observations.run(PipelineStage.DB_WRITE,
+                    () -> repository.save(new SectionAnalysisCache(key, section, review, LocalDateTime.now())));
+        } catch (DataIntegrityViolationException ignored) {
+        }
+    }
+
+    private ObjectNode merge(Map<ResumeSection, JsonNode> reviews) {
+        ObjectNode result = objectMapper.createObjectNode();
+        ArrayNode weaknesses = result.putArray("weaknesses");
+        ArrayNode improvements = result.putArray("improvements");
+        ArrayNode missingSections = result.putArray("missingSections");
+        ArrayNode mistakes = result.putArray("mistakes");
+        ObjectNode sections = objectMapper.createObjectNode();
+        StringJoiner feedback = new StringJoiner(" ");
+        double weightedScores = 0;
+        int weights = 0;
+
+        for (ResumeSection section : ResumeSection.values()) {
+            JsonNode review = reviews.get(section);
+            if (review == null) {
+                missingSections.add(section.getTitle());
+                continue;
+            }
+            addItems(weaknesses, section, review.path("weaknesses"));
+            addItems(improvements, section, review.path("improvements"));
+            addItems(mistakes, section, review.path("mistakes"));
+
+            int sectionScore = Math.clamp(review.path("score").asInt(), 0, 100);
+            String sectionFeedback = review.path("feedback").asText("").trim();
+            weightedScores += sectionScore * WEIGHTS.get(section);
+            weights += WEIGHTS.get(section);
+            if (!sectionFeedback.isEmpty()) {
+                feedback.add(section.getTitle() + ": " + sectionFeedback);
+            }
+            sections.putObject(section.getField())
+                    .put("score", sectionScore)
+                    .put("feedback", sectionFeedback);
+        }
+
+        result.put("score", weights > 0 ? Math.round(weightedScores / weights) : 0);
+        result.put("overallFeedback", feedback.toString());
+        result.set("sections", sections);
+        return result;
+    }
+
+    /*
+     * Items are prefixed with their section, which the merged lists no longer tell
+     */
+    private static void addItems(ArrayNode target, ResumeSection section, JsonNode items) {
+        for (JsonNode item : items) {
+            if (item.isValueNode() && !item.asText().isBlank()) {
+                target.add(section.getTitle() + ": " + item.asText().trim());
+            }
+        }
+    }
+
+    /*
+     * Missing, null, blank text, or containers holding nothing else
+     */
+    private static boolean isBlank(JsonNode node) {
+        if (node.isMissingNode() || node.isNull()) {
+            return true;
+        }
+        if (node.isTextual()) {
+            return node.asText().isBlank();
+        }
+        if (node.isContainerNode()) {
+            for (JsonNode child : node) {
+                if (!isBlank(child)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static Counter sectionCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("resume.analysis.sections")
+                .description("Resume sections whose review was reused from the section cache or asked of the model")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,276 @@
+package fst.cvinsight.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import fst.cvinsight.backend.exception.ResumeAnalysisException;
+import fst.cvinsight.backend.llm.JsonSchemas;
+import fst.cvinsight.backend.llm.LlmTask;
+import fst.cvinsight.backend.llm.TieredChatClient;
+import fst.cvinsight.backend.llm.schema.ExtractedResume;
+import fst.cvinsight.backend.metrics.PipelineObservations;
+import fst.cvinsight.backend.metrics.PipelineStage;
+import fst.cvinsight.backend.model.ResumeSection;
+import fst.cvinsight.backend.util.ContactScanner;
+import fst.cvinsight.backend.util.ResumeSectionSegmenter;
+import org.springframework.ai.chat.prompt.PromptTemplate;
+import org.springframework.ai.template.st.StTemplateRenderer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+
+/**
+ * Turns extracted resume text into the resume JSON.
+ * <p>
+ * Long resumes are split into sections by {@link ResumeSectionSegmenter}; each
+ * section is extracted with its own sub-schema, all sections in parallel, and
+ * the fragments are merged back into the full structure. Short resumes, or
+ * text where too few headings were recognized, go through a single prompt.
+ * <p>
+ * The output structure is {@link ExtractedResume}; its JSON schema is sent as
+ * Ollama's {@code format}, so it is not spelled out in the prompts.
+ */
+@Service
+public class ResumeExtractionService {
+
+    private static final String OTHER_PROFILES = "otherProfiles";
+    private static final List<String> ABOUT_FIELDS = Arrays.stream(ExtractedResume.About.class.getRecordComponents())
+            .map(RecordComponent::getName)
+            .filter(name -> !name.equals(OTHER_PROFILES))
+            .toList();
+
+    private final TieredChatClient chatClient;
+    private final ResumeSectionSegmenter segmenter;
+    private final ContactScanner contactScanner;
+    private final PipelineObservations observations;
+    private final ObjectMapper objectMapper;
+    private final AsyncTaskExecutor llmCallExecutor;
+    private final boolean chunkingEnabled;
+    private final int chunkingMinLength;
+    private final int chunkingMinSections;
+
+    public ResumeExtractionService(TieredChatClient chatClient,
+                                   ResumeSectionSegmenter segmenter,
+                                   ContactScanner contactScanner,
+                                   PipelineObservations observations,
+                                   ObjectMapper objectMapper,
+                                   @Qualifier("llmCallExecutor") AsyncTaskExecutor llmCallExecutor,
+                                   @Value("${resume.extraction.chunking.enabled:true}") boolean chunkingEnabled,
+                                   @Value("${resume.extraction.chunking.min-length:4000}") int chunkingMinLength,
+                                   @Value("${resume.extraction.chunking.min-sections:2}") int chunkingMinSections) {
+        this.chatClient = chatClient;
+        this.segmenter = segmenter;
+        this.contactScanner = contactScanner;
+        this.observations = observations;
+        this.objectMapper = objectMapper;
+        this.llmCallExecutor = llmCallExecutor;
+        this.chunkingEnabled = chunkingEnabled;
+        this.chunkingMinLength = chunkingMinLength;
+        this.chunkingMinSections = chunkingMinSections;
+    }
+
+    /*
+     * Contact fields found by the scanner are left out of the schema given to the model
+     * and filled in afterwards, overriding anything the model still produced for them.
+     */
+    public String extract(String resumeContent) {
+        Map<String, String> knownAbout = contactScanner.scan(resumeContent).asAboutFields();
+
+        if (chunkingEnabled && resumeContent.length() >= chunkingMinLength) {
+            Map<ResumeSection, String> sections = segmenter.segment(resumeContent);
+            long headed = sections.keySet().stream().filter(s -> s != ResumeSection.ABOUT).count();
+            if (headed >= chunkingMinSections) {
+                return extractSections(sections, knownAbout);
+            }
+        }
+
+        String prompt = observations.observe(PipelineStage.PROMPT_BUILD, () -> buildExtractionPrompt(resumeContent));
+        String response = chatClient.call(LlmTask.EXTRACTION, prompt,
+                JsonSchemas.toFormat(schema(knownAbout)));
+        if (knownAbout.isEmpty()) {
+            return response;
+        }
+        JsonNode parsed = parseFragment(response);
+        if (!(parsed instanceof ObjectNode root)) {
+            throw new ResumeAnalysisException(new IllegalStateException("Model did not return a JSON object"));
+        }
+        root.set(ResumeSection.ABOUT.getField(), completeAbout(root.get(ResumeSection.ABOUT.getField()), knownAbout));
+        return root.toString();
+    }
+
+    /*
+     * Fails fast: the first section that fails completes the shared future, and the
+     * calls still running are cancelled through the executor's futures, which
+     * interrupts their threads.
+     */
+    private String extractSections(Map<ResumeSection, String> sections, Map<String, String> knownAbout) {
+        Map<ResumeSection, CompletableFuture<String>> responses = new EnumMap<>(ResumeSection.class);
+        List<Future<?>> calls = new ArrayList<>();
+        CompletableFuture<Void> failure = new CompletableFuture<>();
+        sections.forEach((section, text) -> {
+            CompletableFuture<String> response = new CompletableFuture<>();
+            response.whenComplete((result, e) -> {
+                if (e != null) {
+                    failure.completeExceptionally(e);
+                }
+            });
+            responses.put(section, response);
+            calls.add(llmCallExecutor.submit(() -> {
+                try {
+                    response.complete(chatClient.call(LlmTask.EXTRACTION,
+                            observations.observe(PipelineStage.PROMPT_BUILD, () -> buildSectionPrompt(text)),
+                            JsonSchemas.toFormat(sectionSchema(section, knownAbout))));
+                } catch (Throwable e) {
+                    response.completeExceptionally(e);
+                }
+            }));
+        });
+
+        try {
+            CompletableFuture.anyOf(CompletableFuture.allOf(responses.values().toArray(CompletableFuture[]::new)),
+                    failure).join();
+        } catch (CompletionException e) {
+            calls.forEach(call -> call.cancel(true));
+            throw new ResumeAnalysisException(e.getCause());
+        }
+
+        ObjectNode merged = objectMapper.createObjectNode();
+        for (ResumeSection section : ResumeSection.values()) {
+            CompletableFuture<String> response = responses.get(section);
+            JsonNode value = response != null ? parseFragment(response.join()).get(section.getField()) : null;
+            if (section == ResumeSection.ABOUT) {
+                value = completeAbout(value, knownAbout);
+            }
+            merged.set(section.getField(), value != null ? value : objectMapper.createArrayNode());
+        }
+        return merged.toString();
+    }
+
+    private JsonNode parseFragment(String response) {
+        try {
+            return observations.observe(PipelineStage.JSON_PARSE, () -> objectMapper.readTree(response));
+        } catch (JsonProcessingException e) {
+            throw new ResumeAnalysisException(e);
+        }
+    }
+
+    /*
+     * Rebuilds "about" in schema order with the scanned values; fields the model
+     * did not produce are null and otherProfiles defaults to an empty array.
+     */
+    private ObjectNode completeAbout(JsonNode generated, Map<String, String> knownAbout) {
+        ObjectNode about = objectMapper.createObjectNode();
+        for (String field : ABOUT_FIELDS) {
+            String known = knownAbout.get(field);
+            JsonNode value = generated != null ? generated.get(field) : null;
+            if (known != null) {
+                about.put(field, known);
+            } else if (value != null) {
+                about.set(field, value);
+            } else {
+                about.putNull(field);
+            }
+        }
+        JsonNode otherProfiles = generated != null ? generated.get(OTHER_PROFILES) : null;
+        about.set(OTHER_PROFILES, otherProfiles != null ? otherProfiles : objectMapper.createArrayNode());
+        if (generated != null) {
+            generated.properties().forEach(e -> {
+                if (!about.has(e.getKey())) {
+                    about.set(e.getKey(), e.getValue());
+                }
+            });
+        }
+        return about;
+    }
+
+    /*
+     * Resume schema without the about fields that are already known
+     */
+    private static ObjectNode schema(Map<String, String> knownAbout) {
+        ObjectNode schema = JsonSchemas.forType(ExtractedResume.class);
+        ObjectNode about = (ObjectNode) schema.path("properties").path(ResumeSection.ABOUT.getField());
+        ((ObjectNode) about.path("properties")).remove(knownAbout.keySet());
+        ArrayNode required = (ArrayNode) about.path("required");
+        for (int i = required.size() - 1; i >= 0; i--) {
+            if (knownAbout.containsKey(required.get(i).asText())) {
+                required.remove(i);
+            }
+        }
+        return schema;
+    }
+
+    /*
+     * An object holding only the section's top-level field
+     */
+    private static ObjectNode sectionSchema(ResumeSection section, Map<String, String> knownAbout) {
+        ObjectNode full = schema(knownAbout);
+        ObjectNode properties = (ObjectNode) full.get("properties");
+        properties.retain(section.getField());
+        full.putArray("required").add(section.getField());
+        return full;
+    }
+
+    String buildExtractionPrompt(String resumeContent) {
+        PromptTemplate promptTemplate = PromptTemplate.builder()
+                .renderer(StTemplateRenderer.builder().startDelimiterToken('<').endDelimiterToken('>').build())
+                .template("""
+                    You are an expert CV analyzer and information extractor.
+                    Your task is to read the provided resume text and extract all relevant information
+                    about the candidate into the requested JSON structure.
+        
+                    Guidelines:
+                    - Focus on **completeness**: include education, experience, internships, projects,
+                      certifications, skills, spoken languages, and social or community involvement.
+                    - Use an empty string for missing values and an empty array for lists with no items.
+                    - Dates should be in ISO format: YYYY-MM if available.
+        
+                    Resume text:
+                    ---
+                    <cvContent>
+                    ---
+                    """)
+                .build();
+
+        return promptTemplate.render(Map.of("cvContent", resumeContent));
+    }
+
+    /*
+     * The section text comes last so that all section prompts start with the same
+     * instructions, which the router's prefix stickiness and Ollama's prompt cache reuse.
+     */
+    String buildSectionPrompt(String sectionContent) {
+        PromptTemplate promptTemplate = PromptTemplate.builder()
+                .renderer(StTemplateRenderer.builder().startDelimiterToken('<').endDelimiterToken('>').build())
+                .template("""
+                    You are an expert CV analyzer and information extractor.
+                    Your task is to read one section of a resume and extract all of its information
+                    into the requested JSON structure.
+        
+                    Guidelines:
+                    - Focus on **completeness**: include every entry of the section.
+                    - Use an empty string for missing values and an empty array for lists with no items.
+                    - Dates should be in ISO format: YYYY-MM if available.
+        
+                    Resume section:
+                    ---
+                    <sectionContent>
+                    ---
+                    """)
+                .build();
+
+        return promptTemplate.render(Map.of("sectionContent", sectionContent));
+    }
+}
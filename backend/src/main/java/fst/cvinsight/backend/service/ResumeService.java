@@ -5,45 +5,81 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import fst.cvinsight.backend.dto.ResumeDto;
+import fst.cvinsight.backend.dto.ResumeSnapshot;
 import fst.cvinsight.backend.entity.Resume;
-import fst.cvinsight.backend.entity.UserInfo;
 import fst.cvinsight.backend.exception.ResumeAnalysisException;
 import fst.cvinsight.backend.exception.ResumeExtractionException;
-import fst.cvinsight.backend.exception.ResumeProcessingException;
 import fst.cvinsight.backend.exception.ResumeStorageException;
-import fst.cvinsight.backend.mapper.ResumeMapper;
+import fst.cvinsight.backend.llm.JsonSchemas;
+import fst.cvinsight.backend.llm.LlmTask;
+import fst.cvinsight.backend.llm.TieredChatClient;
+import fst.cvinsight.backend.llm.schema.CareerRecommendation;
+import fst.cvinsight.backend.llm.schema.ResumeComparison;
+import fst.cvinsight.backend.metrics.PipelineObservations;
+import fst.cvinsight.backend.metrics.PipelineStage;
 import fst.cvinsight.backend.model.CareerRecommendationRequest;
+import fst.cvinsight.backend.model.RenderRequest;
+import fst.cvinsight.backend.model.ResumeEventType;
 import fst.cvinsight.backend.model.ResumeOrigin;
+import fst.cvinsight.backend.outbox.OutboxPublisher;
+import fst.cvinsight.backend.render.RenderedPdf;
+import fst.cvinsight.backend.render.ResumeRenderer;
 import fst.cvinsight.backend.repo.ResumeRepository;
+import fst.cvinsight.backend.util.ContentHashes;
 import fst.cvinsight.backend.util.DocumentUtils;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
-import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.ai.chat.prompt.ChatOptions;
-import org.springframework.ai.chat.prompt.PromptTemplate;
-import org.springframework.ai.template.st.StTemplateRenderer;
-import org.springframework.security.access.AccessDeniedException;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * LLM flows are split into a short read (detached {@link ResumeSnapshot}),
+ * the model call with no connection or persistence context held, and a short
+ * write transaction. Open-session-in-view is disabled in application.yml.
+ * Each LLM-backed flow takes one request from the user's quota (LlmQuotaService)
+ * before doing any work.
+ * <p>
+ * Every change to a resume (save, score write-back, delete) publishes a
+ * {@link ResumeEventType} event to the outbox in the same transaction.
+ */
 @Service
 @RequiredArgsConstructor
 public class ResumeService {
 
-    private final ChatClient chatClient;
+    private static final int MAX_SCORE_WRITE_ATTEMPTS = 3;
+    private static final Map<String, Object> COMPARISON_FORMAT = JsonSchemas.toFormat(JsonSchemas.forType(ResumeComparison.class));
+    private static final Map<String, Object> CAREER_RECOMMENDATIONS_FORMAT =
+            JsonSchemas.toFormat(JsonSchemas.arrayOf(CareerRecommendation.class));
+
+    private final TieredChatClient chatClient;
     private final DocumentUtils documentUtils;
     private final ResumeRepository resumeRepository;
     private final UserInfoService userInfoService;
     private final ObjectMapper objectMapper;
-    private final ResumeMapper resumeMapper;
+    private final ResumeStatsService resumeStatsService;
+    private final TransactionTemplate transactionTemplate;
+    private final ResumeExtractionService resumeExtractionService;
+    private final PipelineObservations pipelineObservations;
+    private final LlmQuotaService llmQuotaService;
+    private final ResumeRenderer resumeRenderer;
+    private final ResumeAnalysisService resumeAnalysisService;
+    private final OutboxPublisher outboxPublisher;
 
     public String extractAndParseResume(File file) throws IOException {
+        llmQuotaService.acquire();
         String resumeContent;
         try{
             resumeContent = documentUtils.extractText(file);
@@ -53,10 +89,7 @@ public class ResumeService {
 
         String result;
         try {
-            String prompt = buildExtractionPrompt(resumeContent);
-            result =  chatClient.prompt(prompt)
-                    .call()
-                    .content();
+            result = resumeExtractionService.extract(resumeContent);
         } catch (Exception e) {
             throw new ResumeAnalysisException(e);
         }
@@ -66,226 +99,219 @@ public class ResumeService {
         return result;
     }
 
+    /**
+     * Renders a CV builder resume on the server and stores it with its PDF, instead
+     * of the browser uploading both (see ResumeRenderer).
+     */
+    public void generateResume(RenderRequest request) throws IOException {
+        RenderedPdf pdf = resumeRenderer.render(request.getTemplateId(), request.getJsonContent());
+        saveResume("resume-" + request.getTemplateId() + ".pdf", MediaType.APPLICATION_PDF_VALUE, pdf.content(),
+                request.getJsonContent(), ResumeOrigin.SYSTEM_GENERATED);
+    }
+
     public void saveResume(File file, String jsonContent, ResumeOrigin origin) throws ResumeStorageException {
+        JsonNode parsed;
         try {
-            Resume resume = new Resume();
-
-            JsonNode parsed = objectMapper.readTree(jsonContent);
-
-            resume.setFilename(file.getName());
-            resume.setContentType(Files.probeContentType(file.toPath()));
-            resume.setSize(file.length());
-            resume.setUploadedBy(userInfoService.getCurrentUser());
-            resume.setFileData(Files.readAllBytes(file.toPath()));
-            resume.setJsonContent(parsed);
-
-            resume.setOrigin(origin != null ? origin : ResumeOrigin.SYSTEM_GENERATED);
-
-            resumeRepository.save(resume);
-
+            parsed = objectMapper.readTree(jsonContent);
         } catch (JsonProcessingException e) {
             throw new ResumeAnalysisException(e);
+        }
+        try {
+            saveResume(file.getName(), Files.probeContentType(file.toPath()), Files.readAllBytes(file.toPath()), parsed, origin);
         } catch (IOException e) {
             throw new ResumeStorageException(e);
         }
     }
 
-    private String buildExtractionPrompt(String resumeContent) {
-        PromptTemplate promptTemplate = PromptTemplate.builder()
-                .renderer(StTemplateRenderer.builder().startDelimiterToken('<').endDelimiterToken('>').build())
-                .template("""
-                    You are an expert CV analyzer and information extractor.
-                    Your task is to read the provided resume text and produce a clean, valid JSON object
-                    that captures all relevant information about the candidate.
-        
-                    Guidelines:
-                    - Focus on **completeness**: include education, experience, internships, projects,
-                      certifications, skills, spoken languages, and social or community involvement.
-                    - Use **null** for missing data (do not skip fields).
-                    - Dates should be in ISO format: YYYY-MM if available.
-                    - For Array fields, use an empty array if there are no items.
-                    - Ensure the output is **strictly valid JSON**, no explanations or comments.
-        
-                    Resume text:
-                    ---
-                    <cvContent>
-                    ---
-        
-                    Return JSON in the following structure:
-                    {
-                      "about": {
-                        "name": "",
-                        "email": "",
-                        "phone": "",
-                        "address": "",
-                        "linkedin": "",
-                        "github": "",
-                        "role": "",
-                        "portfolio": "",
-                        "summary": "",
-                        "otherProfiles": []
-                      },
-                      "education": [
-                        {
-                          "degree": "",
-                          "school": "Institution name",
-                          "startYr": "2022",
-                          "endYr": "2025",
-                          "grade": ""
-                        }
-                      ],
-                      "work": [
-                        {
-                          "position": "",
-                          "company": "",
-                          "startDate": "",
-                          "endDate": "",
-                          "description": "",
-                          "type": "Full-Time|Internship|Part-Time|Freelance"
-                        }
-                      ],
-                      "projects": [
-                        {
-                          "name": "",
-                          "description": "",
-                          "github": "",
-                          "technologies": [],
-                          "url": ""
-                        }
-                      ],
-                      "skills": ["", "", ""],
-                      "languages": [
-                        {"name": "", "level": ""}
-                      ],
-                      "certifications": [
-                        {"title": "", "issuer": "", "year": ""}
-                      ],
-                      "socialActivities": [
-                        {"role": "", "organization": "", "description": ""}
-                      ]
-                    }
-        
-                    Output only JSON, without any surrounding text.
-                    """)
-                .build();
-
-        return promptTemplate.render(Map.of("cvContent", resumeContent));
+    private void saveResume(String filename, String contentType, byte[] fileData, JsonNode jsonContent, ResumeOrigin origin) {
+        Resume resume = new Resume();
+        resume.setFilename(filename);
+        resume.setContentType(contentType);
+        resume.setSize(fileData.length);
+        resume.setFileData(fileData);
+        resume.setContentHash(ContentHashes.sha256(fileData));
+        resume.setJsonContent(jsonContent);
+        resume.setOrigin(origin != null ? origin : ResumeOrigin.SYSTEM_GENERATED);
+
+        pipelineObservations.run(PipelineStage.DB_WRITE, () -> transactionTemplate.executeWithoutResult(status -> {
+            resume.setUploadedBy(userInfoService.getCurrentUser());
+            resumeStatsService.onResumeSaved(resume);
+            resumeRepository.save(resume);
+            outboxPublisher.publish(ResumeEventType.SAVED, resume.getId(), resume.getUploadedBy().getId(),
+                    payload("origin", resume.getOrigin(), "contentHash", resume.getContentHash()));
+        }));
     }
 
+    /*
+     * Single resumes are always looked up together with their owner (see ResumeRepository),
+     * so another user's resume is simply not found. Reads are read-only transactions,
+     * served by the replica when one is configured (see ReplicaRouting).
+     */
+
+    @Transactional(readOnly = true)
     public ResumeDto getResumeDtoById(UUID id) {
         UUID userId = userInfoService.getCurrentUser().getId();
-        Resume cv = resumeRepository.findById(id)
+        return resumeRepository.findDtoByIdAndOwner(id, userId)
                 .orElseThrow(() -> new EntityNotFoundException("CV not found"));
-        if (!cv.getUploadedBy().getId().equals(userId)) {
-            throw new AccessDeniedException("You are not allowed to access this CV");
-        }
-        return resumeMapper.toDto(cv);
     }
 
+    @Transactional(readOnly = true)
     public Resume getResumeById(UUID id) {
         UUID userId = userInfoService.getCurrentUser().getId();
-        Resume cv = resumeRepository.findById(id)
+        return resumeRepository.findByIdAndUploadedById(id, userId)
                 .orElseThrow(() -> new EntityNotFoundException("CV not found"));
-        if (!cv.getUploadedBy().getId().equals(userId)) {
-            throw new AccessDeniedException("You are not allowed to access this CV");
-        }
-        return cv;
     }
 
+    @Transactional
     public void deleteResume(UUID id) {
         UUID userId = userInfoService.getCurrentUser().getId();
-        Resume resume = resumeRepository.findById(id)
+        if (resumeRepository.lockVersionByIdAndOwner(id, userId).isEmpty()) {
+            throw new EntityNotFoundException("CV not found");
+        }
+        ResumeRepository.DeletionView resume = resumeRepository.findDeletionViewByIdAndOwner(id, userId)
                 .orElseThrow(() -> new EntityNotFoundException("CV not found"));
-        if (!resume.getUploadedBy().getId().equals(userId)) {
-            throw new AccessDeniedException("You are not allowed to access this CV");
+        resumeStatsService.onResumesDeleted(userId, List.of(resume));
+        if (resumeRepository.deleteByIdAndOwner(id, userId, resume.getVersion()) == 0) {
+            throw new ObjectOptimisticLockingFailureException(Resume.class, id);
+        }
+        outboxPublisher.publish(ResumeEventType.DELETED, id, userId, payload("score", resume.getScore()));
+    }
+
+    /**
+     * ETag of the resume DTO, read from ValidatorView without loading the resume: the
+     * file's ETag plus the version, which every change to the row (score write-back) bumps.
+     */
+    @Transactional(readOnly = true)
+    public String getResumeETag(UUID id) {
+        ResumeRepository.ValidatorView validator = getOwnedValidator(id);
+        return fileETag(validator) + "-" + validator.getVersion();
+    }
+
+    /**
+     * ETag of the uploaded file. The file never changes once uploaded, so its hash is
+     * its ETag; rows saved before contentHash existed fall back to their id, which is
+     * just as stable.
+     */
+    @Transactional(readOnly = true)
+    public String getResumeFileETag(UUID id) {
+        return fileETag(getOwnedValidator(id));
+    }
+
+    /**
+     * Changes whenever one of the current user's resumes is added, changed or deleted.
+     */
+    @Transactional(readOnly = true)
+    public String getResumesETag() {
+        UUID userId = userInfoService.getCurrentUser().getId();
+        StringBuilder validators = new StringBuilder();
+        for (ResumeRepository.ValidatorView validator : resumeRepository.findValidatorsByOwner(userId)) {
+            validators.append(fileETag(validator)).append('-').append(validator.getVersion()).append(';');
         }
-        resumeRepository.delete(resume);
+        return ContentHashes.sha256(validators.toString());
+    }
+
+    private ResumeRepository.ValidatorView getOwnedValidator(UUID id) {
+        UUID userId = userInfoService.getCurrentUser().getId();
+        return resumeRepository.findValidatorByIdAndOwner(id, userId)
+                .orElseThrow(() -> new EntityNotFoundException("CV not found"));
+    }
+
+    private static String fileETag(ResumeRepository.ValidatorView validator) {
+        return validator.getContentHash() != null ? validator.getContentHash() : validator.getId().toString();
     }
 
+    @Transactional(readOnly = true)
     public List<ResumeDto> getAllCVsForCurrentUser() {
-        UserInfo user = userInfoService.getCurrentUser();
-        return resumeMapper.toDtoList(resumeRepository.findAllByUploadedBy(user));
+        UUID userId = userInfoService.getCurrentUser().getId();
+        return resumeRepository.findDtosByOwner(userId);
     }
 
+    /**
+     * Reviews only the sections changed since they were last reviewed (see
+     * ResumeAnalysisService); the score is written back only when it changed.
+     */
     public JsonNode analyzeResume(UUID resumeId) {
-        Resume resume = getResumeById(resumeId);
+        ResumeSnapshot resume = getOwnedSnapshot(resumeId);
+        JsonNode result = resumeAnalysisService.analyze(resume.getOwnerId(), resume.getJsonContent());
 
-        String resumeJson = resume.getJsonContent().toString();
+        double score = result.path("score").asDouble();
+        if (resume.getScore() == null || resume.getScore() != score) {
+            writeScore(resume, score);
+        }
+        return result;
+    }
 
-        String prompt = """
-            You are an expert resume reviewer with 20+ years of experience in HR, technical hiring, and career development.
-        
-            Your task:
-            - Analyze the following resume JSON and extract weaknesses, improvements, mistakes, and missing sections.
-            - Provide clear, actionable, and practical feedback.
-            - Evaluate the overall quality and assign a numerical score from 0 to 100.
-        
-            ----------------------------
-            Guidelines (IMPORTANT):
-            ----------------------------
-            1. **Do NOT generate or invent experience, skills, or data that are not present.**
-            2. Base ALL analysis strictly on the provided resume JSON.
-            3. If a section is empty or missing, list it under `missingSections`.
-            4. Weaknesses must be directly supported by the resume contents (e.g., vague descriptions, missing dates).
-            5. Improvements must be actionable steps (e.g., "Add metrics", "Expand project descriptions").
-            6. Mistakes should include formatting issues, typos, inconsistencies, or missing date ranges if applicable.
-            7. Score evaluation rules:
-               - 0–39: Very weak resume
-               - 40–59: Needs significant improvement
-               - 60–79: Decent but missing important elements
-               - 80–89: Strong resume with minor issues
-               - 90–100: Excellent resume
-            8. **Return strictly valid JSON**.
-            9. **Do NOT include explanations outside of the JSON**.
-            10. Do NOT include the prompt, reasoning, or any extra commentary.
-            11. No markdown, no backticks — only raw JSON.
-        
-            ----------------------------
-            Resume JSON:
-            %s
-            ----------------------------
-        
-            The output MUST follow exactly this JSON schema:
-            {
-              "weaknesses": ["", ""],
-              "improvements": ["", ""],
-              "missingSections": ["", ""],
-              "mistakes": ["", ""],
-              "score": 0,
-              "overallFeedback": ""
+    /*
+     * Conditional update on the version read before the model call. If another write
+     * won in between, re-read the row and try again so the stats delta stays exact.
+     * The resume row is locked before the statistics row, like in deleteResume.
+     */
+    private void writeScore(ResumeSnapshot snapshot, double score) {
+        ResumeSnapshot current = snapshot;
+        for (int attempt = 1; ; attempt++) {
+            ResumeSnapshot expected = current;
+            Boolean written = pipelineObservations.observe(PipelineStage.DB_WRITE, () -> transactionTemplate.execute(status -> {
+                Optional<Long> version = resumeRepository.lockVersionByIdAndOwner(expected.getId(), expected.getOwnerId());
+                if (version.isEmpty() || version.get() != expected.getVersion()) {
+                    return false;
+                }
+                resumeStatsService.onResumeScored(expected.getOwnerId(), expected.getScore(), score);
+                resumeRepository.updateScore(expected.getId(), expected.getOwnerId(), expected.getVersion(), score);
+                outboxPublisher.publish(ResumeEventType.SCORED, expected.getId(), expected.getOwnerId(),
+                        payload("previousScore", expected.getScore(), "score", score));
+                return true;
+            }));
+            if (Boolean.TRUE.equals(written)) {
+                return;
             }
-        
-            Output ONLY the JSON object.
-        """.formatted(resumeJson);
-
-
-        try {
-            String response = chatClient.prompt(prompt).call().content();
-            JsonNode result =  objectMapper.readTree(response);
-            JsonNode scoreNode = result.get("score");
-            if (scoreNode != null) {
-                resume.setScore(scoreNode.asDouble());
-                resumeRepository.save(resume);
+            if (attempt == MAX_SCORE_WRITE_ATTEMPTS) {
+                throw new ObjectOptimisticLockingFailureException(Resume.class, snapshot.getId());
             }
-            return result;
-        } catch (JsonProcessingException ex) {
-            throw new ResumeProcessingException(ex.getMessage(),ex);
-        } catch (Exception e) {
-            throw new ResumeAnalysisException(e);
+            current = resumeRepository.findSnapshotByIdAndOwner(snapshot.getId(), snapshot.getOwnerId())
+                    .orElseThrow(() -> new EntityNotFoundException("CV not found"));
+        }
+    }
+
+    /*
+     * Event payload from name/value pairs; values may be null, unlike with Map.of
+     */
+    private static Map<String, Object> payload(Object... pairs) {
+        Map<String, Object> payload = new HashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            payload.put((String) pairs[i], pairs[i + 1]);
         }
+        return payload;
+    }
+
+    private ResumeSnapshot getOwnedSnapshot(UUID id) {
+        UUID userId = userInfoService.getCurrentUser().getId();
+        return pipelineObservations.observe(PipelineStage.DB_READ, () -> resumeRepository.findSnapshotByIdAndOwner(id, userId))
+                .orElseThrow(() -> new EntityNotFoundException("CV not found"));
+    }
+
+    /*
+     * Only the current user's resumes, in the order they were requested (left/right for comparisons)
+     */
+    private List<ResumeSnapshot> getOwnedSnapshots(List<UUID> ids) {
+        UUID userId = userInfoService.getCurrentUser().getId();
+        return pipelineObservations.observe(PipelineStage.DB_READ, () -> resumeRepository.findSnapshotsByIdInAndOwner(ids, userId))
+                .stream()
+                .sorted(Comparator.comparingInt(r -> ids.indexOf(r.getId())))
+                .toList();
     }
 
     public JsonNode careerRecommendations(CareerRecommendationRequest request) {
-        List<Resume> resumes = resumeRepository.findAllById(request.getResumeIds());
+        List<ResumeSnapshot> resumes = getOwnedSnapshots(request.getResumeIds());
+        llmQuotaService.acquire();
 
         ArrayNode resumeArray = objectMapper.createArrayNode();
-        for (Resume r : resumes) {
+        for (ResumeSnapshot r : resumes) {
             resumeArray.add(r.getJsonContent());
         }
 
         JsonNode filterNode = objectMapper.valueToTree(request.getFilters());
 
-        String prompt = """
+        String prompt = pipelineObservations.observe(PipelineStage.PROMPT_BUILD, () -> """
             You are a professional career advisor. Your task is to analyze the user's selected resumes
             and generate structured, filter-aware career recommendations.
     
@@ -306,61 +332,30 @@ public class ResumeService {
               - duration → match preferred duration categories
               - providers → match only providers included
               - searchQuery → match text in title or description
-        
-            ### STRICT OUTPUT RULES
-            1. **Output ONLY valid JSON.**
-            2. **Output MUST be a JSON ARRAY of recommendation objects.**
-            3. **Every field MUST exist per item.**
-            4. **No comments, no explanations, no markdown, no trailing text.**
-            5. **Strings must not contain line breaks.**
-            6. **If no results match the filters, return an **empty JSON array []**
-    
-            ### REQUIRED JSON ARRAY SCHEMA
-            Each recommendation MUST follow the exact structure:
-    
-            {
-              "type": "COURSE" | "CERTIFICATION" | "TRAINING" | "OPPORTUNITY",
-              "title": "string",
-              "provider": "string",
-              "description": "string",
-              "matchScore": 0,
-              "level": "BEGINNER | INTERMEDIATE | ADVANCED",
-              "duration": "string",
-              "price": 0,
-              "url": "string",
-              "skills": ["skill1", "skill2"],
-              "whyRecommended": "string",
-              "category": "string or null"
-            }
-    
-            ### FINAL INSTRUCTION
-            Respond with **ONLY the JSON ARRAY** of recommendation objects** Without any surrounding text.
+            - If no results match the filters, return an empty array.
         """.formatted(
                 resumeArray.toPrettyString(),
                 filterNode.toPrettyString()
-        );
+        ));
 
         try {
-            String response = chatClient
-                    .prompt(prompt)
-                    .options(ChatOptions.builder().temperature(0.25).build())
-                    .call()
-                    .content();
-            return objectMapper.readTree(response);
+            String response = chatClient.call(LlmTask.CAREER_RECOMMENDATION, prompt, CAREER_RECOMMENDATIONS_FORMAT);
+            return pipelineObservations.observe(PipelineStage.JSON_PARSE, () -> objectMapper.readTree(response));
         } catch (Exception e) {
             throw new ResumeAnalysisException(e);
         }
     }
 
     public JsonNode compareResumes(List<UUID> resumeIds) {
-        List<Resume> resumes = resumeRepository.findAllById(resumeIds);
+        List<ResumeSnapshot> resumes = getOwnedSnapshots(resumeIds);
+        llmQuotaService.acquire();
 
         ArrayNode resumeArray = objectMapper.createArrayNode();
-        for (Resume r : resumes) {
+        for (ResumeSnapshot r : resumes) {
             resumeArray.add(r.getJsonContent());
         }
 
-        String prompt = """
+        String prompt = pipelineObservations.observe(PipelineStage.PROMPT_BUILD, () -> """
             You are a professional career analyst. Your task is to compare the provided resumes
             and generate a structured JSON comparison.
     
@@ -379,26 +374,6 @@ public class ResumeService {
             - Suitability for different roles
             - A final verdict summarizing which resume is stronger for which goals
     
-            ### STRICT OUTPUT RULES
-            1. Output **ONLY valid JSON**.
-            2. Output MUST be a **JSON OBJECT ONLY**.
-            3. Don't start or end with extra sentences or words, **ONLY THE JSON**
-            4. Follow the exact schema below.
-            5. No explanations, no markdown, no extra text.
-            6. Strings must not contain line breaks.
-            7. If the comparison cannot be made (e.g., not enough resumes), return an empty JSON object `{}`.
-    
-            ### REQUIRED OUTPUT JSON SCHEMA
-            {
-               "summary": string,
-               "leftHighlights": string[],
-               "rightHighlights": string[],
-               "sharedStrengths": string[],
-               "gaps": string[],
-               "winner": "LEFT" | "RIGHT" | "TIE",
-               "hiringAdvice": string
-            }
-        
             ### INSTRUCTIONS
             1. **summary**
                Provide a short neutral paragraph describing key similarities and differences.
@@ -429,21 +404,13 @@ public class ResumeService {
         
             7. **hiringAdvice**
                Provide 3–6 sentences telling a recruiter which candidate is better for typical tech roles, and considerations that matter.
-        
-    
-            ### FINAL INSTRUCTION
-            Respond with **ONLY** the JSON object, **STRICTLY** nothing else.
         """.formatted(
                     resumeArray.toPrettyString()
-            );
+            ));
 
         try {
-            String response = chatClient
-                    .prompt(prompt)
-                    .options(ChatOptions.builder().temperature(0.25).build())
-                    .call()
-                    .content();
-            return objectMapper.readTree(response);
+            String response = chatClient.call(LlmTask.COMPARISON, prompt, COMPARISON_FORMAT);
+            return pipelineObservations.observe(PipelineStage.JSON_PARSE, () -> objectMapper.readTree(response));
         } catch (Exception e) {
             throw new ResumeAnalysisException(e);
         }
@@ -0,0 +1,199 @@
+package fst.cvinsight.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import fst.cvinsight.backend.dto.ResumeStatsDto;
+import fst.cvinsight.backend.entity.Resume;
+import fst.cvinsight.backend.entity.ResumeStats;
+import fst.cvinsight.backend.entity.UserInfo;
+import fst.cvinsight.backend.model.ResumeOrigin;
+import fst.cvinsight.backend.repo.ResumeRepository;
+import fst.cvinsight.backend.repo.ResumeStatsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Maintains {@link ResumeStats} incrementally so the dashboard never has to
+ * load the user's resumes. Every hook must be called <b>before</b> the
+ * corresponding resume change is flushed: when the aggregate row does not
+ * exist yet it is rebuilt from the table, and the delta is applied on top.
+ * <p>
+ * The row is created with an insert that does nothing on conflict, then locked,
+ * so concurrent first writes of one user queue on it instead of both inserting.
+ */
+@Service
+@RequiredArgsConstructor
+public class ResumeStatsService {
+
+    private static final int TOP_SKILLS_LIMIT = 10;
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    private final ResumeStatsRepository statsRepository;
+    private final ResumeRepository resumeRepository;
+    private final UserInfoService userInfoService;
+
+    @Transactional
+    public ResumeStatsDto getStatsForCurrentUser() {
+        UserInfo user = userInfoService.getCurrentUser();
+        ResumeStats stats = statsRepository.findById(user.getId())
+                .orElseGet(() -> lockOrRebuild(user.getId()));
+        return toDto(stats);
+    }
+
+    @Transactional
+    public void onResumeSaved(Resume resume) {
+        ResumeStats stats = lockOrRebuild(resume.getUploadedBy().getId());
+        apply(stats, resume.getUploadedAt(), resume.getOrigin(), resume.getScore(), resume.getJsonContent(), 1);
+        if (stats.getLastUploadAt() == null || resume.getUploadedAt().isAfter(stats.getLastUploadAt())) {
+            stats.setLastUploadAt(resume.getUploadedAt());
+        }
+        statsRepository.save(stats);
+    }
+
+    /**
+     * Takes resumes of one owner out of the statistics, before they are deleted.
+     * When the latest upload is among them, lastUploadAt falls back to the latest
+     * upload left.
+     */
+    @Transactional
+    public void onResumesDeleted(UUID ownerId, List<? extends ResumeRepository.DeletionView> resumes) {
+        ResumeStats stats = lockOrRebuild(ownerId);
+        boolean latestDeleted = false;
+        for (ResumeRepository.DeletionView resume : resumes) {
+            apply(stats, resume.getUploadedAt(), resume.getOrigin(), resume.getScore(), resume.getJsonContent(), -1);
+            latestDeleted |= resume.getUploadedAt() != null && stats.getLastUploadAt() != null
+                    && !resume.getUploadedAt().isBefore(stats.getLastUploadAt());
+        }
+        if (latestDeleted) {
+            stats.setLastUploadAt(resumeRepository.findLastUploadAtExcluding(ownerId,
+                    resumes.stream().map(ResumeRepository.DeletionView::getId).toList()));
+        }
+        statsRepository.save(stats);
+    }
+
+    @Transactional
+    public void onResumeScored(UUID ownerId, Double previousScore, double score) {
+        ResumeStats stats = lockOrRebuild(ownerId);
+        if (previousScore != null) {
+            applyScore(stats, previousScore, -1);
+        }
+        applyScore(stats, score, 1);
+        statsRepository.save(stats);
+    }
+
+    /*
+     * Whoever inserts the empty row fills it from the resume table; the others wait
+     * on the insert and then on the lock, and see the filled row
+     */
+    private ResumeStats lockOrRebuild(UUID userId) {
+        boolean created = statsRepository.createIfMissing(userId) == 1;
+        ResumeStats stats = statsRepository.findForUpdate(userId)
+                .orElseThrow(() -> new IllegalStateException("No stats row for user " + userId));
+        if (created) {
+            rebuild(stats);
+        }
+        return stats;
+    }
+
+    private void rebuild(ResumeStats stats) {
+        UUID userId = stats.getUserId();
+        List<ResumeRepository.StatsView> resumes =
+                resumeRepository.findAllByUploadedById(userId, ResumeRepository.StatsView.class);
+        for (ResumeRepository.StatsView r : resumes) {
+            apply(stats, r.getUploadedAt(), r.getOrigin(), r.getScore(), r.getJsonContent(), 1);
+            if (stats.getLastUploadAt() == null || r.getUploadedAt().isAfter(stats.getLastUploadAt())) {
+                stats.setLastUploadAt(r.getUploadedAt());
+            }
+        }
+    }
+
+    private void apply(ResumeStats stats, LocalDateTime uploadedAt, ResumeOrigin origin,
+                       Double score, JsonNode jsonContent, int delta) {
+        stats.setResumeCount(stats.getResumeCount() + delta);
+        if (uploadedAt != null) {
+            increment(stats.getUploadsPerMonth(), uploadedAt.format(MONTH_FORMAT), delta);
+        }
+        if (origin != null) {
+            increment(stats.getOriginCounts(), origin.name(), delta);
+        }
+        if (score != null) {
+            applyScore(stats, score, delta);
+        }
+        for (String skill : extractSkills(jsonContent)) {
+            increment(stats.getSkillCounts(), skill, delta);
+        }
+    }
+
+    private void applyScore(ResumeStats stats, double score, int delta) {
+        stats.setScoredCount(stats.getScoredCount() + delta);
+        stats.setScoreSum(stats.getScoreSum() + delta * score);
+        increment(stats.getScoreDistribution(), scoreBand(score), delta);
+    }
+
+    private static void increment(Map<String, Integer> counts, String key, int delta) {
+        int value = counts.getOrDefault(key, 0) + delta;
+        if (value > 0) {
+            counts.put(key, value);
+        } else {
+            counts.remove(key);
+        }
+    }
+
+    /*
+     * Same bands as the scoring rules given to the model in ResumeAnalysisService
+     */
+    private static String scoreBand(double score) {
+        if (score < 40) return "0-39";
+        if (score < 60) return "40-59";
+        if (score < 80) return "60-79";
+        if (score < 90) return "80-89";
+        return "90-100";
+    }
+
+    private static Set<String> extractSkills(JsonNode jsonContent) {
+        Set<String> skills = new HashSet<>();
+        JsonNode skillsNode = jsonContent != null ? jsonContent.get("skills") : null;
+        if (skillsNode == null || !skillsNode.isArray()) {
+            return skills;
+        }
+        for (JsonNode item : skillsNode) {
+            String skill = item.isObject() ? item.path("name").asText("") : item.asText("");
+            skill = skill.trim().toLowerCase();
+            if (!skill.isEmpty()) {
+                skills.add(skill);
+            }
+        }
+        return skills;
+    }
+
+    private ResumeStatsDto toDto(ResumeStats stats) {
+        Double average = stats.getScoredCount() > 0
+                ? stats.getScoreSum() / stats.getScoredCount()
+                : null;
+        List<ResumeStatsDto.SkillCount> topSkills = stats.getSkillCounts().entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(TOP_SKILLS_LIMIT)
+                .map(e -> new ResumeStatsDto.SkillCount(e.getKey(), e.getValue()))
+                .toList();
+
+        return new ResumeStatsDto(
+                stats.getResumeCount(),
+                stats.getScoredCount(),
+                average,
+                stats.getLastUploadAt(),
+                stats.getScoreDistribution(),
+                stats.getUploadsPerMonth(),
+                stats.getOriginCounts(),
+                topSkills
+        );
+    }
+}
@@ -12,11 +12,13 @@ import java.util.stream.Stream;
 
 public class UserInfoDetails implements UserDetails {
 
+    private final UserInfo userInfo;
     private final String email;
     private final String password;
     private final List<GrantedAuthority> authorities;
 
     public UserInfoDetails(UserInfo userInfo) {
+        this.userInfo = userInfo;
         this.email = userInfo.getEmail(); // Use email as username
         this.password = userInfo.getPassword();
         this.authorities = Stream.of(userInfo.getRoles().split(","))
@@ -24,6 +26,13 @@ public class UserInfoDetails implements UserDetails {
                 .collect(Collectors.toList());
     }
 
+    /*
+     * The row loaded for authentication, so callers don't have to look it up again
+     */
+    public UserInfo getUserInfo() {
+        return userInfo;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
@@ -1,5 +1,6 @@
 package fst.cvinsight.backend.service;
 
+import fst.cvinsight.backend.datasource.ReplicaRouting;
 import fst.cvinsight.backend.entity.UserInfo;
 import fst.cvinsight.backend.entity.UserProfile;
 import fst.cvinsight.backend.model.AuthProvider;
@@ -11,6 +12,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -19,18 +21,24 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Service
 @AllArgsConstructor
-public class UserInfoService implements UserDetailsService {
+public class UserInfoService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserInfoRepository repository;
     private final UserProfileRepository userProfileRepository;
     private final PasswordEncoder encoder;
 
+    /*
+     * Read from the replica when one is configured; a user who registered a moment ago
+     * may not be there yet, so a miss is looked up again on the primary
+     */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Optional<UserInfo> userInfo = repository.findByEmail(username);
+        Optional<UserInfo> userInfo = repository.findByEmail(username)
+                .or(() -> ReplicaRouting.onPrimary(() -> repository.findByEmail(username)));
 
         if (userInfo.isEmpty()) {
             throw new UsernameNotFoundException("User not found with email: " + username);
@@ -40,6 +48,18 @@ public class UserInfoService implements UserDetailsService {
         return new UserInfoDetails(user);
     }
 
+    /*
+     * Stores the re-hashed password after a login whose stored hash had another work factor
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        UserInfo userInfo = ((UserInfoDetails) user).getUserInfo();
+        repository.updatePassword(userInfo.getId(), newPassword);
+        userInfo.setPassword(newPassword);
+        return new UserInfoDetails(userInfo);
+    }
+
     @Transactional
     public UserInfo findOrCreateOAuthUser(String email, String name,AuthProvider authProvider) {
         return repository.findByEmail(email)
@@ -77,12 +97,31 @@ public class UserInfoService implements UserDetailsService {
         return savedUser;
     }
 
+    /*
+     * The row JwtAuthFilter loaded to authenticate the request; looked up by name for
+     * other kinds of principal
+     */
     public UserInfo getCurrentUser(){
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication.getPrincipal() instanceof UserInfoDetails details) {
+            return details.getUserInfo();
+        }
         return repository.findByEmail(authentication.getName())
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + authentication.getName()));
     }
 
+    /**
+     * The authenticated user's id, taken from the principal set by JwtAuthFilter;
+     * empty for calls made outside a user request (warm-up, benchmarks).
+     */
+    public static Optional<UUID> currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserInfoDetails details) {
+            return Optional.of(details.getUserInfo().getId());
+        }
+        return Optional.empty();
+    }
+
     public UserInfo getUserByEmail(String email){
         return repository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
@@ -0,0 +1,255 @@
+package fst.cvinsight.backend.util;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Finds the candidate's email, phone number, LinkedIn and GitHub profile in
+ * extracted resume text, so the model does not have to generate them.
+ * <p>
+ * The text is scanned in place, without regular expressions or copies of the
+ * input; only the matched values are allocated. The first plausible match of
+ * each kind wins, which is the header of virtually every resume.
+ */
+@Component
+public class ContactScanner {
+
+    private static final int MIN_PHONE_DIGITS = 8;
+    private static final int MAX_PHONE_DIGITS = 15;
+    private static final int MAX_LOCAL_GROUP_DIGITS = 4;
+    private static final String LINKEDIN_HOST = "linkedin.com/in/";
+    private static final String GITHUB_HOST = "github.com/";
+
+    public record Contacts(String email, String phone, String linkedin, String github) {
+
+        /**
+         * Found values keyed by their field name in the {@code about} block.
+         */
+        public Map<String, String> asAboutFields() {
+            Map<String, String> fields = new LinkedHashMap<>();
+            if (email != null) fields.put("email", email);
+            if (phone != null) fields.put("phone", phone);
+            if (linkedin != null) fields.put("linkedin", linkedin);
+            if (github != null) fields.put("github", github);
+            return fields;
+        }
+    }
+
+    public Contacts scan(String text) {
+        return new Contacts(
+                findEmail(text),
+                findPhone(text),
+                findProfile(text, LINKEDIN_HOST),
+                findProfile(text, GITHUB_HOST));
+    }
+
+    String findEmail(String text) {
+        int at = text.indexOf('@');
+        while (at >= 0) {
+            int start = at;
+            while (start > 0 && isLocalPartChar(text.charAt(start - 1))) {
+                start--;
+            }
+            int end = at + 1;
+            int lastDot = -1;
+            while (end < text.length() && isDomainChar(text.charAt(end))) {
+                if (text.charAt(end) == '.') {
+                    lastDot = end;
+                }
+                end++;
+            }
+            // A trailing dot ends the sentence, not the domain
+            if (end > at + 1 && text.charAt(end - 1) == '.') {
+                end--;
+                lastDot = text.lastIndexOf('.', end - 1);
+            }
+            if (start < at && lastDot > at + 1 && end - lastDot > 2) {
+                return text.substring(start, end);
+            }
+            at = text.indexOf('@', at + 1);
+        }
+        return null;
+    }
+
+    String findPhone(String text) {
+        int i = 0;
+        int length = text.length();
+        while (i < length) {
+            char c = text.charAt(i);
+            if (c != '+' && c != '(' && !isDigit(c)) {
+                i++;
+                continue;
+            }
+            // Numbers glued to letters are identifiers, not phone numbers
+            if (i > 0 && Character.isLetterOrDigit(text.charAt(i - 1))) {
+                i++;
+                continue;
+            }
+            int end = i;
+            int digits = 0;
+            while (end < length && isPhoneChar(text.charAt(end))) {
+                if (isDigit(text.charAt(end))) {
+                    digits++;
+                }
+                end++;
+            }
+            while (end > i && !isDigit(text.charAt(end - 1))) {
+                end--;
+            }
+            if (digits >= MIN_PHONE_DIGITS && digits <= MAX_PHONE_DIGITS
+                    && (end >= length || !Character.isLetter(text.charAt(end)))
+                    && isPhoneShaped(text, i, end)
+                    && !isYearRange(text, i, end)) {
+                return text.substring(i, end);
+            }
+            i = Math.max(end, i + 1);
+        }
+        return null;
+    }
+
+    /*
+     * Returns https://<host><handle>, dropping anything after the handle
+     * (repository paths, query strings, trailing slashes).
+     */
+    String findProfile(String text, String host) {
+        int from = 0;
+        int hostIndex;
+        while ((hostIndex = indexOfIgnoreCase(text, host, from)) >= 0) {
+            int start = hostIndex + host.length();
+            int end = start;
+            while (end < text.length() && isHandleChar(text.charAt(end))) {
+                end++;
+            }
+            if (end > start) {
+                return "https://" + host + text.substring(start, end);
+            }
+            from = start;
+        }
+        return null;
+    }
+
+    /*
+     * A leading + or ( marks a phone number on its own. Otherwise the digits must come in
+     * at least two short groups, which rules out amounts and identifiers ("12000000"), and
+     * must not read as a date ("1990-05-17", "17.05.1990").
+     */
+    private static boolean isPhoneShaped(String text, int start, int end) {
+        char first = text.charAt(start);
+        if (first == '+' || first == '(') {
+            return !isDate(text, start, end);
+        }
+        int groups = 0;
+        int groupLength = 0;
+        for (int i = start; i <= end; i++) {
+            if (i < end && isDigit(text.charAt(i))) {
+                groupLength++;
+            } else if (groupLength > 0) {
+                if (groupLength > MAX_LOCAL_GROUP_DIGITS) {
+                    return false;
+                }
+                groups++;
+                groupLength = 0;
+            }
+        }
+        return groups >= 2 && !isDate(text, start, end);
+    }
+
+    /*
+     * Three digit groups: a year of 19xx or 20xx at one end and two groups of one or two
+     * digits, whatever the separators
+     */
+    private static boolean isDate(String text, int start, int end) {
+        int[] lengths = new int[3];
+        int[] starts = new int[3];
+        int groups = 0;
+        int groupLength = 0;
+        for (int i = start; i <= end; i++) {
+            if (i < end && isDigit(text.charAt(i))) {
+                if (groupLength == 0) {
+                    if (groups == 3) {
+                        return false;
+                    }
+                    starts[groups] = i;
+                }
+                groupLength++;
+            } else if (groupLength > 0) {
+                lengths[groups++] = groupLength;
+                groupLength = 0;
+            }
+        }
+        if (groups != 3) {
+            return false;
+        }
+        if (lengths[0] == 4 && lengths[1] <= 2 && lengths[2] <= 2) {
+            return isYear(text, starts[0]);
+        }
+        if (lengths[2] == 4 && lengths[0] <= 2 && lengths[1] <= 2) {
+            return isYear(text, starts[2]);
+        }
+        return false;
+    }
+
+    private static boolean isYear(String text, int start) {
+        char first = text.charAt(start);
+        char second = text.charAt(start + 1);
+        return (first == '1' && second == '9') || (first == '2' && second == '0');
+    }
+
+    private static boolean isYearRange(String text, int start, int end) {
+        int groupLength = 0;
+        int groupStart = -1;
+        for (int i = start; i <= end; i++) {
+            if (i < end && isDigit(text.charAt(i))) {
+                if (groupLength == 0) {
+                    groupStart = i;
+                }
+                groupLength++;
+            } else if (groupLength > 0) {
+                if (groupLength != 4) {
+                    return false;
+                }
+                if (!isYear(text, groupStart)) {
+                    return false;
+                }
+                groupLength = 0;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOfIgnoreCase(String text, String needle, int from) {
+        int last = text.length() - needle.length();
+        for (int i = from; i <= last; i++) {
+            if (text.regionMatches(true, i, needle, 0, needle.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isAsciiAlphanumeric(char c) {
+        return isDigit(c) || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isLocalPartChar(char c) {
+        return isAsciiAlphanumeric(c) || c == '.' || c == '_' || c == '%' || c == '+' || c == '-';
+    }
+
+    private static boolean isDomainChar(char c) {
+        return isAsciiAlphanumeric(c) || c == '.' || c == '-';
+    }
+
+    private static boolean isPhoneChar(char c) {
+        return isDigit(c) || c == ' ' || c == '.' || c == '-' || c == '(' || c == ')' || c == '+';
+    }
+
+    private static boolean isHandleChar(char c) {
+        return isAsciiAlphanumeric(c) || c == '-' || c == '_';
+    }
+}
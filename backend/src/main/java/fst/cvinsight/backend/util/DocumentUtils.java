@@ -1,40 +1,104 @@
 package fst.cvinsight.backend.util;
 
+import fst.cvinsight.backend.metrics.PipelineObservations;
+import fst.cvinsight.backend.metrics.PipelineStage;
+import io.micrometer.observation.Observation;
 import org.apache.tika.exception.TikaException;
+import org.apache.tika.metadata.TikaCoreProperties;
 import org.apache.tika.metadata.Metadata;
 import org.apache.tika.parser.AutoDetectParser;
 import org.apache.tika.parser.ParseContext;
 import org.apache.tika.parser.ocr.TesseractOCRConfig;
+import org.apache.tika.parser.ocr.TesseractOCRParser;
 import org.apache.tika.sax.BodyContentHandler;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
 import org.xml.sax.SAXException;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 @Component
 public class DocumentUtils {
 
+    // AutoDetectParser is thread-safe; building it scans the parser registry, so do it once
+    private final AutoDetectParser parser = new AutoDetectParser();
+    private final ThreadPoolTaskExecutor extractionExecutor;
+    private final PipelineObservations observations;
+    private final String ocrLanguages;
+    private final boolean ocrImagePreprocessing;
+
+    public DocumentUtils(@Qualifier("documentExtractionExecutor") ThreadPoolTaskExecutor extractionExecutor,
+                         PipelineObservations observations,
+                         @Value("${document.ocr.languages:eng+fra+deu+ara}") String ocrLanguages,
+                         @Value("${document.ocr.image-preprocessing:true}") boolean ocrImagePreprocessing) {
+        this.extractionExecutor = extractionExecutor;
+        this.observations = observations;
+        this.ocrLanguages = ocrLanguages;
+        this.ocrImagePreprocessing = ocrImagePreprocessing;
+    }
+
     /**
      * Extracts text from PDF, DOC, DOCX, and performs OCR on scanned PDFs.
+     * Parsing runs on the bounded document-extraction pool; the caller only waits.
      */
     public String extractText(File file) throws IOException {
-        try (FileInputStream stream = new FileInputStream(file)) {
-            AutoDetectParser parser = new AutoDetectParser();
+        Future<String> result;
+        Observation queueWait = observations.start(PipelineStage.EXTRACTION_QUEUE);
+        try {
+            result = extractionExecutor.submit(() -> {
+                queueWait.stop();
+                return parse(file);
+            });
+        } catch (TaskRejectedException e) {
+            queueWait.error(e).stop();
+            throw new IOException("Document extraction is overloaded, please retry later", e);
+        }
+
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IOException("Text extraction was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Error extracting text: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /*
+     * Recorded as text_parse, or as ocr when Tesseract had to run on the document or its images
+     */
+    private String parse(File file) throws IOException {
+        Observation observation = observations.start(PipelineStage.TEXT_PARSE);
+        try (Observation.Scope scope = observation.openScope();
+             FileInputStream stream = new FileInputStream(file)) {
             BodyContentHandler handler = new BodyContentHandler(-1);
             Metadata metadata = new Metadata();
 
             // Configure OCR (Tesseract)
             TesseractOCRConfig tesseractConfig = new TesseractOCRConfig();
-            tesseractConfig.setLanguage("eng+fra+deu+ara");
-            tesseractConfig.setEnableImagePreprocessing(true);
+            tesseractConfig.setLanguage(ocrLanguages);
+            tesseractConfig.setEnableImagePreprocessing(ocrImagePreprocessing);
             tesseractConfig.setPreserveInterwordSpacing(true);
 
             ParseContext context = new ParseContext();
             context.set(TesseractOCRConfig.class, tesseractConfig);
 
             parser.parse(stream, handler, metadata, context);
+            if (usedOcr(metadata)) {
+                observation.lowCardinalityKeyValue("stage", PipelineStage.OCR.tag());
+            }
             String text = handler.toString().trim();
 
             if (text.isEmpty()) {
@@ -44,7 +108,18 @@ public class DocumentUtils {
             return text;
 
         } catch (TikaException | SAXException e) {
+            observation.error(e);
             throw new IOException("Error extracting text: " + e.getMessage(), e);
+        } catch (IOException e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
         }
     }
+
+    private static boolean usedOcr(Metadata metadata) {
+        return Arrays.asList(metadata.getValues(TikaCoreProperties.TIKA_PARSED_BY_FULL_SET))
+                .contains(TesseractOCRParser.class.getName());
+    }
 }
@@ -0,0 +1,137 @@
+package fst.cvinsight.backend.util;
+
+import fst.cvinsight.backend.model.ResumeSection;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Splits extracted resume text into sections by recognizing headings in
+ * English, French, German and Arabic (the OCR languages of {@link DocumentUtils}).
+ * Text before the first heading belongs to {@link ResumeSection#ABOUT}; repeated
+ * headings of the same kind are concatenated in document order.
+ */
+@Component
+public class ResumeSectionSegmenter {
+
+    private static final int MAX_HEADING_LENGTH = 50;
+    private static final int MAX_HEADING_WORDS = 5;
+
+    // Heading phrases, compared after the same normalization as the lines (lowercase, no diacritics or punctuation)
+    private static final Map<ResumeSection, List<String>> HEADINGS = Map.of(
+            ResumeSection.ABOUT, List.of(
+                    "about", "about me", "summary", "professional summary", "profile", "objective",
+                    "contact", "contact information", "personal information",
+                    "profil", "a propos", "a propos de moi", "coordonnees", "informations personnelles",
+                    "zusammenfassung", "uber mich", "kurzprofil", "kontakt", "personliche daten",
+                    "نبذة", "نبذة عني", "الملخص", "معلومات شخصية"),
+            ResumeSection.WORK, List.of(
+                    "experience", "experiences", "work experience", "professional experience",
+                    "professional experiences", "employment", "employment history", "work history",
+                    "internships", "internship",
+                    "experience professionnelle", "experiences professionnelles", "parcours professionnel",
+                    "stages", "stage",
+                    "berufserfahrung", "berufliche erfahrung", "beruflicher werdegang", "werdegang",
+                    "praktika", "praktikum",
+                    "الخبرة", "الخبرات", "الخبرة المهنية", "الخبرات المهنية"),
+            ResumeSection.EDUCATION, List.of(
+                    "education", "academic background", "academic education",
+                    "formation", "formations", "formation academique", "parcours academique", "etudes",
+                    "ausbildung", "bildung", "bildungsweg", "studium", "akademischer werdegang",
+                    "التعليم", "التكوين", "المؤهلات العلمية", "المسار الدراسي"),
+            ResumeSection.PROJECTS, List.of(
+                    "projects", "personal projects", "academic projects",
+                    "projets", "projets academiques", "projets personnels",
+                    "projekte",
+                    "المشاريع", "مشاريع"),
+            ResumeSection.SKILLS, List.of(
+                    "skills", "technical skills", "hard skills", "soft skills", "technologies",
+                    "competences", "competences techniques",
+                    "kenntnisse", "fahigkeiten", "fachkenntnisse", "it kenntnisse",
+                    "المهارات", "الكفاءات"),
+            ResumeSection.LANGUAGES, List.of(
+                    "languages", "langues", "sprachen", "sprachkenntnisse", "اللغات"),
+            ResumeSection.CERTIFICATIONS, List.of(
+                    "certifications", "certification", "certificates", "licenses certifications",
+                    "zertifikate", "zertifizierungen",
+                    "الشهادات"),
+            ResumeSection.SOCIAL_ACTIVITIES, List.of(
+                    "volunteering", "volunteer experience", "activities", "extracurricular activities",
+                    "associative life", "vie associative", "activites", "activites associatives", "benevolat",
+                    "ehrenamt", "ehrenamtliches engagement", "engagement",
+                    "الأنشطة", "العمل التطوعي")
+    );
+
+    private static final Map<String, ResumeSection> PHRASES = new HashMap<>();
+    private static final Map<String, ResumeSection> KEYWORDS = new HashMap<>();
+
+    static {
+        HEADINGS.forEach((section, phrases) -> phrases.stream().map(ResumeSectionSegmenter::normalize).forEach(phrase -> {
+            PHRASES.put(phrase, section);
+            if (phrase.indexOf(' ') < 0) {
+                KEYWORDS.put(phrase, section);
+            }
+        }));
+    }
+
+    public Map<ResumeSection, String> segment(String text) {
+        Map<ResumeSection, StringBuilder> sections = new EnumMap<>(ResumeSection.class);
+        ResumeSection current = ResumeSection.ABOUT;
+        for (String line : text.split("\\R")) {
+            ResumeSection heading = detectHeading(line);
+            if (heading != null) {
+                current = heading;
+            } else if (!line.isBlank()) {
+                sections.computeIfAbsent(current, s -> new StringBuilder()).append(line.strip()).append('\n');
+            }
+        }
+
+        Map<ResumeSection, String> result = new EnumMap<>(ResumeSection.class);
+        sections.forEach((section, content) -> result.put(section, content.toString()));
+        return result;
+    }
+
+    /*
+     * A line is a heading when it is exactly a known phrase, or when it is short,
+     * visually marked as a title (all caps or trailing colon) and contains a known keyword.
+     */
+    ResumeSection detectHeading(String line) {
+        String trimmed = line.strip();
+        if (trimmed.isEmpty() || trimmed.length() > MAX_HEADING_LENGTH) {
+            return null;
+        }
+        String normalized = normalize(trimmed);
+        ResumeSection exact = PHRASES.get(normalized);
+        if (exact != null || !looksLikeTitle(trimmed)) {
+            return exact;
+        }
+        String[] words = normalized.split(" ");
+        if (words.length > MAX_HEADING_WORDS) {
+            return null;
+        }
+        for (String word : words) {
+            ResumeSection section = KEYWORDS.get(word);
+            if (section != null) {
+                return section;
+            }
+        }
+        return null;
+    }
+
+    private static boolean looksLikeTitle(String line) {
+        return line.endsWith(":") || (line.chars().anyMatch(Character::isLetter)
+                && line.equals(line.toUpperCase(Locale.ROOT)));
+    }
+
+    private static String normalize(String line) {
+        String stripped = Normalizer.normalize(line, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT);
+        return stripped.replaceAll("[^\\p{L}\\p{N}]+", " ").strip();
+    }
+}
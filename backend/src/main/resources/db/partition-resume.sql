@@ -0,0 +1,40 @@
+-- Turns resume into a table hash-partitioned by user_id, in 16 partitions.
+-- Every query on single resumes filters on the owner (ResumeRepository), so
+-- Postgres only reads one partition, and each partition is vacuumed on its own.
+--
+-- Run once, in one transaction, after Hibernate created the schema and while the
+-- application is stopped: psql -1 -f partition-resume.sql
+-- Hibernate's ddl-auto=update accepts the partitioned table as it is.
+-- The primary key must contain the partition key, so it becomes (user_id, id);
+-- ids are random UUIDs and stay unique on their own.
+
+alter table resume rename to resume_unpartitioned;
+alter index resume_uploaded_at_idx rename to resume_unpartitioned_uploaded_at_idx;
+
+create table resume (
+    like resume_unpartitioned including defaults including constraints including storage,
+    primary key (user_id, id)
+) partition by hash (user_id);
+
+create table resume_p0 partition of resume for values with (modulus 16, remainder 0);
+create table resume_p1 partition of resume for values with (modulus 16, remainder 1);
+create table resume_p2 partition of resume for values with (modulus 16, remainder 2);
+create table resume_p3 partition of resume for values with (modulus 16, remainder 3);
+create table resume_p4 partition of resume for values with (modulus 16, remainder 4);
+create table resume_p5 partition of resume for values with (modulus 16, remainder 5);
+create table resume_p6 partition of resume for values with (modulus 16, remainder 6);
+create table resume_p7 partition of resume for values with (modulus 16, remainder 7);
+create table resume_p8 partition of resume for values with (modulus 16, remainder 8);
+create table resume_p9 partition of resume for values with (modulus 16, remainder 9);
+create table resume_p10 partition of resume for values with (modulus 16, remainder 10);
+create table resume_p11 partition of resume for values with (modulus 16, remainder 11);
+create table resume_p12 partition of resume for values with (modulus 16, remainder 12);
+create table resume_p13 partition of resume for values with (modulus 16, remainder 13);
+create table resume_p14 partition of resume for values with (modulus 16, remainder 14);
+create table resume_p15 partition of resume for values with (modulus 16, remainder 15);
+
+create index resume_uploaded_at_idx on resume (uploaded_at);
+alter table resume add foreign key (user_id) references user_info (id);
+
+insert into resume select * from resume_unpartitioned;
+drop table resume_unpartitioned;
@@ -0,0 +1,99 @@
+package fst.cvinsight.backend.controller;
+
+import fst.cvinsight.backend.entity.UserInfo;
+import fst.cvinsight.backend.mapper.UserInfoMapper;
+import fst.cvinsight.backend.service.BoundedBCryptPasswordEncoder;
+import fst.cvinsight.backend.service.JwtService;
+import fst.cvinsight.backend.service.UserInfoDetails;
+import fst.cvinsight.backend.service.UserInfoService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/*
+ * Login through a real DaoAuthenticationProvider and a one-thread hashing pool with a
+ * one-task queue
+ */
+class AuthControllerTests {
+
+    private static final String LOGIN = "{\"email\":\"jane.doe@example.com\",\"password\":\"s3cret\"}";
+
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.initialize();
+
+        UserInfo user = new UserInfo();
+        user.setId(UUID.randomUUID());
+        user.setEmail("jane.doe@example.com");
+        user.setPassword(new BCryptPasswordEncoder(4).encode("s3cret"));
+        user.setRoles("ROLE_USER");
+        UserInfoDetails details = new UserInfoDetails(user);
+        UserInfoService userInfoService = mock(UserInfoService.class);
+        when(userInfoService.loadUserByUsername("jane.doe@example.com")).thenReturn(details);
+
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userInfoService);
+        provider.setPasswordEncoder(new BoundedBCryptPasswordEncoder(4, executor, new SimpleMeterRegistry()));
+        JwtService jwtService = mock(JwtService.class);
+        when(jwtService.generateToken("jane.doe@example.com")).thenReturn("token");
+        mockMvc = MockMvcBuilders.standaloneSetup(new AuthController(userInfoService, jwtService,
+                new ProviderManager(provider), Mappers.getMapper(UserInfoMapper.class))).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void logsInWhileTheHashingPoolHasRoom() throws Exception {
+        mockMvc.perform(post("/auth/login").contentType(MediaType.APPLICATION_JSON).content(LOGIN))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value("token"));
+    }
+
+    @Test
+    void answers503WhenTheHashingPoolIsSaturated() throws Exception {
+        executor.execute(this::block);
+        executor.execute(this::block);
+
+        mockMvc.perform(post("/auth/login").contentType(MediaType.APPLICATION_JSON).content(LOGIN))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    private void block() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
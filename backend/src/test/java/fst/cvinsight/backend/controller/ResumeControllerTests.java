@@ -0,0 +1,162 @@
+package fst.cvinsight.backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fst.cvinsight.backend.dto.ResumeDto;
+import fst.cvinsight.backend.entity.Resume;
+import fst.cvinsight.backend.entity.UserInfo;
+import fst.cvinsight.backend.exception.GeneralExceptionHandler;
+import fst.cvinsight.backend.llm.TieredChatClient;
+import fst.cvinsight.backend.metrics.PipelineObservations;
+import fst.cvinsight.backend.model.ResumeOrigin;
+import fst.cvinsight.backend.outbox.OutboxPublisher;
+import fst.cvinsight.backend.render.ResumeRenderer;
+import fst.cvinsight.backend.repo.ResumeRepository;
+import fst.cvinsight.backend.service.LlmQuotaService;
+import fst.cvinsight.backend.service.ResumeAnalysisService;
+import fst.cvinsight.backend.service.ResumeExtractionService;
+import fst.cvinsight.backend.service.ResumeService;
+import fst.cvinsight.backend.service.ResumeStatsService;
+import fst.cvinsight.backend.service.UserInfoService;
+import fst.cvinsight.backend.util.DocumentUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/*
+ * Conditional GETs against the real ResumeService, with the repository returning the
+ * validators of a stored resume
+ */
+class ResumeControllerTests {
+
+    private static final UUID OWNER = UUID.randomUUID();
+    private static final UUID RESUME = UUID.randomUUID();
+    private static final String CONTENT_HASH = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+
+    private final ResumeRepository resumeRepository = mock(ResumeRepository.class);
+    private final UserInfoService userInfoService = mock(UserInfoService.class);
+    private MockMvc mockMvc;
+
+    private record Validator(UUID getId, UUID getOwnerId, String getContentHash, long getVersion)
+            implements ResumeRepository.ValidatorView {
+    }
+
+    @BeforeEach
+    void setUp() {
+        UserInfo owner = new UserInfo();
+        owner.setId(OWNER);
+        when(userInfoService.getCurrentUser()).thenReturn(owner);
+        storedVersion(0);
+        when(resumeRepository.findDtoByIdAndOwner(RESUME, OWNER)).thenReturn(Optional.of(new ResumeDto(RESUME,
+                "resume.pdf", "application/pdf", 4, OWNER, LocalDateTime.of(2025, 3, 10, 9, 0),
+                "{\"about\":{}}", ResumeOrigin.USER_UPLOADED, null)));
+        when(resumeRepository.findDtosByOwner(OWNER)).thenAnswer(invocation ->
+                List.of(resumeRepository.findDtoByIdAndOwner(RESUME, OWNER).orElseThrow()));
+        Resume resume = new Resume();
+        resume.setFilename("resume.pdf");
+        resume.setContentType("application/pdf");
+        resume.setFileData(new byte[]{'%', 'P', 'D', 'F'});
+        when(resumeRepository.findByIdAndUploadedById(RESUME, OWNER)).thenReturn(Optional.of(resume));
+
+        ResumeService resumeService = new ResumeService(mock(TieredChatClient.class), mock(DocumentUtils.class),
+                resumeRepository, userInfoService, new ObjectMapper(), mock(ResumeStatsService.class),
+                mock(TransactionTemplate.class), mock(ResumeExtractionService.class), mock(PipelineObservations.class),
+                mock(LlmQuotaService.class), mock(ResumeRenderer.class), mock(ResumeAnalysisService.class),
+                mock(OutboxPublisher.class));
+        mockMvc = MockMvcBuilders.standaloneSetup(new ResumeController(mock(DocumentUtils.class), resumeService,
+                        mock(ResumeStatsService.class), mock(PipelineObservations.class), mock(ResumeRenderer.class)))
+                .setControllerAdvice(new GeneralExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void resumeIsNotSentAgainUntilItsVersionChanges() throws Exception {
+        String eTag = mockMvc.perform(get("/resume/{id}", RESUME))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(content().json("{\"jsonContent\":{\"about\":{}}}"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/resume/{id}", RESUME).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        storedVersion(1);
+        mockMvc.perform(get("/resume/{id}", RESUME).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"" + CONTENT_HASH + "-1\""));
+    }
+
+    @Test
+    void resumeListIsNotSentAgainUntilOneOfItsResumesChanges() throws Exception {
+        String eTag = mockMvc.perform(get("/resume"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/resume").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        storedVersion(1);
+        mockMvc.perform(get("/resume").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void downloadIsRevalidatedByContentHashAlone() throws Exception {
+        String eTag = "\"" + CONTENT_HASH + "\"";
+        mockMvc.perform(get("/resume/{id}/file", RESUME))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"resume.pdf\""))
+                .andExpect(content().bytes(new byte[]{'%', 'P', 'D', 'F'}));
+
+        // A score write-back bumps the version, but the file itself never changes
+        storedVersion(1);
+        mockMvc.perform(get("/resume/{id}/file", RESUME).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get("/resume/{id}/file", RESUME).header(HttpHeaders.IF_NONE_MATCH, "\"other\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void anotherUsersResumeIsNotFound() throws Exception {
+        UserInfo stranger = new UserInfo();
+        stranger.setId(UUID.randomUUID());
+        when(userInfoService.getCurrentUser()).thenReturn(stranger);
+
+        mockMvc.perform(get("/resume/{id}", RESUME))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/resume/{id}/file", RESUME))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/resume/{id}", RESUME))
+                .andExpect(status().isNotFound());
+        verify(resumeRepository, never()).deleteByIdAndOwner(any(), any(), anyLong());
+    }
+
+    private void storedVersion(long version) {
+        Validator validator = new Validator(RESUME, OWNER, CONTENT_HASH, version);
+        when(resumeRepository.findValidatorByIdAndOwner(any(), any())).thenReturn(Optional.empty());
+        when(resumeRepository.findValidatorByIdAndOwner(RESUME, OWNER)).thenReturn(Optional.of(validator));
+        when(resumeRepository.findValidatorsByOwner(OWNER)).thenReturn(List.of(validator));
+    }
+}
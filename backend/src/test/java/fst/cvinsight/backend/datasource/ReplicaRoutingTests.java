@@ -0,0 +1,150 @@
+package fst.cvinsight.backend.datasource;
+
+import fst.cvinsight.backend.entity.UserInfo;
+import fst.cvinsight.backend.service.UserInfoDetails;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/*
+ * The replica is a mocked DataSource answering the lag query with a given number of
+ * seconds, or refusing connections
+ */
+class ReplicaRoutingTests {
+
+    private final DataSource replica = mock(DataSource.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReplicaRouting routing =
+            new ReplicaRouting(replica, Duration.ofSeconds(10), Duration.ofHours(1), meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void readsFromTheReplicaWhileItKeepsUp() throws SQLException {
+        replicaLagging(2);
+
+        assertThat(routing.useReplica()).isTrue();
+        assertThat(meterRegistry.get("datasource.replica.lag").gauge().value()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("datasource.reads").tag("target", "replica").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void readsFromThePrimaryWhileTheReplicaLagsMoreThanMaxLag() throws SQLException {
+        replicaLagging(30);
+        assertThat(routing.useReplica()).isFalse();
+
+        replicaLagging(0);
+        assertThat(routing.useReplica()).isTrue();
+    }
+
+    @Test
+    void readsFromThePrimaryWhileTheReplicaIsDown() throws SQLException {
+        assertThat(routing.useReplica()).isFalse();
+
+        replicaLagging(0);
+        when(replica.getConnection()).thenThrow(new SQLException("connection refused"));
+        routing.checkLag();
+
+        assertThat(routing.useReplica()).isFalse();
+        assertThat(meterRegistry.get("datasource.replica.lag").gauge().value()).isNaN();
+        assertThat(meterRegistry.get("datasource.reads").tag("target", "primary").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void replicaRefusingAConnectionSendsTheReadToThePrimary() throws SQLException {
+        replicaLagging(0);
+        DataSource primary = mock(DataSource.class);
+        Connection primaryConnection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(primary.getConnection("reporting", "s3cret")).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenThrow(new SQLException("too many connections"));
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary, replica, routing);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        assertThat(routing.useReplica()).isFalse();
+        assertThat(dataSource.getConnection("reporting", "s3cret")).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void pinsAUserToThePrimaryAfterTheirWriteCommits() throws SQLException {
+        replicaLagging(0);
+        signIn();
+        TransactionSynchronizationManager.initSynchronization();
+
+        routing.onWriteTransaction();
+        assertThat(routing.useReplica()).isTrue();
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(routing.useReplica()).isFalse();
+        // Other users keep reading from the replica
+        signIn();
+        assertThat(routing.useReplica()).isTrue();
+    }
+
+    @Test
+    void onPrimaryReadsThePrimaryForItsDurationOnly() throws SQLException {
+        replicaLagging(0);
+
+        assertThat(ReplicaRouting.onPrimary(() -> ReplicaRouting.onPrimary(routing::useReplica))).isFalse();
+        assertThat(ReplicaRouting.onPrimary(() -> {
+            ReplicaRouting.onPrimary(() -> null);
+            return routing.useReplica();
+        })).isFalse();
+        assertThat(routing.useReplica()).isTrue();
+    }
+
+    /*
+     * Answers the next lag query with the given lag and runs it
+     */
+    private void replicaLagging(double seconds) throws SQLException {
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(replica.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true, false);
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(metaData.getColumnCount()).thenReturn(1);
+        when(resultSet.getDouble(1)).thenReturn(seconds);
+        routing.checkLag();
+    }
+
+    private static void signIn() {
+        UserInfo user = new UserInfo();
+        user.setId(UUID.randomUUID());
+        user.setRoles("ROLE_USER");
+        UserInfoDetails details = new UserInfoDetails(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(details, null, details.getAuthorities()));
+    }
+}
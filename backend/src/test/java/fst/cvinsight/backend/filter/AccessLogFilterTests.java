@@ -0,0 +1,32 @@
+package fst.cvinsight.backend.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccessLogFilterTests {
+
+    private final AccessLogFilter filter = new AccessLogFilter(new SimpleMeterRegistry(), 0.1, Duration.ofSeconds(2),
+            List.of("User-Agent"), List.of("Authorization"), List.of("code", "token", "access_token"));
+
+    @Test
+    void redactsSensitiveParametersOnly() {
+        assertThat(filter.redactQuery("page=2&token=abc&Code=xyz&flag"))
+                .isEqualTo("page=2&token=[REDACTED]&Code=[REDACTED]&flag");
+    }
+
+    @Test
+    void redactsEncodedParameterNames() {
+        assertThat(filter.redactQuery("%74oken=abc&access%5Ftoken=def&%63ode+=ghi&q=%74oken"))
+                .isEqualTo("%74oken=[REDACTED]&access%5Ftoken=[REDACTED]&%63ode+=[REDACTED]&q=%74oken");
+    }
+
+    @Test
+    void redactsParametersWhoseNameDoesNotDecode() {
+        assertThat(filter.redactQuery("%zzoken=abc&page=1")).isEqualTo("%zzoken=[REDACTED]&page=1");
+    }
+}
@@ -0,0 +1,44 @@
+package fst.cvinsight.backend.llm;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import fst.cvinsight.backend.llm.schema.CareerRecommendation;
+import fst.cvinsight.backend.llm.schema.ExtractedResume;
+import fst.cvinsight.backend.llm.schema.SectionAnalysis;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonSchemasTests {
+
+    @Test
+    void keepsRecordComponentOrderAtEveryLevel() {
+        ObjectNode schema = JsonSchemas.forType(ExtractedResume.class);
+
+        assertThat(schema.get("properties").fieldNames()).toIterable().containsExactly(
+                "about", "education", "work", "projects", "skills", "languages", "certifications", "socialActivities");
+        assertThat(schema.at("/properties/work/items/properties").fieldNames()).toIterable().containsExactly(
+                "position", "company", "startDate", "endDate", "description", "type");
+        assertThat(schema.at("/properties/about/required")).hasSize(10);
+    }
+
+    @Test
+    void wrapsItemSchemaForArrays() {
+        ObjectNode schema = JsonSchemas.arrayOf(CareerRecommendation.class);
+
+        assertThat(schema.get("type").asText()).isEqualTo("array");
+        assertThat(schema.at("/items/properties/type/enum")).hasSize(4);
+        assertThat(schema.at("/items/$schema").isMissingNode()).isTrue();
+    }
+
+    @Test
+    void requiresEveryPropertyOfAnObjectOfValues() {
+        ObjectNode schema = JsonSchemas.objectOf(List.of("work", "skills"), SectionAnalysis.class);
+
+        assertThat(schema.get("properties").fieldNames()).toIterable().containsExactly("work", "skills");
+        assertThat(schema.get("required")).extracting(node -> node.asText()).containsExactly("work", "skills");
+        assertThat(schema.at("/properties/skills/properties/score/type").asText()).isEqualTo("integer");
+        assertThat(schema.at("/properties/work/$schema").isMissingNode()).isTrue();
+    }
+}
@@ -0,0 +1,175 @@
+package fst.cvinsight.backend.llm;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.ollama.api.OllamaApi;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OllamaModelWarmerTests {
+
+    private final OllamaApi api = mock(OllamaApi.class);
+    private final OllamaApi otherApi = mock(OllamaApi.class);
+    private final TaskScheduler taskScheduler = mock(TaskScheduler.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final List<Runnable> scheduled = new ArrayList<>();
+    private final List<ReadinessState> published = new ArrayList<>();
+    private OllamaModelWarmer warmer;
+
+    @BeforeEach
+    void setUp() {
+        when(taskScheduler.schedule(any(Runnable.class), any(Instant.class))).thenAnswer(invocation -> {
+            scheduled.add(invocation.getArgument(0));
+            return null;
+        });
+        doAnswer(invocation -> {
+            if (invocation.getArgument(0) instanceof AvailabilityChangeEvent<?> change
+                    && change.getState() instanceof ReadinessState state) {
+                published.add(state);
+            }
+            return null;
+        }).when(eventPublisher).publishEvent(any(ApplicationEvent.class));
+
+        warmer = warmer(backend("http://ollama-1:11434", api));
+    }
+
+    @Test
+    void readyOnlyOnceEveryModelIsLoaded() {
+        when(api.chat(any())).thenThrow(new IllegalStateException("connection refused"))
+                .thenReturn(null);
+
+        warmer.onApplicationReady();
+        runScheduled();
+
+        assertThat(warmer.isWarm()).isFalse();
+        assertThat(published).isEmpty();
+        assertThat(scheduled).as("retry").hasSize(1);
+
+        runScheduled();
+
+        assertThat(warmer.isWarm()).isTrue();
+        assertThat(published).containsExactly(ReadinessState.ACCEPTING_TRAFFIC);
+    }
+
+    @Test
+    void failedKeepAliveRefusesTrafficAndWarmsUpAgain() {
+        warmer.onApplicationReady();
+        runScheduled();
+        published.clear();
+
+        when(api.chat(any())).thenThrow(new IllegalStateException("model not found"));
+        warmer.keepAlive();
+        warmer.keepAlive();
+
+        assertThat(warmer.isWarm()).isFalse();
+        assertThat(published).containsExactly(ReadinessState.REFUSING_TRAFFIC);
+        assertThat(scheduled).as("one warm-up for both failed pings").hasSize(1);
+
+        doReturn(null).when(api).chat(any());
+        runScheduled();
+
+        assertThat(warmer.isWarm()).isTrue();
+        assertThat(published).containsExactly(ReadinessState.REFUSING_TRAFFIC, ReadinessState.ACCEPTING_TRAFFIC);
+        assertThat(scheduled).isEmpty();
+    }
+
+    @Test
+    void readinessIsHeldBackWhileColdAndLeftAloneOnceWarm() {
+        warmer.onReadinessChange(new AvailabilityChangeEvent<>(this, ReadinessState.ACCEPTING_TRAFFIC));
+        assertThat(published).containsExactly(ReadinessState.REFUSING_TRAFFIC);
+
+        warmer.onApplicationReady();
+        runScheduled();
+        published.clear();
+
+        warmer.onReadinessChange(new AvailabilityChangeEvent<>(this, ReadinessState.ACCEPTING_TRAFFIC));
+        assertThat(published).isEmpty();
+    }
+
+    @Test
+    void readyWhileABackendIsDownAndWarmsItInTheBackground() {
+        warmer = warmer(backend("http://ollama-1:11434", api), backend("http://ollama-2:11434", otherApi));
+        when(otherApi.chat(any())).thenThrow(new IllegalStateException("connection refused"));
+
+        warmer.onApplicationReady();
+        runScheduled();
+
+        assertThat(warmer.isWarm()).isTrue();
+        assertThat(published).containsExactly(ReadinessState.ACCEPTING_TRAFFIC);
+        assertThat(scheduled).as("retry on the cold backend").hasSize(1);
+
+        doReturn(null).when(otherApi).chat(any());
+        runScheduled();
+
+        assertThat(published).containsExactly(ReadinessState.ACCEPTING_TRAFFIC);
+        assertThat(scheduled).isEmpty();
+    }
+
+    @Test
+    void failedKeepAliveOnOneBackendKeepsTrafficFlowing() {
+        warmer = warmer(backend("http://ollama-1:11434", api), backend("http://ollama-2:11434", otherApi));
+        warmer.onApplicationReady();
+        runScheduled();
+        published.clear();
+
+        when(otherApi.chat(any())).thenThrow(new IllegalStateException("model not found"));
+        warmer.keepAlive();
+
+        assertThat(warmer.isWarm()).isTrue();
+        assertThat(published).isEmpty();
+        assertThat(scheduled).as("warm-up of the backend that lost its models").hasSize(1);
+
+        when(api.chat(any())).thenThrow(new IllegalStateException("model not found"));
+        warmer.keepAlive();
+
+        assertThat(published).containsExactly(ReadinessState.REFUSING_TRAFFIC);
+    }
+
+    @Test
+    void modelsOnUnavailableBackendsDoNotCount() {
+        OllamaBackend unavailable = backend("http://ollama-1:11434", api);
+        warmer = warmer(unavailable);
+        warmer.onApplicationReady();
+        runScheduled();
+
+        when(unavailable.isAvailable()).thenReturn(false);
+
+        assertThat(warmer.isWarm()).isFalse();
+    }
+
+    private OllamaModelWarmer warmer(OllamaBackend... backends) {
+        RoutingChatModel router = mock(RoutingChatModel.class);
+        when(router.getBackends()).thenReturn(List.of(backends));
+        return new OllamaModelWarmer(router, List.of("small", "large"), mock(LlmProfiles.class),
+                "30m", Duration.ofSeconds(15), true, taskScheduler, eventPublisher);
+    }
+
+    private static OllamaBackend backend(String baseUrl, OllamaApi api) {
+        OllamaBackend backend = mock(OllamaBackend.class);
+        when(backend.getBaseUrl()).thenReturn(baseUrl);
+        when(backend.getApi()).thenReturn(api);
+        when(backend.isAvailable()).thenReturn(true);
+        return backend;
+    }
+
+    private void runScheduled() {
+        List<Runnable> tasks = new ArrayList<>(scheduled);
+        scheduled.clear();
+        tasks.forEach(Runnable::run);
+    }
+}
@@ -0,0 +1,79 @@
+package fst.cvinsight.backend.llm;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.ollama.api.OllamaApi;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OllamaTransportTests {
+
+    private StubOllamaServer stub;
+    private ConnectionProvider connectionProvider;
+    private SimpleMeterRegistry meterRegistry;
+    private OllamaTransport transport;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new StubOllamaServer()
+                .latency(() -> Duration.ofMillis(20))
+                .respondWith(request -> "echo:" + request.path("messages").get(0).path("content").asText());
+        connectionProvider = ConnectionProvider.builder("ollama-test")
+                .maxConnections(8)
+                .pendingAcquireMaxCount(128)
+                .build();
+        meterRegistry = new SimpleMeterRegistry();
+        transport = new OllamaTransport(
+                HttpClient.create(connectionProvider).responseTimeout(Duration.ofSeconds(5)),
+                Duration.ofSeconds(10),
+                RestClient::builder,
+                WebClient::builder,
+                meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionProvider.dispose();
+        stub.close();
+    }
+
+    @Test
+    void concurrentChatsShareThePoolAndReleaseInFlightSlots() throws Exception {
+        OllamaApi api = transport.createApi(stub.baseUrl());
+        int requests = 64;
+
+        List<Future<OllamaApi.ChatResponse>> futures = new ArrayList<>();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests; i++) {
+                OllamaApi.ChatRequest request = OllamaApi.ChatRequest.builder("stub")
+                        .messages(List.of(OllamaApi.Message.builder(OllamaApi.Message.Role.USER)
+                                .content("prompt-" + i)
+                                .build()))
+                        .build();
+                futures.add(callers.submit(() -> api.chat(request)));
+            }
+            for (int i = 0; i < requests; i++) {
+                assertThat(futures.get(i).get().message().content()).isEqualTo("echo:prompt-" + i);
+            }
+        }
+
+        assertThat(stub.chatRequests()).isEqualTo(requests);
+        assertThat(transport.inFlight(stub.baseUrl())).isZero();
+        assertThat(meterRegistry.get("ollama.client.requests.inflight")
+                .tag("endpoint", stub.baseUrl())
+                .gauge().value()).isZero();
+    }
+}
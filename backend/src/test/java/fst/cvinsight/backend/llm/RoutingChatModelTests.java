@@ -0,0 +1,118 @@
+package fst.cvinsight.backend.llm;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.ollama.OllamaChatModel;
+import org.springframework.ai.ollama.api.OllamaApi;
+import org.springframework.ai.ollama.api.OllamaOptions;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoutingChatModelTests {
+
+    private final List<StubOllamaServer> stubs = new ArrayList<>();
+    private ConnectionProvider connectionProvider;
+    private OllamaTransport transport;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            stubs.add(new StubOllamaServer()
+                    .latency(() -> Duration.ofMillis(50))
+                    .respondWith(request -> "ok"));
+        }
+        connectionProvider = ConnectionProvider.builder("router-test")
+                .maxConnections(16)
+                .pendingAcquireMaxCount(64)
+                .build();
+        meterRegistry = new SimpleMeterRegistry();
+        transport = new OllamaTransport(
+                HttpClient.create(connectionProvider).responseTimeout(Duration.ofSeconds(5)),
+                Duration.ofSeconds(10),
+                RestClient::builder,
+                WebClient::builder,
+                meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionProvider.dispose();
+        stubs.forEach(StubOllamaServer::close);
+    }
+
+    @Test
+    void samePrefixSticksToOneBackendWhenIdle() {
+        RoutingChatModel router = router(8);
+
+        for (int i = 0; i < 10; i++) {
+            router.call(new Prompt("shared instructions, document " + i));
+        }
+
+        assertThat(stubs).extracting(StubOllamaServer::chatRequests)
+                .containsExactlyInAnyOrder(0, 10);
+    }
+
+    @Test
+    void concurrentLoadSpillsOverToTheLeastBusyBackend() throws Exception {
+        RoutingChatModel router = router(1);
+
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 20; i++) {
+                futures.add(callers.submit(() -> router.call(new Prompt("shared instructions"))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        assertThat(stubs).allSatisfy(stub -> assertThat(stub.chatRequests()).isPositive());
+        assertThat(router.getBackends()).allSatisfy(backend -> assertThat(backend.outstanding()).isZero());
+    }
+
+    @Test
+    void failsOverAndOpensTheCircuitOfADeadBackend() {
+        RoutingChatModel router = router(8);
+        stubs.get(0).close();
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(router.call(new Prompt("document " + i)).getResult().getOutput().getText())
+                    .isEqualTo("ok");
+        }
+
+        OllamaBackend dead = router.getBackends().get(0);
+        assertThat(dead.isAvailable()).isFalse();
+        assertThat(stubs.get(1).chatRequests()).isEqualTo(10);
+    }
+
+    private RoutingChatModel router(int stickyMaxImbalance) {
+        List<OllamaBackend> backends = stubs.stream()
+                .map(stub -> {
+                    OllamaApi api = transport.createApi(stub.baseUrl());
+                    OllamaChatModel chatModel = OllamaChatModel.builder()
+                            .ollamaApi(api)
+                            .defaultOptions(OllamaOptions.builder().model("stub").build())
+                            .retryTemplate(RetryTemplate.builder().maxAttempts(1).build())
+                            .build();
+                    return new OllamaBackend(stub.baseUrl(), api, chatModel, 2, Duration.ofMinutes(1), meterRegistry);
+                })
+                .toList();
+        return new RoutingChatModel(backends, "shared instructions".length(), stickyMaxImbalance, 2);
+    }
+}
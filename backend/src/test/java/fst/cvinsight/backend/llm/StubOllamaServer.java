@@ -0,0 +1,113 @@
+package fst.cvinsight.backend.llm;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Minimal in-process stand-in for the Ollama HTTP API ({@code /api/chat},
+ * {@code /api/tags}) so the client stack can be exercised and benchmarked offline.
+ */
+public class StubOllamaServer implements AutoCloseable {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger chatRequests = new AtomicInteger();
+    private volatile Function<JsonNode, String> responder = request -> "{}";
+    private volatile Supplier<Duration> latency = () -> Duration.ZERO;
+    private volatile Duration loadDuration = Duration.ZERO;
+
+    public StubOllamaServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/api/chat", this::handleChat);
+        server.createContext("/api/tags", this::handleTags);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /** Content returned in {@code message.content}, computed from the request body. */
+    public StubOllamaServer respondWith(Function<JsonNode, String> responder) {
+        this.responder = responder;
+        return this;
+    }
+
+    /** Simulated generation time per chat request. */
+    public StubOllamaServer latency(Supplier<Duration> latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /** Reported {@code load_duration}, to simulate a cold model. */
+    public StubOllamaServer loadDuration(Duration loadDuration) {
+        this.loadDuration = loadDuration;
+        return this;
+    }
+
+    public int chatRequests() {
+        return chatRequests.get();
+    }
+
+    private void handleChat(HttpExchange exchange) throws IOException {
+        chatRequests.incrementAndGet();
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+        long start = System.nanoTime();
+        try {
+            Thread.sleep(latency.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        String content = responder.apply(request);
+
+        ObjectNode body = objectMapper.createObjectNode();
+        body.put("model", request.path("model").asText("stub"));
+        body.put("created_at", Instant.now().toString());
+        body.putObject("message").put("role", "assistant").put("content", content);
+        body.put("done", true);
+        body.put("done_reason", "stop");
+        body.put("total_duration", System.nanoTime() - start);
+        body.put("load_duration", loadDuration.toNanos());
+        body.put("prompt_eval_count", request.toString().length() / 4);
+        body.put("eval_count", content.length() / 4);
+        write(exchange, body);
+    }
+
+    private void handleTags(HttpExchange exchange) throws IOException {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.putArray("models");
+        write(exchange, body);
+    }
+
+    private void write(HttpExchange exchange, JsonNode body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,125 @@
+package fst.cvinsight.backend.llm;
+
+import fst.cvinsight.backend.metrics.PipelineObservations;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * Concurrent calls are simulated by calling again from inside the model, while the
+ * outer call still holds its slot
+ */
+class TieredChatClientTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> servedBy = new ArrayList<>();
+    private final Deque<Runnable> whileServing = new ArrayDeque<>();
+    private final LlmProfiles profiles = new LlmProfiles();
+    private final TieredChatClient client = new TieredChatClient(
+            ChatClient.builder(new ChatModel() {
+                @Override
+                public ChatResponse call(Prompt prompt) {
+                    String model = prompt.getOptions().getModel();
+                    servedBy.add(model + "@" + (int) inFlight(model));
+                    Runnable concurrentCall = whileServing.poll();
+                    if (concurrentCall != null) {
+                        concurrentCall.run();
+                    }
+                    return new ChatResponse(List.of(new Generation(new AssistantMessage("ok"))));
+                }
+            }).build(),
+            profiles, meterRegistry, new PipelineObservations(ObservationRegistry.NOOP, meterRegistry));
+
+    @Test
+    void saturatedModelWithoutFallbackStillServesAndReleasesItsSlot() {
+        tier("small", 1);
+        task("small", null);
+        whileServing.add(this::call);
+
+        call();
+
+        assertThat(servedBy).containsExactly("small@1", "small@2");
+        assertThat(inFlight("small")).isZero();
+    }
+
+    @Test
+    void busyModelSpillsOverToTheFallback() {
+        tier("small", 1);
+        tier("large", 1);
+        task("small", "large");
+        whileServing.add(this::call);
+
+        call();
+
+        assertThat(servedBy).containsExactly("small@1", "large@1");
+        assertThat(inFlight("small")).isZero();
+        assertThat(inFlight("large")).isZero();
+    }
+
+    @Test
+    void preferredModelQueuesTheCallWhenTheFallbackIsBusyToo() {
+        tier("small", 1);
+        tier("large", 1);
+        task("small", "large");
+        whileServing.add(this::call);
+        whileServing.add(this::call);
+
+        call();
+
+        assertThat(servedBy).containsExactly("small@1", "large@1", "small@2");
+        assertThat(inFlight("small")).isZero();
+        assertThat(inFlight("large")).isZero();
+    }
+
+    @Test
+    void failedCallReleasesItsSlot() {
+        tier("small", 1);
+        task("small", null);
+        whileServing.add(() -> {
+            throw new IllegalStateException("backend down");
+        });
+
+        try {
+            call();
+        } catch (IllegalStateException expected) {
+            // the slot must be given back all the same
+        }
+
+        assertThat(inFlight("small")).isZero();
+    }
+
+    private void call() {
+        client.call(LlmTask.EXTRACTION, "prompt");
+    }
+
+    private void tier(String name, int maxConcurrency) {
+        LlmProfiles.Model model = new LlmProfiles.Model();
+        model.setName(name);
+        model.setMaxConcurrency(maxConcurrency);
+        profiles.getModels().put(name, model);
+    }
+
+    private void task(String model, String fallback) {
+        LlmProfiles.Profile profile = new LlmProfiles.Profile();
+        profile.setModel(model);
+        profile.setFallback(fallback);
+        profiles.getTasks().put(LlmTask.EXTRACTION, profile);
+    }
+
+    private double inFlight(String model) {
+        return meterRegistry.get("llm.model.inflight").tag("model", model).gauge().value();
+    }
+}
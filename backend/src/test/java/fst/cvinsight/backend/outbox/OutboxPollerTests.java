@@ -0,0 +1,195 @@
+package fst.cvinsight.backend.outbox;
+
+import fst.cvinsight.backend.entity.OutboxEvent;
+import fst.cvinsight.backend.entity.OutboxOffset;
+import fst.cvinsight.backend.repo.OutboxEventRepository;
+import fst.cvinsight.backend.repo.OutboxOffsetRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/*
+ * Offsets are kept in a map that a batch only writes to when its transaction commits,
+ * and the visible events are whatever a test has committed so far
+ */
+class OutboxPollerTests {
+
+    private final OutboxEventRepository events = mock(OutboxEventRepository.class);
+    private final OutboxOffsetRepository offsets = mock(OutboxOffsetRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Map<String, OutboxOffset> committedOffsets = new HashMap<>();
+    private final List<OutboxOffset> lockedOffsets = new ArrayList<>();
+    private final List<OutboxEvent> committedEvents = new ArrayList<>();
+    private final RecordingConsumer consumer = new RecordingConsumer("search-index");
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        doAnswer(invocation -> committedOffsets.putIfAbsent(invocation.getArgument(0),
+                new OutboxOffset(invocation.getArgument(0), 0, 0, null))).when(offsets).createIfMissing(anyString());
+        when(offsets.findAndLock(anyString())).thenAnswer(invocation -> {
+            OutboxOffset committed = committedOffsets.get(invocation.<String>getArgument(0));
+            OutboxOffset locked = new OutboxOffset(committed.getConsumer(), committed.getLastTransactionId(),
+                    committed.getLastEventId(), committed.getUpdatedAt());
+            lockedOffsets.add(locked);
+            return Optional.of(locked);
+        });
+        when(offsets.findAllById(any())).thenAnswer(invocation -> ((Collection<String>) invocation.getArgument(0))
+                .stream().filter(committedOffsets::containsKey).map(committedOffsets::get).toList());
+        when(events.findBatch(anyLong(), anyLong(), anyInt())).thenAnswer(invocation -> {
+            long afterTransaction = invocation.getArgument(0);
+            long afterId = invocation.getArgument(1);
+            return committedEvents.stream()
+                    .filter(e -> e.getTransactionId() > afterTransaction
+                            || e.getTransactionId() == afterTransaction && e.getId() > afterId)
+                    .sorted(Comparator.comparing(OutboxEvent::getTransactionId).thenComparing(OutboxEvent::getId))
+                    .limit(invocation.<Integer>getArgument(2))
+                    .toList();
+        });
+    }
+
+    @Test
+    void advancesTheOffsetBatchByBatch() {
+        commit(event(1, 10), event(2, 10), event(3, 11));
+
+        poller(consumer).poll();
+
+        assertThat(consumer.batches).extracting(batch -> batch.stream().map(OutboxEvent::getId).toList())
+                .containsExactly(List.of(1L, 2L), List.of(3L));
+        assertThat(position("search-index")).containsExactly(11L, 3L);
+
+        poller(consumer).poll();
+        assertThat(consumer.batches).hasSize(2);
+    }
+
+    @Test
+    void deliversAnEventCommittedAfterTheOffsetMovedPastItsId() {
+        commit(event(2, 11));
+        OutboxPoller poller = poller(consumer);
+        poller.poll();
+
+        // Transaction 12 inserted its event before transaction 11 did, and committed after it
+        commit(event(1, 12), event(3, 13));
+        poller.poll();
+
+        assertThat(consumer.batches.get(1)).extracting(OutboxEvent::getId).containsExactly(1L, 3L);
+        assertThat(position("search-index")).containsExactly(13L, 3L);
+    }
+
+    @Test
+    void failedBatchIsRolledBackAndRedelivered() {
+        commit(event(1, 10), event(2, 10));
+        consumer.failures = 1;
+        OutboxPoller poller = poller(consumer);
+
+        poller.poll();
+        assertThat(position("search-index")).containsExactly(0L, 0L);
+        assertThat(meterRegistry.get("outbox.events.failed").counter().count()).isEqualTo(1);
+
+        poller.poll();
+        assertThat(consumer.batches).hasSize(2).allSatisfy(batch ->
+                assertThat(batch).extracting(OutboxEvent::getId).containsExactly(1L, 2L));
+        assertThat(position("search-index")).containsExactly(10L, 2L);
+    }
+
+    @Test
+    void purgeKeepsWhatTheSlowestConsumerHasNotHandled() {
+        committedOffsets.put("search-index", new OutboxOffset("search-index", 12, 7, null));
+        committedOffsets.put("statistics", new OutboxOffset("statistics", 11, 9, null));
+
+        poller(consumer, new RecordingConsumer("statistics")).purgeDelivered();
+
+        verify(events).deleteDelivered(eq(11L), eq(9L), any());
+    }
+
+    @Test
+    void purgeKeepsEverythingUntilTheConsumersHaveAnOffset() {
+        poller(consumer).purgeDelivered();
+
+        verify(events).deleteDelivered(eq(0L), eq(0L), any());
+    }
+
+    private OutboxPoller poller(OutboxConsumer... consumers) {
+        return new OutboxPoller(List.of(consumers), events, offsets, new RollbackOnFailure(), meterRegistry, 2,
+                Duration.ofDays(7));
+    }
+
+    private void commit(OutboxEvent... written) {
+        committedEvents.addAll(List.of(written));
+    }
+
+    private List<Long> position(String consumer) {
+        OutboxOffset offset = committedOffsets.get(consumer);
+        return List.of(offset.getLastTransactionId(), offset.getLastEventId());
+    }
+
+    private static OutboxEvent event(long id, long transactionId) {
+        return new OutboxEvent(id, UUID.randomUUID(), null, UUID.randomUUID(), UUID.randomUUID(), Map.of(),
+                transactionId, LocalDateTime.now());
+    }
+
+    /*
+     * Saves the offsets locked in the transaction when it commits and drops them when
+     * the callback throws
+     */
+    private class RollbackOnFailure extends TransactionTemplate {
+
+        @Override
+        public <T> T execute(TransactionCallback<T> action) {
+            lockedOffsets.clear();
+            T result = action.doInTransaction(mock(TransactionStatus.class));
+            lockedOffsets.forEach(offset -> committedOffsets.put(offset.getConsumer(), offset));
+            return result;
+        }
+    }
+
+    private static class RecordingConsumer implements OutboxConsumer {
+
+        private final String name;
+        private final List<List<OutboxEvent>> batches = new ArrayList<>();
+        private int failures;
+
+        RecordingConsumer(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void handle(List<OutboxEvent> events) {
+            batches.add(events);
+            if (failures > 0) {
+                failures--;
+                throw new IllegalStateException("consumer failed");
+            }
+        }
+    }
+}
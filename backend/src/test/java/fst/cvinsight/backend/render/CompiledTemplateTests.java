@@ -0,0 +1,61 @@
+package fst.cvinsight.backend.render;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompiledTemplateTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @ParameterizedTest
+    @ValueSource(strings = {"temp-1", "temp-2", "temp-3", "temp-4"})
+    void rendersEverySectionAcrossPages(String id) throws IOException {
+        ResumeTemplate definition;
+        try (InputStream in = getClass().getResourceAsStream("/resume-templates/" + id + ".json")) {
+            definition = objectMapper.readValue(in, ResumeTemplate.class);
+        }
+        CompiledTemplate template = new CompiledTemplate(id, "test", definition);
+
+        byte[] pdf = template.render(resume(), new CompiledTemplate.Fonts());
+
+        try (PDDocument document = Loader.loadPDF(pdf)) {
+            String text = new PDFTextStripper().getText(document);
+            assertThat(document.getNumberOfPages()).isGreaterThan(1);
+            assertThat(text).contains("Jane Doe", "Backend developer — Acme 29", "MSc Computer Science", "Kubernetes");
+            // Outside WinAnsi, replaced rather than failing the render
+            assertThat(text).contains("Team lead ?");
+        }
+    }
+
+    private JsonNode resume() {
+        ObjectNode resume = objectMapper.createObjectNode();
+        resume.putObject("about")
+                .put("name", "Jane Doe")
+                .put("email", "jane@example.com")
+                .put("role", "Software engineer")
+                .put("summary", "Backend engineer. " + "https://example.com/" + "a".repeat(200));
+        ArrayNode work = resume.putArray("work");
+        for (int i = 0; i < 30; i++) {
+            work.addObject()
+                    .put("position", "Backend developer")
+                    .put("company", "Acme " + i)
+                    .put("startDate", "2021-01")
+                    .put("description", "Team lead 🚀 of a platform team.\nBuilt services in Java and Spring.");
+        }
+        resume.putArray("education").addObject().put("degree", "MSc Computer Science").put("school", "FST");
+        resume.putArray("skills").add("Java").add("Spring").add("Kubernetes");
+        return resume;
+    }
+}
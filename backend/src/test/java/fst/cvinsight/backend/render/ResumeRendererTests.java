@@ -0,0 +1,64 @@
+package fst.cvinsight.backend.render;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fst.cvinsight.backend.metrics.PipelineObservations;
+import fst.cvinsight.backend.repo.RenderedResumeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/*
+ * Every key is a cache hit, so only the render keys are compared
+ */
+class ResumeRendererTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ResumeRenderer renderer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        RenderedResumeRepository repository = mock(RenderedResumeRepository.class);
+        when(repository.findPdfByRenderKey(any())).thenReturn(Optional.of(new byte[]{'%', 'P', 'D', 'F'}));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        renderer = new ResumeRenderer(new ThreadPoolTaskExecutor(), repository,
+                new PipelineObservations(ObservationRegistry.NOOP, meterRegistry), objectMapper, meterRegistry,
+                Duration.ofDays(30));
+    }
+
+    @Test
+    void keyIgnoresPropertyOrderAndWhitespace() throws IOException {
+        String key = key("temp-1", """
+                {"about": {"name": "Jane Doe", "email": "jane@example.com"}, "skills": ["Java", "SQL"]}
+                """);
+
+        assertThat(key("temp-1", """
+                {
+                  "skills": ["Java", "SQL"],
+                  "about": {"email": "jane@example.com", "name": "Jane Doe"}
+                }
+                """)).isEqualTo(key);
+    }
+
+    @Test
+    void keyChangesWithTheContentAndTheTemplate() throws IOException {
+        String key = key("temp-1", "{\"skills\": [\"Java\", \"SQL\"]}");
+
+        assertThat(key("temp-1", "{\"skills\": [\"SQL\", \"Java\"]}")).isNotEqualTo(key);
+        assertThat(key("temp-2", "{\"skills\": [\"Java\", \"SQL\"]}")).isNotEqualTo(key);
+    }
+
+    private String key(String templateId, String json) throws IOException {
+        return renderer.render(templateId, objectMapper.readTree(json)).key();
+    }
+}
@@ -0,0 +1,96 @@
+package fst.cvinsight.backend.service;
+
+import fst.cvinsight.backend.exception.PasswordHashingRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedBCryptPasswordEncoderTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ThreadPoolTaskExecutor executor = executor(1, 1);
+    private final BoundedBCryptPasswordEncoder encoder = new BoundedBCryptPasswordEncoder(4, executor, meterRegistry);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void hashesOnThePool() {
+        String hash = encoder.encode("s3cret");
+
+        assertThat(encoder.matches("s3cret", hash)).isTrue();
+        assertThat(encoder.matches("wrong", hash)).isFalse();
+        assertThat(meterRegistry.get("security.password.hashing").tag("operation", "matches").timer().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void rejectsInsteadOfWaitingOnceThePoolAndQueueAreFull() {
+        executor.execute(this::block);
+        executor.execute(this::block);
+
+        assertThatThrownBy(() -> encoder.matches("s3cret", "$2a$04$unused"))
+                .isInstanceOf(PasswordHashingRejectedException.class);
+        assertThat(meterRegistry.get("security.password.hashing.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void upgradesHashesOfALowerCostUnlessLoginsAreQueueing() {
+        BoundedBCryptPasswordEncoder encoder = new BoundedBCryptPasswordEncoder(5, executor, meterRegistry);
+
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("s3cret"))).isTrue();
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(5).encode("s3cret"))).isFalse();
+        assertThat(encoder.upgradeEncoding("{noop}s3cret")).isFalse();
+
+        executor.execute(this::block);
+        executor.execute(this::block);
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("s3cret"))).isFalse();
+    }
+
+    @Test
+    void keepsHashesOfAHigherCostThanTheTarget() {
+        // e.g. hashed by an instance that calibrated a higher cost on faster hardware
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("s3cret"))).isFalse();
+    }
+
+    @Test
+    void calibratesWithinTheConfiguredBounds() {
+        assertThat(BoundedBCryptPasswordEncoder.calibrate(Duration.ZERO, 4, 12)).isEqualTo(4);
+        assertThat(BoundedBCryptPasswordEncoder.calibrate(Duration.ofHours(1), 4, 6)).isEqualTo(6);
+
+        // A cost 4 hash takes about a millisecond, so a second allows several more steps
+        int calibrated = BoundedBCryptPasswordEncoder.calibrate(Duration.ofSeconds(1), 4, 31);
+        assertThat(calibrated).isBetween(5, 30);
+        assertThat(BoundedBCryptPasswordEncoder.calibrate(Duration.ofMillis(10), 4, 31)).isLessThanOrEqualTo(calibrated);
+    }
+
+    private void block() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ThreadPoolTaskExecutor executor(int maxConcurrency, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("password-hashing-");
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,129 @@
+package fst.cvinsight.backend.service;
+
+import fst.cvinsight.backend.entity.LlmUsage;
+import fst.cvinsight.backend.exception.LlmQuotaExceededException;
+import fst.cvinsight.backend.repo.LlmUsageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LlmQuotaServiceTests {
+
+    private static final UUID USER = UUID.randomUUID();
+
+    private final LlmUsageRepository repository = mock(LlmUsageRepository.class);
+    private final LlmQuotaService quota =
+            new LlmQuotaService(repository, new SimpleMeterRegistry(), Duration.ofHours(1), 3, 1000);
+
+    @Test
+    void admitsRequestsUntilTheBucketIsEmpty() {
+        quota.acquire(USER);
+        quota.acquire(USER);
+        quota.acquire(USER);
+
+        assertThatThrownBy(() -> quota.acquire(USER))
+                .isInstanceOf(LlmQuotaExceededException.class)
+                .extracting(e -> ((LlmQuotaExceededException) e).getRetryAfter())
+                .satisfies(retryAfter -> assertThat(retryAfter).isBetween(Duration.ofMinutes(19), Duration.ofMinutes(20)));
+    }
+
+    @Test
+    void generatedTokensOverdrawTheBucketAndHoldBackTheNextRequests() {
+        quota.acquire(USER);
+        quota.record(USER, 5000, 1500);
+
+        assertThatThrownBy(() -> quota.acquire(USER))
+                .isInstanceOf(LlmQuotaExceededException.class)
+                .extracting(e -> ((LlmQuotaExceededException) e).getRetryAfter())
+                .satisfies(retryAfter -> assertThat(retryAfter).isGreaterThan(Duration.ofMinutes(30)));
+    }
+
+    @Test
+    void savedBucketIsRefilledForTheTimeSinceItWasSaved() {
+        when(repository.findById(USER)).thenReturn(Optional.of(new LlmUsage(USER, 0, 1000,
+                Instant.now().minus(Duration.ofMinutes(40)), 3, 0, 0, null)));
+
+        quota.acquire(USER);
+        quota.acquire(USER);
+
+        assertThatThrownBy(() -> quota.acquire(USER)).isInstanceOf(LlmQuotaExceededException.class);
+        verify(repository, times(1)).findById(USER);
+    }
+
+    @Test
+    void flushAddsTheUsageSinceTheLastFlushOnly() {
+        quota.acquire(USER);
+        quota.record(USER, 120, 40);
+        quota.acquire(USER);
+
+        quota.flush();
+        verify(repository).addUsage(eq(USER), eq(2L), eq(120L), eq(40L), any(), any(), eq(3600.0), eq(3.0), eq(1000.0));
+
+        reset(repository);
+        quota.flush();
+        verify(repository, never()).addUsage(any(), anyLong(), anyLong(), anyLong(), any(), any(), anyDouble(),
+                anyDouble(), anyDouble());
+
+        quota.record(USER, 30, 10);
+        quota.flush();
+        verify(repository).addUsage(eq(USER), eq(0L), eq(30L), eq(10L), any(), any(), eq(3600.0), eq(3.0), eq(1000.0));
+    }
+
+    @Test
+    void failedFlushKeepsTheUsageForTheNextOne() {
+        quota.acquire(USER);
+        quota.record(USER, 120, 40);
+        doThrow(new DataAccessResourceFailureException("connection refused")).when(repository)
+                .addUsage(any(), anyLong(), anyLong(), anyLong(), any(), any(), anyDouble(), anyDouble(), anyDouble());
+
+        quota.flush();
+
+        reset(repository);
+        quota.record(USER, 30, 10);
+        quota.flush();
+        verify(repository).addUsage(eq(USER), eq(1L), eq(150L), eq(50L), any(), any(), eq(3600.0), eq(3.0), eq(1000.0));
+    }
+
+    @Test
+    void savedBucketIsReadWithoutHoldingTheStripe() throws Exception {
+        UUID sameStripe = sameStripeAs(USER);
+        quota.acquire(sameStripe);
+        when(repository.findById(USER)).thenAnswer(invocation -> {
+            // Another user on the same stripe is served while this one waits on the database
+            CompletableFuture.runAsync(() -> quota.acquire(sameStripe)).get(5, TimeUnit.SECONDS);
+            return Optional.empty();
+        });
+
+        quota.acquire(USER);
+    }
+
+    private static UUID sameStripeAs(UUID userId) {
+        while (true) {
+            UUID other = UUID.randomUUID();
+            if (Math.floorMod(other.hashCode(), 64) == Math.floorMod(userId.hashCode(), 64)) {
+                return other;
+            }
+        }
+    }
+}
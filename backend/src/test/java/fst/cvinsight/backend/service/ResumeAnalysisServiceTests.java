@@ -0,0 +1,189 @@
+package fst.cvinsight.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import fst.cvinsight.backend.entity.SectionAnalysisCache;
+import fst.cvinsight.backend.exception.ResumeAnalysisException;
+import fst.cvinsight.backend.llm.LlmTask;
+import fst.cvinsight.backend.llm.TieredChatClient;
+import fst.cvinsight.backend.metrics.PipelineObservations;
+import fst.cvinsight.backend.model.ResumeSection;
+import fst.cvinsight.backend.repo.SectionAnalysisCacheRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/*
+ * The repository is backed by a map, so what one analysis stores the next one finds
+ */
+class ResumeAnalysisServiceTests {
+
+    private static final UUID OWNER = UUID.randomUUID();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final TieredChatClient chatClient = mock(TieredChatClient.class);
+    private final SectionAnalysisCacheRepository repository = mock(SectionAnalysisCacheRepository.class);
+    private final LlmQuotaService llmQuotaService = mock(LlmQuotaService.class);
+    private final Map<String, SectionAnalysisCache> stored = new HashMap<>();
+    private final ResumeAnalysisService service = new ResumeAnalysisService(chatClient, repository,
+            new PipelineObservations(ObservationRegistry.NOOP, new SimpleMeterRegistry()), objectMapper,
+            llmQuotaService, new SimpleMeterRegistry(), Duration.ofDays(90));
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(repository.findAllById(any())).thenAnswer(invocation -> ((Collection<String>) invocation.getArgument(0))
+                .stream().filter(stored::containsKey).map(stored::get).toList());
+        when(repository.save(any())).thenAnswer(invocation -> {
+            SectionAnalysisCache review = invocation.getArgument(0);
+            stored.put(review.getAnalysisKey(), review);
+            return review;
+        });
+    }
+
+    @Test
+    void keysEachNonBlankSectionByItsContent() {
+        reviewsFromModel(Map.of("about", 70, "skills", 80));
+
+        ObjectNode analysis = service.analyze(OWNER, resume("""
+                {"about": {"name": "Jane Doe"}, "skills": ["Java"], "work": [], "projects": [{"name": " "}],
+                 "languages": null}
+                """));
+
+        assertThat(stored.values()).extracting(SectionAnalysisCache::getSection)
+                .containsExactlyInAnyOrder(ResumeSection.ABOUT, ResumeSection.SKILLS);
+        assertThat(analysis.path("missingSections")).extracting(JsonNode::asText).contains("Work experience",
+                "Projects", "Languages").doesNotContain("About", "Skills");
+
+        // The same skills under another resume share the key; changed ones do not
+        reviewsFromModel(Map.of("about", 60, "skills", 90));
+        service.analyze(OWNER, resume("""
+                {"about": {"name": "John Roe"}, "skills": ["Java"]}
+                """));
+        assertThat(stored).hasSize(3);
+        service.analyze(OWNER, resume("""
+                {"about": {"name": "Jane Doe"}, "skills": ["Go"]}
+                """));
+        assertThat(stored).hasSize(4);
+    }
+
+    @Test
+    void reusesStoredReviewsWithoutCallingTheModelOrChargingTheQuota() {
+        JsonNode resume = resume("""
+                {"about": {"name": "Jane Doe"}, "skills": ["Java"]}
+                """);
+        reviewsFromModel(Map.of("about", 70, "skills", 80));
+        ObjectNode first = service.analyze(OWNER, resume);
+
+        ObjectNode second = service.analyze(OWNER, resume);
+
+        assertThat(second).isEqualTo(first);
+        verify(chatClient, times(1)).call(eq(LlmTask.ANALYSIS), anyString(), anyMap());
+        verify(llmQuotaService, times(1)).acquire(OWNER);
+    }
+
+    @Test
+    void asksTheModelAboutChangedSectionsOnly() {
+        reviewsFromModel(Map.of("about", 70, "skills", 80));
+        service.analyze(OWNER, resume("""
+                {"about": {"name": "Jane Doe"}, "skills": ["Java"]}
+                """));
+
+        reviewsFromModel(Map.of("skills", 90));
+        ObjectNode analysis = service.analyze(OWNER, resume("""
+                {"about": {"name": "Jane Doe"}, "skills": ["Java", "Kubernetes"]}
+                """));
+
+        ArgumentCaptor<String> prompt = ArgumentCaptor.forClass(String.class);
+        verify(chatClient, times(2)).call(eq(LlmTask.ANALYSIS), prompt.capture(), anyMap());
+        assertThat(prompt.getValue()).contains("Kubernetes").doesNotContain("Jane Doe");
+        verify(llmQuotaService, times(2)).acquire(OWNER);
+        assertThat(analysis.path("sections").path("about").path("score").asInt()).isEqualTo(70);
+        assertThat(analysis.path("sections").path("skills").path("score").asInt()).isEqualTo(90);
+    }
+
+    @Test
+    void failsWhenTheModelLeavesOutASection() {
+        reviewsFromModel(Map.of("about", 70));
+
+        assertThatThrownBy(() -> service.analyze(OWNER, resume("""
+                {"about": {"name": "Jane Doe"}, "skills": ["Java"]}
+                """)))
+                .isInstanceOf(ResumeAnalysisException.class)
+                .hasRootCauseMessage("Model did not review section skills");
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void blankResumeIsNeitherReviewedNorCharged() {
+        ObjectNode analysis = service.analyze(OWNER, resume("{\"about\": {\"name\": \"\"}}"));
+
+        assertThat(analysis.path("score").asInt()).isZero();
+        assertThat(analysis.path("missingSections")).hasSize(ResumeSection.values().length);
+        verifyNoInteractions(chatClient, llmQuotaService);
+    }
+
+    @Test
+    void mergesSectionReviewsWithWeightsOverTheSectionsPresent() {
+        when(chatClient.call(eq(LlmTask.ANALYSIS), anyString(), anyMap())).thenReturn("""
+                {"about": {"score": 100, "feedback": "Complete.", "weaknesses": [], "improvements": [], "mistakes": []},
+                 "work": {"score": 80, "feedback": " Solid. ", "weaknesses": ["No metrics"],
+                          "improvements": ["Add metrics", " "], "mistakes": []},
+                 "skills": {"score": 140, "feedback": "", "weaknesses": [], "improvements": [],
+                            "mistakes": ["Typo in Kubernets"]}}
+                """);
+
+        ObjectNode analysis = service.analyze(OWNER, resume("""
+                {"about": {"name": "Jane Doe"}, "work": [{"company": "Acme"}], "skills": ["Kubernets"]}
+                """));
+
+        // (10 * 100 + 30 * 80 + 15 * 100) / 55, the skills score clamped to 100
+        assertThat(analysis.path("score").asInt()).isEqualTo(89);
+        assertThat(analysis.path("weaknesses")).extracting(JsonNode::asText)
+                .containsExactly("Work experience: No metrics");
+        assertThat(analysis.path("improvements")).extracting(JsonNode::asText)
+                .containsExactly("Work experience: Add metrics");
+        assertThat(analysis.path("mistakes")).extracting(JsonNode::asText)
+                .containsExactly("Skills: Typo in Kubernets");
+        assertThat(analysis.path("overallFeedback").asText()).isEqualTo("About: Complete. Work experience: Solid.");
+        assertThat(analysis.path("sections").path("skills").path("score").asInt()).isEqualTo(100);
+    }
+
+    private void reviewsFromModel(Map<String, Integer> scores) {
+        ObjectNode response = objectMapper.createObjectNode();
+        scores.forEach((field, score) -> response.putObject(field).put("score", score).put("feedback", "")
+                .set("weaknesses", objectMapper.valueToTree(List.of("weak " + field))));
+        when(chatClient.call(eq(LlmTask.ANALYSIS), anyString(), anyMap())).thenReturn(response.toString());
+    }
+
+    private JsonNode resume(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (Exception e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package fst.cvinsight.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fst.cvinsight.backend.exception.ResumeAnalysisException;
+import fst.cvinsight.backend.llm.LlmTask;
+import fst.cvinsight.backend.llm.TieredChatClient;
+import fst.cvinsight.backend.metrics.PipelineObservations;
+import fst.cvinsight.backend.model.ResumeSection;
+import fst.cvinsight.backend.util.ContactScanner;
+import fst.cvinsight.backend.util.ResumeSectionSegmenter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/*
+ * Sections come from a mocked segmenter and every section goes to the mocked model
+ * on its own virtual thread
+ */
+class ResumeExtractionServiceTests {
+
+    private final TieredChatClient chatClient = mock(TieredChatClient.class);
+    private final ResumeSectionSegmenter segmenter = mock(ResumeSectionSegmenter.class);
+    private final SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("llm-call-");
+    private final ResumeExtractionService service;
+
+    ResumeExtractionServiceTests() {
+        executor.setVirtualThreads(true);
+        service = new ResumeExtractionService(chatClient, segmenter, new ContactScanner(),
+                new PipelineObservations(ObservationRegistry.NOOP, new SimpleMeterRegistry()),
+                new ObjectMapper(), executor, true, 0, 2);
+    }
+
+    @Test
+    void failingSectionInterruptsTheOthersInsteadOfWaitingForThem() throws InterruptedException {
+        Map<ResumeSection, String> sections = new EnumMap<>(ResumeSection.class);
+        sections.put(ResumeSection.WORK, "slow work section");
+        sections.put(ResumeSection.SKILLS, "failing skills section");
+        when(segmenter.segment(anyString())).thenReturn(sections);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(chatClient.call(eq(LlmTask.EXTRACTION), contains("slow work section"), anyMap())).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return "{}";
+        });
+        when(chatClient.call(eq(LlmTask.EXTRACTION), contains("failing skills section"), anyMap()))
+                .thenThrow(new IllegalStateException("model unavailable"));
+
+        long started = System.nanoTime();
+        assertThatThrownBy(() -> service.extract("resume"))
+                .isInstanceOf(ResumeAnalysisException.class)
+                .hasRootCauseMessage("model unavailable");
+
+        assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started)).isLessThan(10);
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).as("slow section interrupted").isTrue();
+    }
+}
@@ -0,0 +1,138 @@
+package fst.cvinsight.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fst.cvinsight.backend.entity.Resume;
+import fst.cvinsight.backend.entity.ResumeStats;
+import fst.cvinsight.backend.entity.UserInfo;
+import fst.cvinsight.backend.model.ResumeOrigin;
+import fst.cvinsight.backend.repo.ResumeRepository;
+import fst.cvinsight.backend.repo.ResumeStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ResumeStatsServiceTests {
+
+    private static final UUID OWNER = UUID.randomUUID();
+    private static final LocalDateTime MARCH = LocalDateTime.of(2025, 3, 10, 9, 0);
+    private static final LocalDateTime APRIL = LocalDateTime.of(2025, 4, 2, 9, 0);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ResumeStatsRepository statsRepository = mock(ResumeStatsRepository.class);
+    private final ResumeRepository resumeRepository = mock(ResumeRepository.class);
+    private final ResumeStatsService service =
+            new ResumeStatsService(statsRepository, resumeRepository, mock(UserInfoService.class));
+    private ResumeStats stored;
+
+    private record Deleted(UUID getId, UUID getOwnerId, long getVersion, LocalDateTime getUploadedAt,
+                           ResumeOrigin getOrigin, Double getScore, JsonNode getJsonContent)
+            implements ResumeRepository.DeletionView {
+    }
+
+    @BeforeEach
+    void setUp() {
+        stored = new ResumeStats();
+        stored.setUserId(OWNER);
+        when(statsRepository.findForUpdate(OWNER)).thenAnswer(invocation -> Optional.of(stored));
+    }
+
+    @Test
+    void firstWriteRebuildsTheCreatedRowBeforeApplyingTheDelta() {
+        when(statsRepository.createIfMissing(OWNER)).thenReturn(1);
+        when(resumeRepository.findAllByUploadedById(OWNER, ResumeRepository.StatsView.class)).thenReturn(List.of(
+                deleted(MARCH, ResumeOrigin.USER_UPLOADED, 72.0, "java", "sql")));
+
+        service.onResumeSaved(resume(APRIL, ResumeOrigin.SYSTEM_GENERATED, null, "Java", "docker"));
+
+        assertThat(stored.getResumeCount()).isEqualTo(2);
+        assertThat(stored.getScoredCount()).isEqualTo(1);
+        assertThat(stored.getLastUploadAt()).isEqualTo(APRIL);
+        assertThat(stored.getUploadsPerMonth()).isEqualTo(Map.of("2025-03", 1, "2025-04", 1));
+        assertThat(stored.getOriginCounts()).isEqualTo(Map.of("USER_UPLOADED", 1, "SYSTEM_GENERATED", 1));
+        assertThat(stored.getSkillCounts()).isEqualTo(Map.of("java", 2, "sql", 1, "docker", 1));
+        assertThat(stored.getScoreDistribution()).isEqualTo(Map.of("60-79", 1));
+    }
+
+    @Test
+    void existingRowIsOnlyLockedAndUpdated() {
+        when(statsRepository.createIfMissing(OWNER)).thenReturn(0);
+
+        service.onResumeSaved(resume(MARCH, ResumeOrigin.USER_UPLOADED, null, "java"));
+
+        verify(resumeRepository, never()).findAllByUploadedById(any(), any());
+        assertThat(stored.getResumeCount()).isEqualTo(1);
+        assertThat(stored.getSkillCounts()).isEqualTo(Map.of("java", 1));
+    }
+
+    @Test
+    void rescoringMovesTheResumeToItsNewBand() {
+        service.onResumeScored(OWNER, null, 55);
+        service.onResumeScored(OWNER, 55.0, 91);
+
+        assertThat(stored.getScoredCount()).isEqualTo(1);
+        assertThat(stored.getScoreSum()).isEqualTo(91);
+        assertThat(stored.getScoreDistribution()).isEqualTo(Map.of("90-100", 1));
+    }
+
+    @Test
+    void deletingTheLatestUploadFallsBackToTheLatestLeft() {
+        Deleted latest = deleted(APRIL, ResumeOrigin.USER_UPLOADED, 85.0, "java");
+        service.onResumeSaved(resume(MARCH, ResumeOrigin.USER_UPLOADED, null, "sql"));
+        service.onResumeSaved(resume(APRIL, ResumeOrigin.USER_UPLOADED, 85.0, "java"));
+        when(resumeRepository.findLastUploadAtExcluding(eq(OWNER), eq(List.of(latest.getId())))).thenReturn(MARCH);
+
+        service.onResumesDeleted(OWNER, List.of(latest));
+
+        assertThat(stored.getResumeCount()).isEqualTo(1);
+        assertThat(stored.getLastUploadAt()).isEqualTo(MARCH);
+        assertThat(stored.getScoredCount()).isZero();
+        assertThat(stored.getScoreDistribution()).isEmpty();
+        assertThat(stored.getSkillCounts()).isEqualTo(Map.of("sql", 1));
+        assertThat(stored.getUploadsPerMonth()).isEqualTo(Map.of("2025-03", 1));
+    }
+
+    @Test
+    void deletingAnOlderUploadKeepsLastUploadAt() {
+        service.onResumeSaved(resume(MARCH, ResumeOrigin.USER_UPLOADED, null));
+        service.onResumeSaved(resume(APRIL, ResumeOrigin.USER_UPLOADED, null));
+
+        service.onResumesDeleted(OWNER, List.of(deleted(MARCH, ResumeOrigin.USER_UPLOADED, null)));
+
+        verify(resumeRepository, never()).findLastUploadAtExcluding(any(), any());
+        assertThat(stored.getLastUploadAt()).isEqualTo(APRIL);
+    }
+
+    private Resume resume(LocalDateTime uploadedAt, ResumeOrigin origin, Double score, String... skills) {
+        UserInfo owner = new UserInfo();
+        owner.setId(OWNER);
+        Resume resume = new Resume();
+        resume.setUploadedBy(owner);
+        resume.setUploadedAt(uploadedAt);
+        resume.setOrigin(origin);
+        resume.setScore(score);
+        resume.setJsonContent(skills(skills));
+        return resume;
+    }
+
+    private Deleted deleted(LocalDateTime uploadedAt, ResumeOrigin origin, Double score, String... skills) {
+        return new Deleted(UUID.randomUUID(), OWNER, 0, uploadedAt, origin, score, skills(skills));
+    }
+
+    private JsonNode skills(String... skills) {
+        return objectMapper.createObjectNode().set("skills", objectMapper.valueToTree(skills));
+    }
+}
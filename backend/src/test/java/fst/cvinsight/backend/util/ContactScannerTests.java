@@ -0,0 +1,46 @@
+package fst.cvinsight.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContactScannerTests {
+
+    private static final String RESUME = """
+            Jane Doe
+            Backend Engineer
+            Tunis, Tunisia | +216 20 123 456 | jane.doe@example.com.
+            linkedin.com/in/jane-doe-42/ · https://GitHub.com/janedoe
+            EXPERIENCE
+            2021 - 2024 Backend developer, Acme (Java, Spring, 12000000 req/day)
+            Maintained github.com/acme/payments
+            """;
+
+    private final ContactScanner scanner = new ContactScanner();
+
+    @Test
+    void findsContactFields() {
+        ContactScanner.Contacts contacts = scanner.scan(RESUME);
+
+        assertThat(contacts.email()).isEqualTo("jane.doe@example.com");
+        assertThat(contacts.phone()).isEqualTo("+216 20 123 456");
+        assertThat(contacts.linkedin()).isEqualTo("https://linkedin.com/in/jane-doe-42");
+        assertThat(contacts.github()).isEqualTo("https://github.com/janedoe");
+    }
+
+    @Test
+    void ignoresYearRangesAndIdentifiers() {
+        assertThat(scanner.findPhone("2019 - 2021 Internship, ref AB12345678")).isNull();
+        assertThat(scanner.findPhone("Tel: (01) 23.45.67.89")).isEqualTo("(01) 23.45.67.89");
+        assertThat(scanner.findEmail("Contact me @ home")).isNull();
+    }
+
+    @Test
+    void ignoresDatesAndPlainNumbers() {
+        assertThat(scanner.findPhone("Born 1990-05-17 in Sfax")).isNull();
+        assertThat(scanner.findPhone("Since 17.05.1990, 12000000 req/day")).isNull();
+        assertThat(scanner.findPhone("Order 20240517123")).isNull();
+        assertThat(scanner.findPhone("Tel. 555-123-4567")).isEqualTo("555-123-4567");
+        assertThat(scanner.findPhone("Mobile +21620123456")).isEqualTo("+21620123456");
+    }
+}
@@ -0,0 +1,44 @@
+package fst.cvinsight.backend.util;
+
+import fst.cvinsight.backend.model.ResumeSection;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResumeSectionSegmenterTests {
+
+    private final ResumeSectionSegmenter segmenter = new ResumeSectionSegmenter();
+
+    @Test
+    void splitsOnHeadingsInSeveralLanguages() {
+        String text = """
+                Jane Doe
+                jane@example.com
+                EXPÉRIENCE PROFESSIONNELLE
+                Backend developer, Acme (2021 - 2024)
+                Formation:
+                MSc Computer Science
+                Berufserfahrung
+                Praktikum bei Beispiel GmbH
+                المهارات
+                Java, Spring
+                """;
+
+        Map<ResumeSection, String> sections = segmenter.segment(text);
+
+        assertThat(sections.get(ResumeSection.ABOUT)).isEqualTo("Jane Doe\njane@example.com\n");
+        assertThat(sections.get(ResumeSection.WORK))
+                .isEqualTo("Backend developer, Acme (2021 - 2024)\nPraktikum bei Beispiel GmbH\n");
+        assertThat(sections.get(ResumeSection.EDUCATION)).isEqualTo("MSc Computer Science\n");
+        assertThat(sections.get(ResumeSection.SKILLS)).isEqualTo("Java, Spring\n");
+    }
+
+    @Test
+    void ignoresContentLinesMentioningSectionWords() {
+        assertThat(segmenter.detectHeading("Gained experience with distributed systems")).isNull();
+        assertThat(segmenter.detectHeading("Relevant Experience:")).isEqualTo(ResumeSection.WORK);
+        assertThat(segmenter.detectHeading("الأنشطة")).isEqualTo(ResumeSection.SOCIAL_ACTIVITIES);
+    }
+}
@@ -0,0 +1,239 @@
+package fst.cvinsight.backend.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import fst.cvinsight.backend.llm.LlmProfiles;
+import fst.cvinsight.backend.llm.LlmTask;
+import fst.cvinsight.backend.llm.TieredChatClient;
+import fst.cvinsight.backend.metrics.PipelineObservations;
+import fst.cvinsight.backend.service.ResumeExtractionService;
+import fst.cvinsight.backend.util.ContactScanner;
+import fst.cvinsight.backend.util.DocumentUtils;
+import fst.cvinsight.backend.util.ResumeSectionSegmenter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.ollama.OllamaChatModel;
+import org.springframework.ai.ollama.api.OllamaApi;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the extraction pipeline (text extraction, then LLM extraction) over the
+ * regression corpus and scores each result against its golden JSON:
+ * <pre>
+ * java -cp target/benchmarks.jar fst.cvinsight.backend.benchmark.ExtractionCorpusRunner \
+ *     [--config overrides.yml]... [--out extraction-report.json] [--without-contact-scanner]
+ * </pre>
+ * Settings come from the backend's application.yml, then each {@code --config} file,
+ * then system properties, so a configuration under evaluation (OCR languages, model
+ * tiers, chunking thresholds...) is just an overrides file. A real Ollama is needed,
+ * at {@code spring.ai.ollama.base-url}; scanned documents need tesseract.
+ * <p>
+ * The corpus is listed in {@code corpus/manifest.json}: each entry names a source
+ * text, the format it is rendered to ({@link Fixtures.Format}) and its golden output.
+ * The report holds, per file, text extraction time, extraction wall time, summed
+ * model time, prompt and completion tokens and field-level accuracy
+ * ({@link FieldAccuracy}); compare two reports with {@link ExtractionReportComparison}.
+ * {@code --without-contact-scanner} leaves every contact field to the model, so
+ * comparing a report with and without it gives the completion tokens that
+ * {@link ContactScanner} saves per resume.
+ */
+public final class ExtractionCorpusRunner {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private ExtractionCorpusRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> configs = new ArrayList<>();
+        Path out = Path.of("extraction-report.json");
+        boolean contactScanning = true;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--config" -> configs.add(args[++i]);
+                case "--out" -> out = Path.of(args[++i]);
+                case "--without-contact-scanner" -> contactScanning = false;
+                default -> throw new IllegalArgumentException("Unknown argument " + args[i]);
+            }
+        }
+
+        StandardEnvironment environment = environment(configs);
+        Binder binder = Binder.get(environment);
+        LlmProfiles profiles = binder.bind("llm", LlmProfiles.class).get();
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PipelineObservations observations = new PipelineObservations(ObservationRegistry.NOOP, meterRegistry);
+
+        String ocrLanguages = environment.getProperty("document.ocr.languages", "eng+fra+deu+ara");
+        boolean ocrImagePreprocessing = environment.getProperty("document.ocr.image-preprocessing", Boolean.class, true);
+        ThreadPoolTaskExecutor documentExecutor = new ThreadPoolTaskExecutor();
+        documentExecutor.setCorePoolSize(1);
+        documentExecutor.initialize();
+        DocumentUtils documentUtils = new DocumentUtils(documentExecutor, observations, ocrLanguages, ocrImagePreprocessing);
+
+        OllamaApi ollamaApi = OllamaApi.builder()
+                .baseUrl(environment.getProperty("spring.ai.ollama.base-url", "http://localhost:11434"))
+                .build();
+        ChatClient chatClient = ChatClient.create(OllamaChatModel.builder().ollamaApi(ollamaApi).build());
+        SimpleAsyncTaskExecutor llmExecutor = new SimpleAsyncTaskExecutor("llm-call-");
+        llmExecutor.setVirtualThreads(true);
+        boolean chunking = environment.getProperty("resume.extraction.chunking.enabled", Boolean.class, true);
+        int chunkingMinLength = environment.getProperty("resume.extraction.chunking.min-length", Integer.class, 4000);
+        int chunkingMinSections = environment.getProperty("resume.extraction.chunking.min-sections", Integer.class, 2);
+        ContactScanner contactScanner = contactScanning ? new ContactScanner() : new NoContactScanner();
+        ResumeExtractionService extractionService = new ResumeExtractionService(
+                new TieredChatClient(chatClient, profiles, meterRegistry, observations),
+                new ResumeSectionSegmenter(),
+                contactScanner,
+                observations,
+                MAPPER,
+                llmExecutor,
+                chunking, chunkingMinLength, chunkingMinSections);
+
+        ObjectNode report = MAPPER.createObjectNode();
+        ObjectNode config = report.putObject("config");
+        configs.forEach(config.putArray("files")::add);
+        config.put("ocrLanguages", ocrLanguages);
+        config.put("ocrImagePreprocessing", ocrImagePreprocessing);
+        config.put("chunking", chunking);
+        config.put("chunkingMinLength", chunkingMinLength);
+        config.put("chunkingMinSections", chunkingMinSections);
+        config.put("contactScanner", contactScanning);
+        LlmProfiles.Profile extraction = profiles.profile(LlmTask.EXTRACTION);
+        config.put("model", profiles.model(extraction.getModel()).getName());
+        config.put("temperature", extraction.getTemperature());
+        config.put("numCtx", extraction.getNumCtx());
+
+        Path directory = Files.createTempDirectory("cvinsight-corpus-");
+        ArrayNode files = report.putArray("files");
+        try {
+            for (JsonNode entry : readResource("corpus/manifest.json")) {
+                ObjectNode result = run(entry, directory, documentUtils, contactScanner, extractionService, meterRegistry);
+                files.add(result);
+                System.out.printf("%-14s %s%n", entry.path("id").asText(),
+                        result.has("error") ? "error: " + result.path("error").asText()
+                                : "F1 %.3f, %d ms text, %d ms extraction, %d tokens".formatted(
+                                result.path("f1").asDouble(), result.path("textExtractionMs").asLong(),
+                                result.path("extractionMs").asLong(),
+                                result.path("promptTokens").asLong() + result.path("completionTokens").asLong()));
+            }
+        } finally {
+            documentExecutor.shutdown();
+            FileSystemUtils.deleteRecursively(directory);
+        }
+
+        MAPPER.writerWithDefaultPrettyPrinter().writeValue(out.toFile(), report);
+        System.out.println("Report written to " + out.toAbsolutePath());
+    }
+
+    private static ObjectNode run(JsonNode entry, Path directory, DocumentUtils documentUtils, ContactScanner contactScanner,
+                                  ResumeExtractionService extractionService, MeterRegistry meterRegistry) throws IOException {
+        Fixtures.Format format = Fixtures.Format.valueOf(entry.path("format").asText());
+        String id = entry.path("id").asText();
+        ObjectNode result = MAPPER.createObjectNode()
+                .put("id", id)
+                .put("format", format.name())
+                .put("language", entry.path("language").asText());
+
+        Path document = Fixtures.write(format, readText(entry.path("source").asText()).lines().toList(),
+                entry.path("pages").asInt(1), directory.resolve(id + Fixtures.extension(format)));
+        try {
+            long start = System.nanoTime();
+            String text = documentUtils.extractText(document.toFile());
+            result.put("textExtractionMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            result.put("scannedContactFields", contactScanner.scan(text).asAboutFields().size());
+
+            double llmMsBefore = llmMillis(meterRegistry);
+            double promptBefore = tokens(meterRegistry, "prompt");
+            double completionBefore = tokens(meterRegistry, "completion");
+            start = System.nanoTime();
+            JsonNode extracted = MAPPER.readTree(extractionService.extract(text));
+            result.put("extractionMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            result.put("llmMs", Math.round(llmMillis(meterRegistry) - llmMsBefore));
+            result.put("promptTokens", Math.round(tokens(meterRegistry, "prompt") - promptBefore));
+            result.put("completionTokens", Math.round(tokens(meterRegistry, "completion") - completionBefore));
+
+            FieldAccuracy.Result accuracy = FieldAccuracy.score(readResource(entry.path("golden").asText()), extracted);
+            result.put("f1", accuracy.overall().f1());
+            result.put("precision", accuracy.overall().precision());
+            result.put("recall", accuracy.overall().recall());
+            ObjectNode fields = result.putObject("fields");
+            accuracy.fields().forEach((path, score) -> fields.put(path, score.f1()));
+        } catch (Exception e) {
+            result.put("error", e.getMessage());
+        }
+        return result;
+    }
+
+    private static double llmMillis(MeterRegistry meterRegistry) {
+        return meterRegistry.find("llm.task.latency").timers().stream()
+                .mapToDouble(timer -> timer.totalTime(TimeUnit.MILLISECONDS))
+                .sum();
+    }
+
+    private static double tokens(MeterRegistry meterRegistry, String type) {
+        return meterRegistry.find("llm.tokens").tag("type", type).counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+
+    private static StandardEnvironment environment(List<String> configs) throws IOException {
+        StandardEnvironment environment = new StandardEnvironment();
+        YamlPropertySourceLoader loader = new YamlPropertySourceLoader();
+        // Lowest precedence first; system properties and environment variables stay on top
+        for (PropertySource<?> source : loader.load("application.yml", new ClassPathResource("application.yml"))) {
+            environment.getPropertySources().addLast(source);
+        }
+        for (String config : configs) {
+            for (PropertySource<?> source : loader.load(config, new FileSystemResource(config))) {
+                environment.getPropertySources().addAfter(StandardEnvironment.SYSTEM_ENVIRONMENT_PROPERTY_SOURCE_NAME, source);
+            }
+        }
+        return environment;
+    }
+
+    private static JsonNode readResource(String name) throws IOException {
+        return MAPPER.readTree(readText(name));
+    }
+
+    private static String readText(String name) throws IOException {
+        try (InputStream in = ExtractionCorpusRunner.class.getClassLoader().getResourceAsStream(name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing corpus resource " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /*
+     * Finds nothing, so the extraction schema keeps every contact field
+     */
+    private static final class NoContactScanner extends ContactScanner {
+
+        @Override
+        public Contacts scan(String text) {
+            return new Contacts(null, null, null, null);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package fst.cvinsight.backend.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two {@link ExtractionCorpusRunner} reports, e.g. the current configuration
+ * and a candidate one (another model tier, OCR setting or chunking threshold):
+ * <pre>
+ * java -cp target/benchmarks.jar fst.cvinsight.backend.benchmark.ExtractionReportComparison base.json head.json [max-f1-drop]
+ * </pre>
+ * Prints per-file and total deltas of extraction time, tokens and F1, and the total
+ * and per-resume change in completion tokens. The exit status
+ * is 1 when a file failed, is missing from the current report or its F1 dropped by
+ * more than the threshold (0.02 by default); latency and tokens are reported only,
+ * since a slower but more accurate configuration may well be the one to pick.
+ */
+public final class ExtractionReportComparison {
+
+    private ExtractionReportComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: ExtractionReportComparison <baseline.json> <current.json> [max-f1-drop]");
+            System.exit(2);
+        }
+        double maxDrop = args.length > 2 ? Double.parseDouble(args[2]) : 0.02;
+        Map<String, JsonNode> baseline = read(new File(args[0]));
+        Map<String, JsonNode> current = read(new File(args[1]));
+
+        int regressions = 0;
+        long[] totals = new long[6];
+        int compared = 0;
+        System.out.printf("%-14s %18s %18s %18s %18s%n", "file", "text ms", "extraction ms", "tokens", "F1");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode now = entry.getValue();
+            JsonNode before = baseline.get(entry.getKey());
+            if (now.has("error")) {
+                regressions++;
+                System.out.printf("%-14s error: %s%n", entry.getKey(), now.path("error").asText());
+                continue;
+            }
+            if (before == null || before.has("error")) {
+                System.out.printf("%-14s %18d %18d %18d %18.3f  new%n", entry.getKey(),
+                        now.path("textExtractionMs").asLong(), now.path("extractionMs").asLong(),
+                        tokens(now), now.path("f1").asDouble());
+                continue;
+            }
+            double f1Change = now.path("f1").asDouble() - before.path("f1").asDouble();
+            boolean regressed = -f1Change > maxDrop;
+            if (regressed) {
+                regressions++;
+            }
+            totals[0] += before.path("extractionMs").asLong();
+            totals[1] += now.path("extractionMs").asLong();
+            totals[2] += tokens(before);
+            totals[3] += tokens(now);
+            totals[4] += before.path("completionTokens").asLong();
+            totals[5] += now.path("completionTokens").asLong();
+            compared++;
+            System.out.printf("%-14s %18s %18s %18s %+18.3f%s%n", entry.getKey(),
+                    delta(before.path("textExtractionMs").asLong(), now.path("textExtractionMs").asLong()),
+                    delta(before.path("extractionMs").asLong(), now.path("extractionMs").asLong()),
+                    delta(tokens(before), tokens(now)),
+                    f1Change, regressed ? "  REGRESSION" : "");
+        }
+        for (String id : baseline.keySet()) {
+            if (!current.containsKey(id)) {
+                regressions++;
+                System.out.printf("%-14s missing from the current report%n", id);
+            }
+        }
+        System.out.printf("total: extraction %s ms, tokens %s, mean F1 %.3f -> %.3f%n",
+                delta(totals[0], totals[1]), delta(totals[2], totals[3]), meanF1(baseline), meanF1(current));
+        System.out.printf("completion tokens %s, %+.1f per resume%n", delta(totals[4], totals[5]),
+                compared > 0 ? (double) (totals[5] - totals[4]) / compared : 0);
+        System.out.printf("%d regression(s) over an F1 drop of %.3f%n", regressions, maxDrop);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    private static String delta(long before, long now) {
+        return before == 0 ? "%d -> %d".formatted(before, now)
+                : "%d (%+.0f%%)".formatted(now, (now - before) * 100.0 / before);
+    }
+
+    private static long tokens(JsonNode file) {
+        return file.path("promptTokens").asLong() + file.path("completionTokens").asLong();
+    }
+
+    private static double meanF1(Map<String, JsonNode> files) {
+        return files.values().stream()
+                .filter(file -> !file.has("error"))
+                .mapToDouble(file -> file.path("f1").asDouble())
+                .average()
+                .orElse(0);
+    }
+
+    private static Map<String, JsonNode> read(File file) throws IOException {
+        Map<String, JsonNode> files = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file).path("files")) {
+            files.put(result.path("id").asText(), result);
+        }
+        return files;
+    }
+}
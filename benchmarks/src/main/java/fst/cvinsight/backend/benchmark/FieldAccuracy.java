@@ -0,0 +1,140 @@
+package fst.cvinsight.backend.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Field-level accuracy of an extracted resume against its golden JSON.
+ * <p>
+ * Both documents are flattened into values per field path, array indices removed
+ * ({@code work[].company}), so entries are matched regardless of their order.
+ * Values are compared after normalization (case, accents, punctuation, URL scheme);
+ * long free-text values also match when their word sets mostly overlap, since the
+ * model is allowed to rephrase descriptions. Precision, recall and F1 are computed
+ * per path and overall (micro-averaged). Empty values are ignored on both sides.
+ */
+public final class FieldAccuracy {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern URL_PREFIX = Pattern.compile("^https?://(www\\.)?");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int FREE_TEXT_MIN_WORDS = 6;
+    private static final double FREE_TEXT_MIN_OVERLAP = 0.7;
+
+    public record Score(int matched, int predicted, int expected) {
+
+        public double precision() {
+            return predicted == 0 ? (expected == 0 ? 1 : 0) : (double) matched / predicted;
+        }
+
+        public double recall() {
+            return expected == 0 ? 1 : (double) matched / expected;
+        }
+
+        public double f1() {
+            double p = precision();
+            double r = recall();
+            return p + r == 0 ? 0 : 2 * p * r / (p + r);
+        }
+
+        Score plus(Score other) {
+            return new Score(matched + other.matched, predicted + other.predicted, expected + other.expected);
+        }
+    }
+
+    public record Result(Score overall, Map<String, Score> fields) {
+    }
+
+    private FieldAccuracy() {
+    }
+
+    public static Result score(JsonNode golden, JsonNode predicted) {
+        Map<String, List<String>> expectedValues = flatten(golden);
+        Map<String, List<String>> predictedValues = flatten(predicted);
+        Set<String> paths = new HashSet<>(expectedValues.keySet());
+        paths.addAll(predictedValues.keySet());
+
+        Map<String, Score> fields = new TreeMap<>();
+        Score overall = new Score(0, 0, 0);
+        for (String path : paths) {
+            List<String> expected = expectedValues.getOrDefault(path, List.of());
+            List<String> actual = predictedValues.getOrDefault(path, List.of());
+            Score score = new Score(countMatches(expected, actual), actual.size(), expected.size());
+            fields.put(path, score);
+            overall = overall.plus(score);
+        }
+        return new Result(overall, fields);
+    }
+
+    /*
+     * Greedy one-to-one matching: each expected value consumes at most one predicted value
+     */
+    private static int countMatches(List<String> expected, List<String> actual) {
+        List<String> remaining = new ArrayList<>(actual);
+        int matched = 0;
+        for (String value : expected) {
+            for (int i = 0; i < remaining.size(); i++) {
+                if (matches(value, remaining.get(i))) {
+                    remaining.remove(i);
+                    matched++;
+                    break;
+                }
+            }
+        }
+        return matched;
+    }
+
+    private static boolean matches(String expected, String actual) {
+        if (expected.equals(actual)) {
+            return true;
+        }
+        Set<String> expectedWords = new HashSet<>(Arrays.asList(expected.split(" ")));
+        if (expectedWords.size() < FREE_TEXT_MIN_WORDS) {
+            return false;
+        }
+        Set<String> actualWords = new HashSet<>(Arrays.asList(actual.split(" ")));
+        Set<String> union = new HashSet<>(expectedWords);
+        union.addAll(actualWords);
+        expectedWords.retainAll(actualWords);
+        return (double) expectedWords.size() / union.size() >= FREE_TEXT_MIN_OVERLAP;
+    }
+
+    private static Map<String, List<String>> flatten(JsonNode node) {
+        Map<String, List<String>> values = new TreeMap<>();
+        flatten(node, "", values);
+        return values;
+    }
+
+    private static void flatten(JsonNode node, String path, Map<String, List<String>> values) {
+        if (node == null || node.isNull() || node.isMissingNode()) {
+            return;
+        }
+        if (node.isObject()) {
+            node.properties().forEach(e -> flatten(e.getValue(), path.isEmpty() ? e.getKey() : path + "." + e.getKey(), values));
+        } else if (node.isArray()) {
+            node.forEach(item -> flatten(item, path + "[]", values));
+        } else {
+            String value = normalize(node.asText());
+            if (!value.isEmpty()) {
+                values.computeIfAbsent(path, p -> new ArrayList<>()).add(value);
+            }
+        }
+    }
+
+    static String normalize(String value) {
+        String text = MARKS.matcher(Normalizer.normalize(value.trim(), Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        text = URL_PREFIX.matcher(text).replaceFirst("");
+        return NON_ALPHANUMERIC.matcher(text).replaceAll(" ").trim();
+    }
+}
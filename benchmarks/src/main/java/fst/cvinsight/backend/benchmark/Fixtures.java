@@ -0,0 +1,171 @@
+package fst.cvinsight.backend.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Fixture corpus of the benchmarks, generated from the sample resume in
+ * {@code fixtures/} so no binary documents live in the repository.
+ * <p>
+ * A fixture of {@code n} pages repeats the sample resume {@code n} times, one copy
+ * per page. Scanned fixtures are PDFs holding only a 300 DPI image of each page.
+ */
+public final class Fixtures {
+
+    public enum Format {
+        PDF, DOCX, SCANNED
+    }
+
+    private static final int LINES_PER_PAGE = 48;
+    private static final int SCAN_DPI = 300;
+
+    private Fixtures() {
+    }
+
+    public static String resumeText() {
+        return resource("fixtures/resume.txt");
+    }
+
+    public static JsonNode resumeJson(ObjectMapper objectMapper) {
+        try {
+            return objectMapper.readTree(resource("fixtures/resume.json"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes a fixture document of the given format into {@code directory}.
+     */
+    public static Path write(Format format, int pages, Path directory) throws IOException {
+        String name = "resume-" + pages + (format == Format.SCANNED ? "-scanned" : "");
+        return write(format, resumeText().lines().toList(), pages, directory.resolve(name + extension(format)));
+    }
+
+    /**
+     * Writes {@code lines} as a document of the given format; at most 48 lines fit on a page.
+     */
+    public static Path write(Format format, List<String> lines, int pages, Path target) throws IOException {
+        return switch (format) {
+            case PDF -> writePdf(lines, pages, target);
+            case DOCX -> writeDocx(lines, pages, target);
+            case SCANNED -> writeScannedPdf(lines, pages, target);
+        };
+    }
+
+    public static String extension(Format format) {
+        return format == Format.DOCX ? ".docx" : ".pdf";
+    }
+
+    private static Path writePdf(List<String> lines, int pages, Path target) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+            for (int p = 0; p < pages; p++) {
+                PDPage page = new PDPage(PDRectangle.A4);
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(font, 9);
+                    content.setLeading(15);
+                    content.newLineAtOffset(50, page.getMediaBox().getHeight() - 50);
+                    for (String line : lines.subList(0, Math.min(lines.size(), LINES_PER_PAGE))) {
+                        content.showText(line);
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            document.save(target.toFile());
+        }
+        return target;
+    }
+
+    private static Path writeDocx(List<String> lines, int pages, Path target) throws IOException {
+        try (XWPFDocument document = new XWPFDocument();
+             OutputStream out = Files.newOutputStream(target)) {
+            for (int p = 0; p < pages; p++) {
+                for (String line : lines) {
+                    document.createParagraph().createRun().setText(line);
+                }
+                if (p < pages - 1) {
+                    document.createParagraph().setPageBreak(true);
+                }
+            }
+            document.write(out);
+        }
+        return target;
+    }
+
+    private static Path writeScannedPdf(List<String> lines, int pages, Path target) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            BufferedImage scan = renderPage(lines);
+            PDImageXObject image = LosslessFactory.createFromImage(document, scan);
+            for (int p = 0; p < pages; p++) {
+                PDPage page = new PDPage(PDRectangle.A4);
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    PDRectangle box = page.getMediaBox();
+                    content.drawImage(image, 0, 0, box.getWidth(), box.getHeight());
+                }
+            }
+            document.save(target.toFile());
+        }
+        return target;
+    }
+
+    private static BufferedImage renderPage(List<String> lines) {
+        float scale = SCAN_DPI / 72f;
+        int width = Math.round(PDRectangle.A4.getWidth() * scale);
+        int height = Math.round(PDRectangle.A4.getHeight() * scale);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.setColor(Color.BLACK);
+            graphics.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, Math.round(9 * scale)));
+            List<String> pageLines = lines.subList(0, Math.min(lines.size(), LINES_PER_PAGE));
+            for (int i = 0; i < pageLines.size(); i++) {
+                graphics.drawString(pageLines.get(i), 50 * scale, (50 + i * 15) * scale);
+            }
+        } finally {
+            graphics.dispose();
+        }
+        return image;
+    }
+
+    private static String resource(String name) {
+        try (InputStream in = Fixtures.class.getClassLoader().getResourceAsStream(name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing fixture " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package fst.cvinsight.backend.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import fst.cvinsight.backend.benchmark.Fixtures;
+import fst.cvinsight.backend.model.ResumeOrigin;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response body of {@code GET /resume/{id}} (size 1) and {@code GET /resume} (a
+ * user's list, up to a large one), starting from the jsonb text the driver returns.
+ * The DTOs are built directly, like the constructor projections of the queries:
+ * <ul>
+ *   <li>{@code tree}: parsed into a {@link JsonNode} on load, then serialized back,
+ *   as with {@code ResumeDto.jsonContent} typed as a tree</li>
+ *   <li>{@code raw}: the text is copied into the response as is ({@link ResumeDto})</li>
+ * </ul>
+ * Run with {@code -prof gc} for the allocation rate per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResumeDtoSerializationBenchmark {
+
+    private record TreeResumeDto(UUID id, String filename, String contentType, long size, UUID uploadedById,
+                                 LocalDateTime uploadedAt, JsonNode jsonContent, ResumeOrigin origin, Double score) {
+    }
+
+    @Param({"1", "50", "1000"})
+    public int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final UUID userId = UUID.randomUUID();
+    private final LocalDateTime uploadedAt = LocalDateTime.now();
+    private List<String> rows;
+
+    @Setup
+    public void setUp() {
+        String json = Fixtures.resumeJson(objectMapper).toString();
+        rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            rows.add(json);
+        }
+    }
+
+    @Benchmark
+    public byte[] tree() throws JsonProcessingException {
+        List<TreeResumeDto> dtos = new ArrayList<>(size);
+        for (String row : rows) {
+            dtos.add(new TreeResumeDto(userId, "resume.pdf", "application/pdf", 64 * 1024, userId,
+                    uploadedAt, objectMapper.readTree(row), ResumeOrigin.USER_UPLOADED, 72.0));
+        }
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public byte[] raw() throws JsonProcessingException {
+        List<ResumeDto> dtos = new ArrayList<>(size);
+        for (String row : rows) {
+            dtos.add(new ResumeDto(userId, "resume.pdf", "application/pdf", 64 * 1024, userId,
+                    uploadedAt, row, ResumeOrigin.USER_UPLOADED, 72.0));
+        }
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+}
@@ -0,0 +1,66 @@
+package fst.cvinsight.backend.entity;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fst.cvinsight.backend.benchmark.Fixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Work the {@code jsonb} mapping of {@link Resume#getJsonContent()} does per row:
+ * parsing on load and serialization on write (Jackson, through Hibernate's format
+ * mapper), and the snapshot copy ({@link JsonNodeMutabilityPlan}) and comparison
+ * used by dirty checking at flush.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResumeJsonContentBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonNodeMutabilityPlan mutabilityPlan = new JsonNodeMutabilityPlan();
+    private String json;
+    private JsonNode node;
+    private JsonNode snapshot;
+
+    @Setup
+    public void setUp() {
+        node = Fixtures.resumeJson(objectMapper);
+        json = node.toString();
+        snapshot = mutabilityPlan.deepCopy(node);
+    }
+
+    @Benchmark
+    public JsonNode read() throws JsonProcessingException {
+        return objectMapper.readTree(json);
+    }
+
+    @Benchmark
+    public String write() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(node);
+    }
+
+    @Benchmark
+    public JsonNode snapshot() {
+        return mutabilityPlan.deepCopy(node);
+    }
+
+    @Benchmark
+    public boolean dirtyCheck() {
+        return node.equals(snapshot);
+    }
+}
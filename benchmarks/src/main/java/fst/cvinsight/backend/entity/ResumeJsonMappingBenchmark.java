@@ -0,0 +1,214 @@
+package fst.cvinsight.backend.entity;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vladmihalcea.hibernate.type.json.JsonType;
+import com.zaxxer.hikari.HikariDataSource;
+import fst.cvinsight.backend.benchmark.Fixtures;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Table;
+import org.hibernate.SessionFactory;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.Mutability;
+import org.hibernate.annotations.Type;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.type.SqlTypes;
+import org.hibernate.type.format.jackson.JacksonJsonFormatMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity load and save throughput of a {@code jsonb} resume column against an
+ * embedded Postgres seeded with {@code rows} resumes, mapped either with
+ * hibernate-types' {@code JsonType} (the former mapping of {@link Resume#getJsonContent()})
+ * or natively with {@code @JdbcTypeCode(SqlTypes.JSON)}, a Jackson format mapper and
+ * {@link JsonNodeMutabilityPlan}, as it is now.
+ * <p>
+ * One operation loads (including the flush-time dirty check) or persists a batch
+ * of {@value #BATCH} resumes in its own transaction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ResumeJsonMappingBenchmark {
+
+    private static final int BATCH = 100;
+
+    @MappedSuperclass
+    public abstract static class JsonResume {
+        @Id
+        UUID id;
+        String filename;
+        Double score;
+
+        abstract JsonNode getJsonContent();
+
+        abstract void setJsonContent(JsonNode jsonContent);
+    }
+
+    @Entity
+    @Table(name = "types_json_resume")
+    public static class TypesJsonResume extends JsonResume {
+        @Type(JsonType.class)
+        @Column(columnDefinition = "jsonb")
+        JsonNode jsonContent;
+
+        @Override
+        JsonNode getJsonContent() {
+            return jsonContent;
+        }
+
+        @Override
+        void setJsonContent(JsonNode jsonContent) {
+            this.jsonContent = jsonContent;
+        }
+    }
+
+    @Entity
+    @Table(name = "native_json_resume")
+    public static class NativeJsonResume extends JsonResume {
+        @JdbcTypeCode(SqlTypes.JSON)
+        @Mutability(JsonNodeMutabilityPlan.class)
+        @Column(columnDefinition = "jsonb")
+        JsonNode jsonContent;
+
+        @Override
+        JsonNode getJsonContent() {
+            return jsonContent;
+        }
+
+        @Override
+        void setJsonContent(JsonNode jsonContent) {
+            this.jsonContent = jsonContent;
+        }
+    }
+
+    @Param({"hibernate-types", "native"})
+    public String mapping;
+
+    @Param({"20000"})
+    public int rows;
+
+    private EmbeddedPostgres postgres;
+    private HikariDataSource dataSource;
+    private SessionFactory sessionFactory;
+    private Class<? extends JsonResume> entity;
+    private JsonNode json;
+    private final List<UUID> ids = new ArrayList<>();
+
+    @Setup
+    public void setUp() throws IOException, SQLException {
+        postgres = EmbeddedPostgres.builder().start();
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(postgres.getJdbcUrl("postgres", "postgres"));
+        dataSource.setUsername("postgres");
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        json = Fixtures.resumeJson(objectMapper);
+        entity = mapping.equals("native") ? NativeJsonResume.class : TypesJsonResume.class;
+        sessionFactory = new MetadataSources(new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, dataSource)
+                .applySetting(AvailableSettings.HBM2DDL_AUTO, "create")
+                .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, BATCH)
+                .applySetting(AvailableSettings.PHYSICAL_NAMING_STRATEGY, new CamelCaseToUnderscoresNamingStrategy())
+                .applySetting(AvailableSettings.JSON_FORMAT_MAPPER, new JacksonJsonFormatMapper(objectMapper))
+                .build())
+                .addAnnotatedClass(entity)
+                .buildMetadata()
+                .buildSessionFactory();
+        seed(entity.getAnnotation(Table.class).name());
+    }
+
+    /*
+     * Straight JDBC, so seeding costs the same whatever the mapping
+     */
+    private void seed(String table) throws SQLException {
+        String text = json.toString();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement(
+                     "insert into " + table + " (id, filename, score, json_content) values (?, ?, ?, ?::jsonb)")) {
+            connection.setAutoCommit(false);
+            for (int i = 0; i < rows; i++) {
+                UUID id = UUID.randomUUID();
+                ids.add(id);
+                insert.setObject(1, id);
+                insert.setString(2, "resume-" + i + ".pdf");
+                insert.setDouble(3, 72.0);
+                insert.setString(4, text);
+                insert.addBatch();
+                if (i % 1000 == 999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        sessionFactory.close();
+        dataSource.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public int load() {
+        List<UUID> batch = new ArrayList<>(BATCH);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < BATCH; i++) {
+            batch.add(ids.get(random.nextInt(ids.size())));
+        }
+        return sessionFactory.fromTransaction(session -> {
+            int fields = 0;
+            for (JsonResume resume : session.byMultipleIds(entity).multiLoad(batch)) {
+                fields += resume.getJsonContent().size();
+            }
+            return fields;
+        });
+    }
+
+    @Benchmark
+    public void save() {
+        sessionFactory.inTransaction(session -> {
+            for (int i = 0; i < BATCH; i++) {
+                JsonResume resume = mapping.equals("native") ? new NativeJsonResume() : new TypesJsonResume();
+                resume.id = UUID.randomUUID();
+                resume.filename = "resume.pdf";
+                resume.score = 72.0;
+                resume.setJsonContent(json.deepCopy());
+                session.persist(resume);
+            }
+        });
+    }
+}
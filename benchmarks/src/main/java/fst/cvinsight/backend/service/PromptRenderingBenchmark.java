@@ -0,0 +1,54 @@
+package fst.cvinsight.backend.service;
+
+import fst.cvinsight.backend.benchmark.Fixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering of the extraction prompts (StringTemplate), for a full resume
+ * and for a single section.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PromptRenderingBenchmark {
+
+    @Param({"1", "5"})
+    public int pages;
+
+    private ResumeExtractionService extractionService;
+    private String resumeText;
+    private String sectionText;
+
+    @Setup
+    public void setUp() {
+        // Only the prompt builders are exercised, they use none of the collaborators
+        extractionService = new ResumeExtractionService(null, null, null, null, null, null, true, 4000, 2);
+        resumeText = Fixtures.resumeText().repeat(pages);
+        sectionText = resumeText.substring(0, Math.min(resumeText.length(), 800));
+    }
+
+    @Benchmark
+    public String extractionPrompt() {
+        return extractionService.buildExtractionPrompt(resumeText);
+    }
+
+    @Benchmark
+    public String sectionPrompt() {
+        return extractionService.buildSectionPrompt(sectionText);
+    }
+}
@@ -0,0 +1,55 @@
+package fst.cvinsight.backend.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contact scanning of an extracted resume, run before every extraction prompt, with
+ * the contact header followed by a body of the given number of lines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContactScannerBenchmark {
+
+    private static final String HEADER = """
+            Jane Doe
+            Backend Engineer
+            Tunis, Tunisia | +216 20 123 456 | jane.doe@example.com.
+            linkedin.com/in/jane-doe-42/ · https://GitHub.com/janedoe
+            EXPERIENCE
+            2021 - 2024 Backend developer, Acme (Java, Spring, 12000000 req/day)
+            Maintained github.com/acme/payments
+            """;
+
+    @Param({"10", "80"})
+    public int bodyLines;
+
+    private ContactScanner scanner;
+    private String text;
+
+    @Setup
+    public void setUp() {
+        scanner = new ContactScanner();
+        text = HEADER + "Lorem ipsum dolor sit amet, consectetur adipiscing elit.\n".repeat(bodyLines);
+    }
+
+    @Benchmark
+    public ContactScanner.Contacts scan() {
+        return scanner.scan(text);
+    }
+}
@@ -0,0 +1,85 @@
+package fst.cvinsight.backend.util;
+
+import fst.cvinsight.backend.benchmark.Fixtures;
+import fst.cvinsight.backend.metrics.PipelineObservations;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Text extraction through the document-extraction pool, per format and length.
+ * Scanned fixtures go through Tesseract, which must be on the PATH.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DocumentUtilsBenchmark {
+
+    @Param({"PDF", "DOCX", "SCANNED"})
+    public Fixtures.Format format;
+
+    @Param({"1", "5"})
+    public int pages;
+
+    private Path directory;
+    private File file;
+    private ThreadPoolTaskExecutor executor;
+    private DocumentUtils documentUtils;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("cvinsight-bench-");
+        file = Fixtures.write(format, pages, directory).toFile();
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("document-extraction-");
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(50);
+        executor.initialize();
+        documentUtils = new DocumentUtils(executor,
+                new PipelineObservations(ObservationRegistry.NOOP, new SimpleMeterRegistry()),
+                "eng+fra+deu+ara", true);
+
+        try {
+            documentUtils.extractText(file);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot extract " + format + " fixture"
+                    + (format == Fixtures.Format.SCANNED ? " (is tesseract installed?)" : ""), e);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        executor.shutdown();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public String extractText() throws IOException {
+        return documentUtils.extractText(file);
+    }
+}